@@ -0,0 +1,79 @@
+package ua.foxminded.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import reactor.core.publisher.Flux;
+import ua.foxminded.model.LinkValidationResult;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the per-link work done between extraction and validation: canonicalizing links, deduplicating the link
+ * occurrences of a scan and resolving the host each link is scheduled under.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkDedupBenchmark {
+
+    @Param({"20000"})
+    private int occurrences;
+
+    @Param({"2000"})
+    private int uniqueLinks;
+
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer("utm_*,fbclid,gclid", false);
+    private List<String> links;
+    private List<LinkValidationResult> results;
+
+    @Setup
+    public void setUp() {
+        links = MoodlePayloads.links(occurrences, uniqueLinks);
+        results = links.stream()
+                .map(link -> new LinkValidationResult(link, false, "JAVA-1", "Task 1", ""))
+                .toList();
+    }
+
+    @Benchmark
+    public long distinctLinks() {
+        return Flux.fromIterable(results)
+                .distinct(LinkValidationResult::link)
+                .count()
+                .block();
+    }
+
+    @Benchmark
+    public void canonicalize(final Blackhole blackhole) {
+        for (final String link : links) {
+            blackhole.consume(canonicalizer.canonicalize(link));
+        }
+    }
+
+    @Benchmark
+    public int urlIndex() {
+        final UrlIndex urlIndex = new UrlIndex(canonicalizer);
+        results.forEach(urlIndex::add);
+        return urlIndex.urlCount();
+    }
+
+    @Benchmark
+    public void hostOf(final Blackhole blackhole) {
+        for (final String link : links) {
+            blackhole.consume(HostRequestScheduler.hostOf(link));
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package ua.foxminded.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Compares the streaming link scanner with the Jsoup DOM it replaced, over a batch of assignment intros.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LinkExtractionBenchmark {
+
+    private static final int INTROS = 100;
+
+    @Param({"2", "20"})
+    private int linksPerIntro;
+
+    private final HtmlLinkExtractor extractor = new HtmlLinkExtractor();
+    private List<String> intros;
+
+    @Setup
+    public void setUp() {
+        final Random random = new Random(42);
+        intros = IntStream.range(0, INTROS)
+                .mapToObj(i -> MoodlePayloads.intro(random, i % 10, linksPerIntro))
+                .toList();
+    }
+
+    @Benchmark
+    public void extractLinks(final Blackhole blackhole) {
+        for (final String intro : intros) {
+            blackhole.consume(extractor.extract(intro));
+        }
+    }
+
+    @Benchmark
+    public void extractLinksWithJsoup(final Blackhole blackhole) {
+        for (final String intro : intros) {
+            blackhole.consume(extractor.extractWithJsoup(intro));
+        }
+    }
+}
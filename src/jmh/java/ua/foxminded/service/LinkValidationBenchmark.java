@@ -0,0 +1,125 @@
+package ua.foxminded.service;
+
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+import ua.foxminded.config.LinkCheckerHttpClientConfig;
+import ua.foxminded.model.LinkValidationResult;
+
+import java.net.InetAddress;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures {@link LinkValidator#validateLinks} of both engines end to end against a stub HTTP server on the loopback
+ * interface. Every path answers immediately with a small page, {@code 200} or {@code 404} for paths under
+ * {@code /missing/}, so the result reflects the client side: scheduling, connection handling and result mapping.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class LinkValidationBenchmark {
+
+    private static final String BODY = "<html><body>" + "Lorem ipsum dolor sit amet. ".repeat(400) + "</body></html>";
+
+    @Param({"500"})
+    private int links;
+
+    @Param({"4", "64"})
+    private int maxPerHost;
+
+    /**
+     * {@code GET} marks the stub server as HEAD-hostile, measuring the fallback that aborts the body download.
+     */
+    @Param({"HEAD", "GET"})
+    private String probe;
+
+    @Param({"reactor", "virtual-threads"})
+    private String engine;
+
+    private DisposableServer server;
+    private ConnectionProvider connectionProvider;
+    private LinkValidator linkValidator;
+    private List<LinkValidationResult> linksToValidate;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        server = HttpServer.create()
+                .host(InetAddress.getLoopbackAddress().getHostAddress())
+                .port(0)
+                .handle((request, response) -> {
+                    final HttpResponseStatus status = request.uri().startsWith("/missing/")
+                            ? HttpResponseStatus.NOT_FOUND
+                            : HttpResponseStatus.OK;
+                    return response.status(status).sendString(Mono.just(BODY));
+                })
+                .bindNow();
+
+        final String baseUrl = "http://" + server.host() + ":" + server.port();
+        linksToValidate = IntStream.range(0, links)
+                .mapToObj(i -> baseUrl + (i % 20 == 0 ? "/missing/" : "/docs/") + i)
+                .map(link -> new LinkValidationResult(link, false, "JAVA-1", "Task 1", ""))
+                .toList();
+
+        final String headHostileHosts = "GET".equals(probe) ? server.host() : "";
+        final LinkCheckerHttpClientConfig httpClientConfig = new LinkCheckerHttpClientConfig();
+        final HostLatencyTracker hostLatencyTracker = new HostLatencyTracker(30, Duration.ofSeconds(2), 3,
+                Duration.ofHours(24));
+        final TransientFailureRetry transientFailureRetry =
+                new TransientFailureRetry(2, Duration.ofMillis(500), Duration.ofSeconds(30));
+        // every invocation measures full checks rather than conditional revalidations
+        final ConditionalRequests conditionalRequests = new ConditionalRequests(false);
+        final RedirectCache redirectCache = new RedirectCache(Duration.ofDays(7), Duration.ofHours(1), 10_000);
+        if ("virtual-threads".equals(engine)) {
+            linkValidator = new VirtualThreadLinkValidator(httpClientConfig.jdkLinkCheckerHttpClient(30, false),
+                    hostLatencyTracker, transientFailureRetry, new ScanMetrics(new SimpleMeterRegistry()), conditionalRequests,
+                    redirectCache, Duration.ofMinutes(30), 1000, maxPerHost, 0, headHostileHosts);
+            return;
+        }
+        connectionProvider = httpClientConfig.linkCheckerConnectionProvider(30, 64, 256, Duration.ofSeconds(20),
+                Duration.ofMinutes(5), Duration.ofSeconds(30), false, false, 100);
+        final HttpClient httpClient = httpClientConfig.linkCheckerHttpClient(connectionProvider,
+                new SimpleMeterRegistry(), 30, false, Duration.ZERO, Duration.ofHours(1), Duration.ofMinutes(5),
+                Duration.ofSeconds(5));
+        linkValidator = new LinkValidatorService(WebClient.builder(), httpClient, hostLatencyTracker,
+                transientFailureRetry, new ScanMetrics(new SimpleMeterRegistry()), conditionalRequests, redirectCache,
+                Duration.ofMinutes(30), 64, maxPerHost, 0, headHostileHosts);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+        server.disposeNow();
+    }
+
+    @Benchmark
+    public long validateLinks() {
+        return linkValidator.validateLinks(Flux.fromIterable(linksToValidate)).count().block();
+    }
+}
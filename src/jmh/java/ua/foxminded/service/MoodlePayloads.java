@@ -0,0 +1,106 @@
+package ua.foxminded.service;
+
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Generates {@code mod_assign_get_assignments} responses and links shaped like the ones of the real LMS: courses with
+ * a couple of dozen assignments whose intros are a few kilobytes of editor HTML, linking mostly to a small set of
+ * popular hosts and repeating some links between assignments of the same course.
+ */
+final class MoodlePayloads {
+
+    private static final String[] HOSTS = {
+            "github.com", "docs.oracle.com", "www.youtube.com", "stackoverflow.com", "developer.mozilla.org",
+            "www.baeldung.com", "spring.io", "en.wikipedia.org", "www.figma.com", "foxminded.ua"
+    };
+
+    private static final String FILLER = "<p dir=\"ltr\" style=\"text-align: left;\"><span style=\"font-size: 0.9375rem;\">"
+            + "Implement the task according to the description and cover it with unit tests. Pay attention to "
+            + "naming, formatting &amp; the single responsibility principle.</span></p>";
+
+    private MoodlePayloads() {
+    }
+
+    static byte[] assignmentsResponse(final int courses, final int assignmentsPerCourse, final int linksPerIntro) {
+        final Random random = new Random(courses * 31L + assignmentsPerCourse);
+        final StringBuilder json = new StringBuilder(courses * assignmentsPerCourse * 4096);
+        json.append("{\"courses\":[");
+        for (int course = 1; course <= courses; course++) {
+            if (course > 1) {
+                json.append(',');
+            }
+            json.append("{\"id\":").append(course)
+                    .append(",\"fullname\":\"Java Course ").append(course)
+                    .append("\",\"shortname\":\"JAVA-").append(course)
+                    .append("\",\"timemodified\":1700000000,\"assignments\":[");
+            for (int assignment = 1; assignment <= assignmentsPerCourse; assignment++) {
+                if (assignment > 1) {
+                    json.append(',');
+                }
+                final long id = (long) course * 1000 + assignment;
+                json.append("{\"id\":").append(id)
+                        .append(",\"cmid\":").append(id + 500_000)
+                        .append(",\"course\":").append(course)
+                        .append(",\"name\":\"Task ").append(assignment)
+                        .append("\",\"nosubmissions\":0,\"duedate\":0,\"allowsubmissionsfromdate\":0,\"grade\":100")
+                        .append(",\"timemodified\":").append(1700000000L + id)
+                        .append(",\"intro\":\"");
+                json.append(JsonStringEncoder.getInstance().quoteAsString(
+                        intro(random, course, linksPerIntro)));
+                json.append("\",\"introformat\":1,\"introfiles\":[],\"introattachments\":[]}");
+            }
+            json.append("]}");
+        }
+        json.append("],\"warnings\":[]}");
+        return json.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    static String intro(final Random random, final int course, final int links) {
+        final StringBuilder html = new StringBuilder(4096);
+        html.append("<h5>Task description</h5>").append(FILLER);
+        for (int i = 0; i < links; i++) {
+            final String link = link(random, course);
+            if (i % 4 == 3) {
+                html.append("<p><img src=\"").append(link).append("\" alt=\"diagram\" width=\"600\"></p>");
+            } else {
+                html.append("<p>See <a href=\"").append(link.replace("&", "&amp;"))
+                        .append("\" target=\"_blank\" rel=\"noreferrer noopener\">this article</a>.</p>");
+            }
+            html.append(FILLER);
+        }
+        html.append("<p><a href=\"#top\">Back to top</a></p>");
+        return html.toString();
+    }
+
+    /**
+     * Returns {@code total} link occurrences drawn from {@code unique} distinct links.
+     */
+    static List<String> links(final int total, final int unique) {
+        final Random random = new Random(total * 31L + unique);
+        final List<String> links = new ArrayList<>(total);
+        for (int i = 0; i < total; i++) {
+            links.add(link(random.nextInt(unique)));
+        }
+        return links;
+    }
+
+    private static String link(final Random random, final int course) {
+        // Links repeat within a course, and some popular ones across all courses
+        final int index = random.nextInt(4) == 0 ? random.nextInt(20) : course * 40 + random.nextInt(40);
+        return link(index);
+    }
+
+    private static String link(final int index) {
+        final String host = HOSTS[index % HOSTS.length];
+        return switch (index % 3) {
+            case 0 -> "https://" + host + "/docs/section-" + index + "/page.html";
+            case 1 -> "https://" + host + "/search?q=topic" + index + "&lang=en";
+            default -> "http://" + host + "/articles/" + index + "#overview";
+        };
+    }
+}
@@ -0,0 +1,92 @@
+package ua.foxminded.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Measures turning a {@code mod_assign_get_assignments} response into link results: streaming JSON parsing, link
+ * extraction from the intros and per-course deduplication. The response is served from memory in network-sized
+ * chunks, so no time is spent on I/O.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MoodleResponseBenchmark {
+
+    private static final int CHUNK_SIZE = 16 * 1024;
+    private static final int ASSIGNMENTS_PER_COURSE = 25;
+    private static final int LINKS_PER_INTRO = 8;
+
+    @Param({"10", "100"})
+    private int courses;
+
+    /**
+     * With the index enabled every assignment is already known, so only parsing and deduplication remain.
+     */
+    @Param({"false", "true"})
+    private boolean incremental;
+
+    private byte[] payload;
+    private List<Integer> courseIds;
+    private MoodleApiService moodleApiService;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        payload = MoodlePayloads.assignmentsResponse(courses, ASSIGNMENTS_PER_COURSE, LINKS_PER_INTRO);
+        courseIds = IntStream.rangeClosed(1, courses).boxed().toList();
+
+        final WebClient.Builder webClientBuilder = WebClient.builder()
+                .exchangeFunction(request -> Mono.just(ClientResponse.create(HttpStatus.OK)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(chunks())
+                        .build()));
+        moodleApiService = new MoodleApiService(webClientBuilder, "http://moodle.local", "token",
+                new ObjectMapper(), new AssignmentLinkIndex(incremental), new ScanMetrics(new SimpleMeterRegistry()), courses, 1);
+        // Fills the index for the incremental case
+        processResponse();
+    }
+
+    @Benchmark
+    public long processResponse() {
+        return moodleApiService.fetchAssignmentsForCourses(courseIds).count().block();
+    }
+
+    private Flux<DataBuffer> chunks() {
+        return Flux.range(0, (payload.length + CHUNK_SIZE - 1) / CHUNK_SIZE)
+                .map(chunk -> {
+                    final int offset = chunk * CHUNK_SIZE;
+                    final int length = Math.min(CHUNK_SIZE, payload.length - offset);
+                    return DefaultDataBufferFactory.sharedInstance.wrap(
+                            ByteBuffer.wrap(payload, offset, length).slice());
+                });
+    }
+}
@@ -0,0 +1,62 @@
+package ua.foxminded.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import reactor.netty.channel.ChannelMetricsRecorder;
+
+import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.time.Duration;
+
+/**
+ * Records how long each host name takes to resolve, as the {@code link.checker.dns.resolution} timer tagged with
+ * the host and the {@code status} ({@code SUCCESS} or {@code ERROR}).
+ * <p>
+ * Lookups answered from the resolver cache are recorded too, so the count per host shows how often a host is
+ * looked up and the timings show how much of it is spent waiting for DNS. Other channel events are ignored: HTTP
+ * request metrics would be tagged per link, one time series per URL.
+ */
+public class DnsMetricsRecorder implements ChannelMetricsRecorder {
+
+    static final String RESOLUTION_TIMER = "link.checker.dns.resolution";
+
+    private final MeterRegistry meterRegistry;
+
+    public DnsMetricsRecorder(final MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public void recordResolveAddressTime(final SocketAddress remoteAddress, final Duration time, final String status) {
+        Timer.builder(RESOLUTION_TIMER)
+                .description("Time to resolve the host of a checked link")
+                .tag("host", hostOf(remoteAddress))
+                .tag("status", status)
+                .register(meterRegistry)
+                .record(time);
+    }
+
+    @Override
+    public void recordDataReceived(final SocketAddress remoteAddress, final long bytes) {
+    }
+
+    @Override
+    public void recordDataSent(final SocketAddress remoteAddress, final long bytes) {
+    }
+
+    @Override
+    public void incrementErrorsCount(final SocketAddress remoteAddress) {
+    }
+
+    @Override
+    public void recordTlsHandshakeTime(final SocketAddress remoteAddress, final Duration time, final String status) {
+    }
+
+    @Override
+    public void recordConnectTime(final SocketAddress remoteAddress, final Duration time, final String status) {
+    }
+
+    private static String hostOf(final SocketAddress address) {
+        return address instanceof InetSocketAddress inetAddress ? inetAddress.getHostString() : address.toString();
+    }
+}
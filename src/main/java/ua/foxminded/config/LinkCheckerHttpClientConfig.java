@@ -0,0 +1,187 @@
+package ua.foxminded.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.ssl.SslContextBuilder;
+import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
+import io.netty.resolver.ResolvedAddressTypes;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.Http11SslContextSpec;
+import reactor.netty.http.Http2SslContextSpec;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.Http2AllocationStrategy;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+import reactor.netty.tcp.SslProvider;
+import ua.foxminded.service.LinkValidator;
+
+import javax.net.ssl.SSLContext;
+import javax.net.ssl.SSLEngine;
+import javax.net.ssl.TrustManager;
+import javax.net.ssl.X509ExtendedTrustManager;
+import java.net.Socket;
+import java.security.GeneralSecurityException;
+import java.security.cert.X509Certificate;
+import java.time.Duration;
+
+/**
+ * HTTP client used to check links.
+ * <p>
+ * Reactor Netty keeps one connection pool per remote address, so the pool limits below apply per host. Idle
+ * connections are evicted in the background, so that a scan touching thousands of hosts does not hold a socket open
+ * for each of them. Pool metrics are published to Micrometer under {@code reactor.netty.connection.provider} and are
+ * available through the actuator metrics endpoint.
+ * <p>
+ * HTTP/2 is opt-in: when enabled, it is negotiated over TLS with hosts that support it, and a connection carries up
+ * to {@code max-concurrent-streams} checks at once. Plain-text links and hosts without HTTP/2 keep using HTTP/1.1.
+ * <p>
+ * Host names are resolved by the asynchronous Netty DNS resolver, preferring IPv4 addresses. Answers are cached for
+ * their TTL, bounded by {@code cache-min-ttl} and {@code cache-max-ttl}, and a host that does not exist is
+ * remembered for {@code cache-negative-ttl}, so the other links to a dead domain fail without another lookup.
+ * Resolution times per host are recorded by {@link DnsMetricsRecorder}.
+ */
+@Slf4j
+@Configuration
+public class LinkCheckerHttpClientConfig {
+
+    private static final String POOL_NAME = "link-checker";
+
+    @Bean(destroyMethod = "dispose")
+    @ConditionalOnProperty(name = LinkValidator.ENGINE_PROPERTY, havingValue = "reactor", matchIfMissing = true)
+    public ConnectionProvider linkCheckerConnectionProvider(
+            @Value("${link.checker.timeout}") final int timeoutSeconds,
+            @Value("${link.checker.pool.max-connections:64}") final int maxConnections,
+            @Value("${link.checker.pool.pending-acquire-max-count:256}") final int pendingAcquireMaxCount,
+            @Value("${link.checker.pool.max-idle-time:PT20S}") final Duration maxIdleTime,
+            @Value("${link.checker.pool.max-life-time:PT5M}") final Duration maxLifeTime,
+            @Value("${link.checker.pool.eviction-interval:PT30S}") final Duration evictionInterval,
+            @Value("${link.checker.pool.metrics-enabled:true}") final boolean metricsEnabled,
+            @Value("${link.checker.http2.enabled:false}") final boolean http2Enabled,
+            @Value("${link.checker.http2.max-concurrent-streams:100}") final long maxConcurrentStreams
+    ) {
+        final ConnectionProvider.Builder builder = ConnectionProvider.builder(POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(Duration.ofSeconds(timeoutSeconds))
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictionInterval)
+                .metrics(metricsEnabled);
+
+        if (http2Enabled) {
+            // Replaces maxConnections: HTTP/2 connections are shared by up to maxConcurrentStreams requests
+            builder.allocationStrategy(Http2AllocationStrategy.builder()
+                    .maxConnections(maxConnections)
+                    .maxConcurrentStreams(maxConcurrentStreams)
+                    .minConnections(1)
+                    .build());
+        }
+
+        log.info("Link checker connection pool: {} connections per host, HTTP/2 {}", maxConnections,
+                http2Enabled ? "enabled" : "disabled");
+        return builder.build();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = LinkValidator.ENGINE_PROPERTY, havingValue = "reactor", matchIfMissing = true)
+    public HttpClient linkCheckerHttpClient(
+            final ConnectionProvider linkCheckerConnectionProvider,
+            final MeterRegistry meterRegistry,
+            @Value("${link.checker.timeout}") final int timeoutSeconds,
+            @Value("${link.checker.http2.enabled:false}") final boolean http2Enabled,
+            @Value("${link.checker.dns.cache-min-ttl:PT0S}") final Duration dnsCacheMinTtl,
+            @Value("${link.checker.dns.cache-max-ttl:PT1H}") final Duration dnsCacheMaxTtl,
+            @Value("${link.checker.dns.cache-negative-ttl:PT5M}") final Duration dnsCacheNegativeTtl,
+            @Value("${link.checker.dns.query-timeout:PT5S}") final Duration dnsQueryTimeout
+    ) {
+        // Links are checked for availability only, so certificates are not verified
+        final SslProvider.GenericSslContextSpec<SslContextBuilder> sslContextSpec = (http2Enabled
+                ? Http2SslContextSpec.forClient()
+                : Http11SslContextSpec.forClient())
+                .configure(ssl -> ssl.trustManager(InsecureTrustManagerFactory.INSTANCE));
+
+        return HttpClient.create(linkCheckerConnectionProvider)
+                .protocol(http2Enabled
+                        ? new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11}
+                        : new HttpProtocol[]{HttpProtocol.HTTP11})
+                .responseTimeout(Duration.ofSeconds(timeoutSeconds))
+                // redirects are followed by the engine, one hop at a time, to record the chain
+                .followRedirect(false)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutSeconds * 1000)
+                .resolver(spec -> spec
+                        .resolvedAddressTypes(ResolvedAddressTypes.IPV4_PREFERRED)
+                        .cacheMinTimeToLive(dnsCacheMinTtl)
+                        .cacheMaxTimeToLive(dnsCacheMaxTtl)
+                        .cacheNegativeTimeToLive(dnsCacheNegativeTtl)
+                        .queryTimeout(dnsQueryTimeout))
+                .metrics(true, () -> new DnsMetricsRecorder(meterRegistry))
+                .secure(spec -> spec.sslContext(sslContextSpec));
+    }
+
+    /**
+     * Client of the {@code virtual-threads} engine. Like the Reactor Netty client, it leaves redirects to the engine,
+     * and negotiates HTTP/2 only when {@code link.checker.http2.enabled} is set.
+     */
+    @Bean
+    @ConditionalOnProperty(name = LinkValidator.ENGINE_PROPERTY, havingValue = "virtual-threads")
+    public java.net.http.HttpClient jdkLinkCheckerHttpClient(
+            @Value("${link.checker.timeout}") final int timeoutSeconds,
+            @Value("${link.checker.http2.enabled:false}") final boolean http2Enabled
+    ) {
+        final SSLContext sslContext;
+        try {
+            sslContext = SSLContext.getInstance("TLS");
+            sslContext.init(null, new TrustManager[]{new TrustAllManager()}, null);
+        } catch (final GeneralSecurityException e) {
+            throw new IllegalStateException("Failed to create SSL context", e);
+        }
+
+        return java.net.http.HttpClient.newBuilder()
+                .version(http2Enabled
+                        ? java.net.http.HttpClient.Version.HTTP_2
+                        : java.net.http.HttpClient.Version.HTTP_1_1)
+                .followRedirects(java.net.http.HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(timeoutSeconds))
+                .sslContext(sslContext)
+                .build();
+    }
+
+    /**
+     * Accepts every certificate and host name: links are checked for availability only.
+     */
+    private static final class TrustAllManager extends X509ExtendedTrustManager {
+
+        @Override
+        public void checkClientTrusted(final X509Certificate[] chain, final String authType, final Socket socket) {
+        }
+
+        @Override
+        public void checkServerTrusted(final X509Certificate[] chain, final String authType, final Socket socket) {
+        }
+
+        @Override
+        public void checkClientTrusted(final X509Certificate[] chain, final String authType, final SSLEngine engine) {
+        }
+
+        @Override
+        public void checkServerTrusted(final X509Certificate[] chain, final String authType, final SSLEngine engine) {
+        }
+
+        @Override
+        public void checkClientTrusted(final X509Certificate[] chain, final String authType) {
+        }
+
+        @Override
+        public void checkServerTrusted(final X509Certificate[] chain, final String authType) {
+        }
+
+        @Override
+        public X509Certificate[] getAcceptedIssuers() {
+            return new X509Certificate[0];
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package ua.foxminded.config;
+
+import io.micrometer.core.instrument.config.MeterFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * Link checker meters are tagged by host; past {@code max-hosts} distinct hosts per meter, meters for new hosts
+     * are dropped rather than growing the registry with every host a scan meets.
+     */
+    @Bean
+    public MeterFilter linkCheckerHostTagLimit(@Value("${link.checker.metrics.max-hosts:500}") final int maxHosts) {
+        return MeterFilter.maximumAllowableTags("link.checker", "host", maxHosts, MeterFilter.deny());
+    }
+}
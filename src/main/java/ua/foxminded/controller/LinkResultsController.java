@@ -0,0 +1,134 @@
+package ua.foxminded.controller;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.ResultQuery;
+import ua.foxminded.model.ResultSort;
+import ua.foxminded.model.ScanProgress;
+import ua.foxminded.service.LinkCacheService;
+
+import java.time.Duration;
+
+@RestController
+@RequestMapping("/results")
+public class LinkResultsController {
+
+    static final String RESULT_EVENT = "result";
+    static final String PROGRESS_EVENT = "progress";
+    static final String COMPLETE_EVENT = "complete";
+    static final String FAILED_EVENT = "failed";
+    static final String TEXT_CSV_VALUE = "text/csv";
+    static final String CSV_HEADER = "link,valid,course,task,status,moved_to\r\n";
+
+    private static final String DESCENDING = "desc";
+    private static final String FORMULA_PREFIXES = "=+-@";
+
+    private final LinkCacheService linkCacheService;
+    private final Duration progressInterval;
+
+    public LinkResultsController(
+            final LinkCacheService linkCacheService,
+            @Value("${link.checker.scan.progress-interval:PT1S}") final Duration progressInterval
+    ) {
+        this.linkCacheService = linkCacheService;
+        this.progressInterval = progressInterval;
+    }
+
+    /**
+     * Exports the results of the last complete scan as a JSON array, or one JSON object per line when
+     * {@code application/x-ndjson} is accepted. The filters and sort are those of the results page.
+     */
+    @GetMapping(produces = {MediaType.APPLICATION_JSON_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    public Flux<LinkValidationResult> exportResults(
+            @RequestParam(value = "course", required = false) final String course,
+            @RequestParam(value = "host", required = false) final String host,
+            @RequestParam(value = "status", required = false) final String status,
+            @RequestParam(value = "valid", required = false) final Boolean valid,
+            @RequestParam(value = "sort", required = false) final String sort,
+            @RequestParam(value = "dir", required = false) final String dir) {
+
+        return linkCacheService.exportResults(exportQuery(course, host, status, valid, sort, dir));
+    }
+
+    /**
+     * Exports the results of the last complete scan as CSV, a line per result after a header line.
+     */
+    @GetMapping(produces = TEXT_CSV_VALUE)
+    public ResponseEntity<Flux<String>> exportResultsAsCsv(
+            @RequestParam(value = "course", required = false) final String course,
+            @RequestParam(value = "host", required = false) final String host,
+            @RequestParam(value = "status", required = false) final String status,
+            @RequestParam(value = "valid", required = false) final Boolean valid,
+            @RequestParam(value = "sort", required = false) final String sort,
+            @RequestParam(value = "dir", required = false) final String dir) {
+
+        final Flux<String> lines = linkCacheService.exportResults(exportQuery(course, host, status, valid, sort, dir))
+                .map(LinkResultsController::csvLine)
+                .startWith(CSV_HEADER);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(TEXT_CSV_VALUE + ";charset=UTF-8"))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("link-results.csv").build().toString())
+                .body(lines);
+    }
+
+    /**
+     * Streams link validation results as Server-Sent Events: a {@code result} event per checked link while a scan
+     * runs, along with a {@code progress} event every {@code progress-interval}, then a {@code complete} event, or a
+     * {@code failed} event carrying the error message.
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<Object>> streamResults(
+            @RequestParam(value = "refresh", required = false, defaultValue = "false") final boolean refresh) {
+
+        return linkCacheService.streamLinkValidationResults(refresh)
+                .map(result -> ServerSentEvent.builder((Object) result).event(RESULT_EVENT).build())
+                .publish(results -> Flux.merge(results, Flux.interval(progressInterval)
+                        .takeUntilOther(results.ignoreElements().onErrorComplete())
+                        .concatMap(tick -> Mono.justOrEmpty(linkCacheService.getScanProgress()))
+                        .filter(progress -> progress.state() == ScanProgress.State.RUNNING)
+                        .map(progress -> ServerSentEvent.builder((Object) progress).event(PROGRESS_EVENT).build())))
+                .concatWith(Mono.fromSupplier(() ->
+                        ServerSentEvent.builder((Object) COMPLETE_EVENT).event(COMPLETE_EVENT).build()))
+                .onErrorResume(e -> Mono.just(
+                        ServerSentEvent.builder((Object) String.valueOf(e.getMessage())).event(FAILED_EVENT).build()));
+    }
+
+    private static ResultQuery exportQuery(final String course, final String host, final String status,
+                                           final Boolean valid, final String sort, final String dir) {
+        return new ResultQuery(course, host, status, valid, ResultSort.fromParam(sort),
+                DESCENDING.equalsIgnoreCase(dir), 1, ResultQuery.DEFAULT_PAGE_SIZE);
+    }
+
+    static String csvLine(final LinkValidationResult result) {
+        return csvField(result.link()) + ',' + result.valid() + ',' + csvField(result.courseName()) + ','
+                + csvField(result.taskName()) + ',' + csvField(result.statusMessage()) + ','
+                + csvField(result.movedTo()) + "\r\n";
+    }
+
+    /**
+     * Quotes a field when needed. Names and status messages come from Moodle and the checked servers, so a field
+     * that a spreadsheet would run as a formula is prefixed with {@code '}.
+     */
+    private static String csvField(final String raw) {
+        if (raw == null) {
+            return "";
+        }
+        final String value = !raw.isEmpty() && FORMULA_PREFIXES.indexOf(raw.charAt(0)) >= 0 ? "'" + raw : raw;
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+}
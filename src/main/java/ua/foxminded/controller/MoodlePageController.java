@@ -4,17 +4,24 @@ import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.util.UriComponentsBuilder;
 import reactor.core.publisher.Mono;
+import ua.foxminded.model.ResultPage;
+import ua.foxminded.model.ResultQuery;
+import ua.foxminded.model.ResultSort;
 import ua.foxminded.service.LinkCacheService;
 
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.Map;
 
 @Controller
 public class MoodlePageController {
 
     private final LinkCacheService linkCacheService;
     private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final String DESCENDING = "desc";
 
     public MoodlePageController(final LinkCacheService linkCacheService) {
         this.linkCacheService = linkCacheService;
@@ -23,54 +30,100 @@ public class MoodlePageController {
     @GetMapping
     public Mono<String> showLinks(
             final Model model,
-            @RequestParam(value = "refresh", required = false, defaultValue = "false") final boolean refresh) {
-
-        final String brokenLinksKey = "brokenLinks";
-        final String allLinksKey = "allLinks";
-        final String showAllLinksKey = "showAllLinks";
-        final String lastUpdateKey = "lastUpdate";
-        final String linksKey = "links";
-
-        return linkCacheService.getLinkValidationResults(refresh)
-                .flatMap(allResults -> {
-                    model.addAttribute(allLinksKey, allResults);
-
-                    final var brokenLinks = allResults.stream()
-                            .filter(result -> !result.valid())
-                            .toList();
-                    model.addAttribute(brokenLinksKey, brokenLinks);
-                    model.addAttribute(showAllLinksKey, false);
-                    addLastUpdateTimeToModel(model, lastUpdateKey);
-
-                    return Mono.just(linksKey);
-                });
+            @RequestParam(value = "refresh", required = false, defaultValue = "false") final boolean refresh,
+            @RequestParam(value = "course", required = false) final String course,
+            @RequestParam(value = "host", required = false) final String host,
+            @RequestParam(value = "status", required = false) final String status,
+            @RequestParam(value = "sort", required = false) final String sort,
+            @RequestParam(value = "dir", required = false) final String dir,
+            @RequestParam(value = "page", required = false, defaultValue = "1") final int page,
+            @RequestParam(value = "size", required = false, defaultValue = "50") final int size) {
+
+        final ResultQuery query = new ResultQuery(course, host, status, false, ResultSort.fromParam(sort),
+                DESCENDING.equalsIgnoreCase(dir), page, size);
+        return showResults(model, refresh, query, false);
     }
 
     @GetMapping("/all")
     public Mono<String> showAllLinks(
             final Model model,
-            @RequestParam(value = "refresh", required = false, defaultValue = "false") final boolean refresh) {
-
-        final String brokenLinksKey = "brokenLinks";
-        final String allLinksKey = "allLinks";
-        final String showAllLinksKey = "showAllLinks";
-        final String lastUpdateKey = "lastUpdate";
-        final String linksKey = "links";
+            @RequestParam(value = "refresh", required = false, defaultValue = "false") final boolean refresh,
+            @RequestParam(value = "course", required = false) final String course,
+            @RequestParam(value = "host", required = false) final String host,
+            @RequestParam(value = "status", required = false) final String status,
+            @RequestParam(value = "valid", required = false) final Boolean valid,
+            @RequestParam(value = "sort", required = false) final String sort,
+            @RequestParam(value = "dir", required = false) final String dir,
+            @RequestParam(value = "page", required = false, defaultValue = "1") final int page,
+            @RequestParam(value = "size", required = false, defaultValue = "50") final int size) {
+
+        final ResultQuery query = new ResultQuery(course, host, status, valid, ResultSort.fromParam(sort),
+                DESCENDING.equalsIgnoreCase(dir), page, size);
+        return showResults(model, refresh, query, true);
+    }
 
-        return linkCacheService.getLinkValidationResults(refresh)
-                .flatMap(allResults -> {
-                    model.addAttribute(allLinksKey, allResults);
+    /**
+     * Renders one page of the last snapshot. Without a snapshot, or on refresh, the page is rendered without
+     * waiting for a scan: it receives the results through the stream endpoint and adds them as they arrive.
+     */
+    private Mono<String> showResults(final Model model, final boolean refresh, final ResultQuery query,
+                                     final boolean showAllLinks) {
+        final boolean streaming = refresh || !linkCacheService.hasCachedResults();
+        final ResultPage page = streaming ? ResultPage.empty(query) : linkCacheService.findResults(query);
+        final String path = showAllLinks ? "/all" : "/";
+
+        model.addAttribute("page", page);
+        model.addAttribute("query", query);
+        model.addAttribute("showAllLinks", showAllLinks);
+        model.addAttribute("sortUrls", sortUrls(path, query));
+        model.addAttribute("previousUrl", page.page() > 1 ? pageUrl(path, query, page.page() - 1) : null);
+        model.addAttribute("nextUrl", page.page() < page.pageCount() ? pageUrl(path, query, page.page() + 1) : null);
+        if (streaming) {
+            model.addAttribute("streamUrl", refresh ? "/results/stream?refresh=true" : "/results/stream");
+        }
+        addLastUpdateTimeToModel(model, "lastUpdate");
+        return Mono.just("links");
+    }
 
-                    final var brokenLinks = allResults.stream()
-                            .filter(result -> !result.valid())
-                            .toList();
+    private static Map<String, String> sortUrls(final String path, final ResultQuery query) {
+        final Map<String, String> urls = new LinkedHashMap<>();
+        for (final ResultSort sort : ResultSort.values()) {
+            final boolean descending = sort == query.sort() && !query.descending();
+            urls.put(sort.param(), url(path, query, sort, descending, 1));
+        }
+        return urls;
+    }
 
-                    model.addAttribute(brokenLinksKey, brokenLinks);
-                    model.addAttribute(showAllLinksKey, true);
-                    addLastUpdateTimeToModel(model, lastUpdateKey);
+    private static String pageUrl(final String path, final ResultQuery query, final int page) {
+        return url(path, query, query.sort(), query.descending(), page);
+    }
 
-                    return Mono.just(linksKey);
-                });
+    private static String url(final String path, final ResultQuery query, final ResultSort sort,
+                              final boolean descending, final int page) {
+        final UriComponentsBuilder builder = UriComponentsBuilder.fromPath(path);
+        if (query.course() != null) {
+            builder.queryParam("course", query.course());
+        }
+        if (query.host() != null) {
+            builder.queryParam("host", query.host());
+        }
+        if (query.status() != null) {
+            builder.queryParam("status", query.status());
+        }
+        if (path.equals("/all") && query.valid() != null) {
+            builder.queryParam("valid", query.valid());
+        }
+        builder.queryParam("sort", sort.param());
+        if (descending) {
+            builder.queryParam("dir", DESCENDING);
+        }
+        if (page > 1) {
+            builder.queryParam("page", page);
+        }
+        if (query.size() != ResultQuery.DEFAULT_PAGE_SIZE) {
+            builder.queryParam("size", query.size());
+        }
+        return builder.encode().build().toUriString();
     }
 
     private void addLastUpdateTimeToModel(final Model model, final String lastUpdateKey) {
@@ -0,0 +1,44 @@
+package ua.foxminded.controller;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+import ua.foxminded.model.ScanStatus;
+import ua.foxminded.service.ScanScheduler;
+
+/**
+ * Actuator endpoint controlling the background scans: {@code GET /actuator/scans} reports their state and the
+ * progress of the current or last scan, and {@code POST /actuator/scans/pause}, {@code /resume}, {@code /trigger}
+ * and {@code /cancel} change it.
+ */
+@Component
+@Endpoint(id = "scans")
+public class ScanEndpoint {
+
+    private final ScanScheduler scanScheduler;
+
+    public ScanEndpoint(final ScanScheduler scanScheduler) {
+        this.scanScheduler = scanScheduler;
+    }
+
+    @ReadOperation
+    public ScanStatus status() {
+        return scanScheduler.status();
+    }
+
+    @WriteOperation
+    public ScanStatus control(@Selector final String action) {
+        switch (action) {
+            case "pause" -> scanScheduler.pause();
+            case "resume" -> scanScheduler.resume();
+            case "trigger" -> scanScheduler.trigger();
+            case "cancel" -> scanScheduler.cancel();
+            default -> throw new InvalidEndpointRequestException("Unknown scan action: " + action,
+                    "Unknown scan action, expected pause, resume, trigger or cancel");
+        }
+        return scanScheduler.status();
+    }
+}
@@ -0,0 +1,45 @@
+package ua.foxminded.model;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Results of the courses one node of the cluster scanned, with every occurrence of their links.
+ * <p>
+ * {@code courses} maps the id of every course the node owned at that scan to the occurrences found in it, which are
+ * empty when the course has no links. {@code completedAt} is the end of the scan, which decides the owner of a
+ * course; {@code updatedAt} is the last time the results were written, including revalidations of expired links
+ * since the scan.
+ */
+public record ClusterShard(
+        String nodeId,
+        Instant completedAt,
+        Instant updatedAt,
+        Map<Integer, List<LinkValidationResult>> courses
+) {
+
+    public ClusterShard {
+        updatedAt = updatedAt == null ? completedAt : updatedAt;
+        final Map<Integer, List<LinkValidationResult>> copy = new TreeMap<>();
+        if (courses != null) {
+            courses.forEach((courseId, results) ->
+                    copy.put(courseId, results == null ? List.of() : List.copyOf(results)));
+        }
+        courses = Collections.unmodifiableMap(copy);
+    }
+
+    public ClusterShard(final String nodeId, final Instant completedAt,
+                        final Map<Integer, List<LinkValidationResult>> courses) {
+        this(nodeId, completedAt, completedAt, courses);
+    }
+
+    /**
+     * The occurrences of all courses of the shard.
+     */
+    public List<LinkValidationResult> results() {
+        return courses.values().stream().flatMap(List::stream).toList();
+    }
+}
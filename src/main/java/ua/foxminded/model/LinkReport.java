@@ -0,0 +1,308 @@
+package ua.foxminded.model;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Validation results of a scan: the result of each canonical URL, and every course and task the URL occurs in.
+ * <p>
+ * Each URL is stored once with its result, and its occurrences are kept in parallel primitive arrays grouped by URL,
+ * so a link used in hundreds of tasks costs three ints per task. Course and task names are pooled, and the link as
+ * written is only kept when it differs from the canonical URL. {@link #results()} is a read-only view that creates a
+ * {@link LinkValidationResult} per occurrence on access.
+ * <p>
+ * Instances are immutable; {@link #withResults} returns a copy sharing the occurrence arrays.
+ */
+public final class LinkReport {
+
+    private static final LinkReport EMPTY = builder().build(Map.of());
+
+    private final String[] urls;
+    private final Map<String, Integer> urlIds;
+    private final boolean[] valid;
+    private final String[] statusMessages;
+    private final List<List<Redirect>> redirects;
+
+    // the occurrences of URL i are the indices urlStart[i] until urlStart[i + 1]
+    private final int[] urlStart;
+    private final int[] occurrenceUrl;
+    private final int[] occurrenceCourse;
+    private final int[] occurrenceTask;
+    private final String[] writtenLinks;
+    private final String[] courseNames;
+    private final String[] taskNames;
+
+    private final List<LinkValidationResult> results;
+
+    private LinkReport(final String[] urls, final Map<String, Integer> urlIds, final boolean[] valid,
+                       final String[] statusMessages, final List<List<Redirect>> redirects, final int[] urlStart,
+                       final int[] occurrenceUrl, final int[] occurrenceCourse, final int[] occurrenceTask,
+                       final String[] writtenLinks, final String[] courseNames, final String[] taskNames) {
+        this.urls = urls;
+        this.urlIds = urlIds;
+        this.valid = valid;
+        this.statusMessages = statusMessages;
+        this.redirects = redirects;
+        this.urlStart = urlStart;
+        this.occurrenceUrl = occurrenceUrl;
+        this.occurrenceCourse = occurrenceCourse;
+        this.occurrenceTask = occurrenceTask;
+        this.writtenLinks = writtenLinks;
+        this.courseNames = courseNames;
+        this.taskNames = taskNames;
+        this.results = new OccurrenceResults(0, occurrenceUrl.length);
+    }
+
+    public static LinkReport empty() {
+        return EMPTY;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public int urlCount() {
+        return urls.length;
+    }
+
+    public int occurrenceCount() {
+        return occurrenceUrl.length;
+    }
+
+    /**
+     * One result per occurrence, grouped by URL.
+     */
+    public List<LinkValidationResult> results() {
+        return results;
+    }
+
+    /**
+     * The result of a canonical URL, carrying the course and task of its first occurrence.
+     */
+    public Optional<LinkValidationResult> resultFor(final String url) {
+        final Integer urlId = urlIds.get(url);
+        if (urlId == null) {
+            return Optional.empty();
+        }
+        final int first = urlStart[urlId];
+        return Optional.of(new LinkValidationResult(url, valid[urlId], courseNames[occurrenceCourse[first]],
+                taskNames[occurrenceTask[first]], statusMessages[urlId], redirects.get(urlId)));
+    }
+
+    public List<LinkValidationResult> occurrencesOf(final String url) {
+        final Integer urlId = urlIds.get(url);
+        return urlId == null ? List.of() : new OccurrenceResults(urlStart[urlId], urlStart[urlId + 1]);
+    }
+
+    /**
+     * Returns a copy in which the URLs present in {@code updatedResults}, keyed by canonical URL, take the validity
+     * status and redirects of their new result.
+     */
+    public LinkReport withResults(final Map<String, LinkValidationResult> updatedResults) {
+        final boolean[] updatedValid = valid.clone();
+        final String[] updatedStatusMessages = statusMessages.clone();
+        final List<List<Redirect>> updatedRedirects = new ArrayList<>(redirects);
+        final Map<String, String> statusPool = new HashMap<>();
+        updatedResults.forEach((url, result) -> {
+            final Integer urlId = urlIds.get(url);
+            if (urlId != null) {
+                updatedValid[urlId] = result.valid();
+                updatedStatusMessages[urlId] = intern(statusPool, result.statusMessage());
+                updatedRedirects.set(urlId, result.redirects());
+            }
+        });
+        return new LinkReport(urls, urlIds, updatedValid, updatedStatusMessages, updatedRedirects, urlStart,
+                occurrenceUrl, occurrenceCourse, occurrenceTask, writtenLinks, courseNames, taskNames);
+    }
+
+    private LinkValidationResult occurrence(final int index) {
+        final int urlId = occurrenceUrl[index];
+        final String writtenLink = writtenLinks[index];
+        return new LinkValidationResult(writtenLink == null ? urls[urlId] : writtenLink, valid[urlId],
+                courseNames[occurrenceCourse[index]], taskNames[occurrenceTask[index]], statusMessages[urlId],
+                redirects.get(urlId));
+    }
+
+    private static String intern(final Map<String, String> pool, final String value) {
+        return value == null ? null : pool.computeIfAbsent(value, key -> key);
+    }
+
+    private final class OccurrenceResults extends AbstractList<LinkValidationResult> {
+
+        private final int from;
+        private final int to;
+
+        private OccurrenceResults(final int from, final int to) {
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        public LinkValidationResult get(final int index) {
+            if (index < 0 || from + index >= to) {
+                throw new IndexOutOfBoundsException(index);
+            }
+            return occurrence(from + index);
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+    }
+
+    /**
+     * Collects occurrences while a scan runs. Not thread-safe.
+     */
+    public static final class Builder {
+
+        private static final int INITIAL_CAPACITY = 64;
+
+        private final Map<String, Integer> urlIds = new HashMap<>();
+        private final List<String> urls = new ArrayList<>();
+        private final Map<String, Integer> courseIds = new HashMap<>();
+        private final List<String> courseNames = new ArrayList<>();
+        private final Map<String, Integer> taskIds = new HashMap<>();
+        private final List<String> taskNames = new ArrayList<>();
+        private final Set<OccurrenceKey> seen = new HashSet<>();
+
+        private int[] occurrenceUrl = new int[INITIAL_CAPACITY];
+        private int[] occurrenceCourse = new int[INITIAL_CAPACITY];
+        private int[] occurrenceTask = new int[INITIAL_CAPACITY];
+        private String[] writtenLinks = new String[INITIAL_CAPACITY];
+        private int size;
+
+        private Builder() {
+        }
+
+        /**
+         * Records an occurrence of a canonical URL. An occurrence of the same URL in the same course and task is
+         * ignored.
+         *
+         * @return {@code true} for the first occurrence of the URL
+         */
+        public boolean add(final String url, final LinkValidationResult occurrence) {
+            final Integer knownUrlId = urlIds.get(url);
+            final int urlId = knownUrlId != null ? knownUrlId : id(urlIds, urls, url);
+            final int courseId = id(courseIds, courseNames, occurrence.courseName());
+            final int taskId = id(taskIds, taskNames, occurrence.taskName());
+            if (!seen.add(new OccurrenceKey(urlId, courseId, taskId))) {
+                return false;
+            }
+
+            if (size == occurrenceUrl.length) {
+                final int capacity = size * 2;
+                occurrenceUrl = Arrays.copyOf(occurrenceUrl, capacity);
+                occurrenceCourse = Arrays.copyOf(occurrenceCourse, capacity);
+                occurrenceTask = Arrays.copyOf(occurrenceTask, capacity);
+                writtenLinks = Arrays.copyOf(writtenLinks, capacity);
+            }
+            occurrenceUrl[size] = urlId;
+            occurrenceCourse[size] = courseId;
+            occurrenceTask[size] = taskId;
+            writtenLinks[size] = url.equals(occurrence.link()) ? null : occurrence.link();
+            size++;
+            return knownUrlId == null;
+        }
+
+        public int urlCount() {
+            return urls.size();
+        }
+
+        /**
+         * The canonical URLs recorded so far, in the order they were first seen.
+         */
+        public List<String> urls() {
+            return Collections.unmodifiableList(urls);
+        }
+
+        public int occurrenceCount() {
+            return size;
+        }
+
+        /**
+         * Builds the report from the results of the URLs, keyed by canonical URL. URLs without a result, along with
+         * their occurrences, are left out.
+         */
+        public LinkReport build(final Map<String, LinkValidationResult> resultsByUrl) {
+            // renumber the URLs that have a result, in the order they were first seen
+            final int[] newUrlId = new int[urls.size()];
+            final List<String> reportedUrls = new ArrayList<>(resultsByUrl.size());
+            for (int urlId = 0; urlId < urls.size(); urlId++) {
+                newUrlId[urlId] = resultsByUrl.containsKey(urls.get(urlId)) ? reportedUrls.size() : -1;
+                if (newUrlId[urlId] >= 0) {
+                    reportedUrls.add(urls.get(urlId));
+                }
+            }
+
+            final int urlCount = reportedUrls.size();
+            final int[] urlStart = new int[urlCount + 1];
+            for (int i = 0; i < size; i++) {
+                final int urlId = newUrlId[occurrenceUrl[i]];
+                if (urlId >= 0) {
+                    urlStart[urlId + 1]++;
+                }
+            }
+            for (int urlId = 0; urlId < urlCount; urlId++) {
+                urlStart[urlId + 1] += urlStart[urlId];
+            }
+
+            // place the occurrences grouped by URL, keeping their order within a URL
+            final int occurrenceCount = urlStart[urlCount];
+            final int[] next = Arrays.copyOf(urlStart, urlCount);
+            final int[] groupedUrl = new int[occurrenceCount];
+            final int[] groupedCourse = new int[occurrenceCount];
+            final int[] groupedTask = new int[occurrenceCount];
+            final String[] groupedLinks = new String[occurrenceCount];
+            for (int i = 0; i < size; i++) {
+                final int urlId = newUrlId[occurrenceUrl[i]];
+                if (urlId < 0) {
+                    continue;
+                }
+                final int position = next[urlId]++;
+                groupedUrl[position] = urlId;
+                groupedCourse[position] = occurrenceCourse[i];
+                groupedTask[position] = occurrenceTask[i];
+                groupedLinks[position] = writtenLinks[i];
+            }
+
+            final String[] reportUrls = reportedUrls.toArray(String[]::new);
+            final Map<String, Integer> reportUrlIds = new HashMap<>(urlCount * 4 / 3 + 1);
+            final boolean[] valid = new boolean[urlCount];
+            final String[] statusMessages = new String[urlCount];
+            final List<List<Redirect>> redirects = new ArrayList<>(urlCount);
+            final Map<String, String> statusPool = new HashMap<>();
+            for (int urlId = 0; urlId < urlCount; urlId++) {
+                final LinkValidationResult result = resultsByUrl.get(reportUrls[urlId]);
+                reportUrlIds.put(reportUrls[urlId], urlId);
+                valid[urlId] = result.valid();
+                statusMessages[urlId] = intern(statusPool, result.statusMessage());
+                redirects.add(result.redirects());
+            }
+
+            return new LinkReport(reportUrls, reportUrlIds, valid, statusMessages, redirects, urlStart, groupedUrl,
+                    groupedCourse, groupedTask, groupedLinks, courseNames.toArray(String[]::new),
+                    taskNames.toArray(String[]::new));
+        }
+
+        private static int id(final Map<String, Integer> ids, final List<String> values, final String value) {
+            final Integer id = ids.get(value);
+            if (id != null) {
+                return id;
+            }
+            ids.put(value, values.size());
+            values.add(value);
+            return values.size() - 1;
+        }
+
+        private record OccurrenceKey(int urlId, int courseId, int taskId) {}
+    }
+}
@@ -1,9 +1,41 @@
 package ua.foxminded.model;
 
+import java.util.List;
+
+/**
+ * The outcome of a link. {@code redirects} lists the hops followed before the status was received, and is empty
+ * when the link answered directly.
+ */
 public record LinkValidationResult(
         String link,
         boolean valid,
         String courseName,
         String taskName,
-        String statusMessage
-) {}
\ No newline at end of file
+        String statusMessage,
+        List<Redirect> redirects
+) {
+
+    public LinkValidationResult {
+        redirects = redirects == null ? List.of() : List.copyOf(redirects);
+    }
+
+    public LinkValidationResult(final String link, final boolean valid, final String courseName,
+                                final String taskName, final String statusMessage) {
+        this(link, valid, courseName, taskName, statusMessage, List.of());
+    }
+
+    /**
+     * Where the link has moved when it starts with permanent redirects, so that it should be updated: the location
+     * of the last of those redirects, or {@code null}.
+     */
+    public String movedTo() {
+        String target = null;
+        for (final Redirect redirect : redirects) {
+            if (!redirect.permanent()) {
+                break;
+            }
+            target = redirect.location();
+        }
+        return target;
+    }
+}
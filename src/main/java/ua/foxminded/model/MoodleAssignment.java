@@ -0,0 +1,12 @@
+package ua.foxminded.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record MoodleAssignment(
+        long id,
+        long course,
+        String name,
+        String intro,
+        long timemodified
+) {}
@@ -0,0 +1,7 @@
+package ua.foxminded.model;
+
+public record MoodleCourseAssignment(
+        int courseId,
+        String courseName,
+        MoodleAssignment assignment
+) {}
@@ -0,0 +1,14 @@
+package ua.foxminded.model;
+
+/**
+ * One hop of a redirect chain: the redirect status and the absolute URL it pointed to.
+ */
+public record Redirect(
+        int status,
+        String location
+) {
+
+    public boolean permanent() {
+        return status == 301 || status == 308;
+    }
+}
@@ -0,0 +1,10 @@
+package ua.foxminded.model;
+
+/**
+ * The {@code ETag} and {@code Last-Modified} a link last answered with, sent back as {@code If-None-Match} and
+ * {@code If-Modified-Since} when the link is revalidated. Either may be {@code null}, not both.
+ */
+public record ResponseValidators(
+        String etag,
+        String lastModified
+) {}
@@ -0,0 +1,34 @@
+package ua.foxminded.model;
+
+import java.util.List;
+
+/**
+ * One page of the results matching a {@link ResultQuery}, with the totals of the whole snapshot and the values the
+ * course and status filters can take.
+ */
+public record ResultPage(
+        List<LinkValidationResult> results,
+        int page,
+        int size,
+        int matchCount,
+        int checkedCount,
+        int brokenCount,
+        List<String> courses,
+        List<String> statuses
+) {
+
+    public static ResultPage empty(final ResultQuery query) {
+        return new ResultPage(List.of(), 1, query.size(), 0, 0, 0, List.of(), List.of());
+    }
+
+    public int pageCount() {
+        return Math.max(1, (matchCount + size - 1) / size);
+    }
+
+    /**
+     * Position of the first result of the page among all matches, counted from 1.
+     */
+    public int firstPosition() {
+        return (page - 1) * size + 1;
+    }
+}
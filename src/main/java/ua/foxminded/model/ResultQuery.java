@@ -0,0 +1,34 @@
+package ua.foxminded.model;
+
+/**
+ * A page of results to show. {@code null} filters match everything; {@code status} is an HTTP status code, or
+ * {@link #NO_STATUS} for links that failed without a response. Pages are numbered from 1.
+ */
+public record ResultQuery(
+        String course,
+        String host,
+        String status,
+        Boolean valid,
+        ResultSort sort,
+        boolean descending,
+        int page,
+        int size
+) {
+
+    public static final String NO_STATUS = "none";
+    public static final int DEFAULT_PAGE_SIZE = 50;
+    public static final int MAX_PAGE_SIZE = 500;
+
+    public ResultQuery {
+        course = blankToNull(course);
+        host = blankToNull(host);
+        status = blankToNull(status);
+        sort = sort == null ? ResultSort.COURSE : sort;
+        page = Math.max(page, 1);
+        size = size < 1 ? DEFAULT_PAGE_SIZE : Math.min(size, MAX_PAGE_SIZE);
+    }
+
+    private static String blankToNull(final String value) {
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+}
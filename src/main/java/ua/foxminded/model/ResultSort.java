@@ -0,0 +1,28 @@
+package ua.foxminded.model;
+
+import java.util.Locale;
+
+/**
+ * Columns the results page can be sorted by.
+ */
+public enum ResultSort {
+    COURSE,
+    TASK,
+    LINK,
+    STATUS;
+
+    public static ResultSort fromParam(final String value) {
+        if (value == null || value.isBlank()) {
+            return COURSE;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (final IllegalArgumentException e) {
+            return COURSE;
+        }
+    }
+
+    public String param() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -0,0 +1,34 @@
+package ua.foxminded.model;
+
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Progress of a scan. {@code coursesTotal} is {@code null} until Moodle has listed every course, and
+ * {@code linksFound} grows while courses are fetched; {@code estimatedRemaining} extrapolates the links of the
+ * courses not fetched yet from those fetched so far, and is {@code null} until links are being validated.
+ */
+public record ScanProgress(
+        String id,
+        State state,
+        Instant startedAt,
+        Instant finishedAt,
+        int coursesFetched,
+        Integer coursesTotal,
+        long linksValidated,
+        long linksFound,
+        double linksPerSecond,
+        Duration estimatedRemaining
+) {
+
+    public enum State {
+        RUNNING,
+        COMPLETED,
+        CANCELLED,
+        /**
+         * Stopped by the scan deadline before every link was validated.
+         */
+        TRUNCATED,
+        FAILED
+    }
+}
@@ -0,0 +1,15 @@
+package ua.foxminded.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * State of the background scans. {@code progress} is that of the scan in progress, or else of the last scan, and
+ * {@code null} before the first scan since startup.
+ */
+public record ScanStatus(
+        String schedule,
+        boolean paused,
+        boolean running,
+        LocalDateTime lastUpdate,
+        ScanProgress progress
+) {}
@@ -0,0 +1,18 @@
+package ua.foxminded.model;
+
+import java.time.Instant;
+
+/**
+ * A validation result and when it was checked. {@code validators} is {@code null} when the link answered without
+ * an {@code ETag} or {@code Last-Modified}, or was stored before they were kept.
+ */
+public record StoredLinkResult(
+        LinkValidationResult result,
+        Instant checkedAt,
+        ResponseValidators validators
+) {
+
+    public StoredLinkResult(final LinkValidationResult result, final Instant checkedAt) {
+        this(result, checkedAt, null);
+    }
+}
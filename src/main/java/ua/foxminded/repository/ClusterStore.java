@@ -0,0 +1,217 @@
+package ua.foxminded.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import ua.foxminded.model.ClusterShard;
+import ua.foxminded.model.LinkValidationResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+/**
+ * Coordination store of a cluster of checker nodes, kept in a directory every node can reach, such as a shared
+ * volume.
+ * <p>
+ * {@code nodes/} holds a file per node with the time of its last heartbeat. {@code shards/} holds the results
+ * of the last scan of each node as newline-delimited JSON: a header line with the node id, the completion and update
+ * times and the ids of the courses the node owned, then one line per link occurrence with the id of its course.
+ * Both are replaced atomically, so readers never see a partial file.
+ */
+@Slf4j
+@Repository
+public class ClusterStore {
+
+    private static final String NODES_DIRECTORY = "nodes";
+    private static final String SHARDS_DIRECTORY = "shards";
+    private static final String HEARTBEAT_SUFFIX = ".json";
+    private static final String SHARD_SUFFIX = ".ndjson";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private final ObjectMapper objectMapper;
+    private final Path nodesDirectory;
+    private final Path shardsDirectory;
+
+    public ClusterStore(
+            final ObjectMapper objectMapper,
+            @Value("${link.checker.cluster.directory:data/cluster}") final Path directory
+    ) {
+        this.objectMapper = objectMapper;
+        this.nodesDirectory = directory.resolve(NODES_DIRECTORY);
+        this.shardsDirectory = directory.resolve(SHARDS_DIRECTORY);
+    }
+
+    public void heartbeat(final String nodeId, final Instant now) {
+        try {
+            writeAtomically(nodesDirectory.resolve(fileName(nodeId) + HEARTBEAT_SUFFIX),
+                    writer -> writer.write(objectMapper.writeValueAsString(new Heartbeat(nodeId, now))));
+        } catch (final IOException e) {
+            log.error("Error writing heartbeat of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * The time of the last heartbeat of every node that has not left the cluster.
+     */
+    public Map<String, Instant> heartbeats() {
+        final Map<String, Instant> heartbeats = new HashMap<>();
+        for (final Path file : list(nodesDirectory, HEARTBEAT_SUFFIX)) {
+            try {
+                final Heartbeat heartbeat = objectMapper.readValue(file.toFile(), Heartbeat.class);
+                heartbeats.put(heartbeat.nodeId(), heartbeat.heartbeatAt());
+            } catch (final IOException e) {
+                // removed by its node while being read, or written by something else
+                log.debug("Skipped heartbeat file {}: {}", file, e.getMessage());
+            }
+        }
+        return heartbeats;
+    }
+
+    /**
+     * Removes the heartbeat of a node that leaves the cluster. Its shard is kept until other nodes have scanned its
+     * courses.
+     */
+    public void leave(final String nodeId) {
+        try {
+            Files.deleteIfExists(nodesDirectory.resolve(fileName(nodeId) + HEARTBEAT_SUFFIX));
+        } catch (final IOException e) {
+            log.error("Error removing heartbeat of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    /**
+     * Removes the shard and any heartbeat left by a node that is gone, once its shard no longer serves any course.
+     */
+    public void forget(final String nodeId) {
+        leave(nodeId);
+        try {
+            Files.deleteIfExists(shardsDirectory.resolve(fileName(nodeId) + SHARD_SUFFIX));
+        } catch (final IOException e) {
+            log.error("Error removing shard of node {}: {}", nodeId, e.getMessage());
+        }
+    }
+
+    public void writeShard(final ClusterShard shard) {
+        try {
+            writeAtomically(shardsDirectory.resolve(fileName(shard.nodeId()) + SHARD_SUFFIX), writer -> {
+                writer.write(objectMapper.writeValueAsString(new ShardHeader(shard.nodeId(), shard.completedAt(),
+                        shard.updatedAt(), List.copyOf(shard.courses().keySet()))));
+                writer.newLine();
+                for (final Map.Entry<Integer, List<LinkValidationResult>> course : shard.courses().entrySet()) {
+                    for (final LinkValidationResult result : course.getValue()) {
+                        writer.write(objectMapper.writeValueAsString(new ShardOccurrence(course.getKey(), result)));
+                        writer.newLine();
+                    }
+                }
+            });
+            log.info("Stored shard of node {} with {} link occurrences", shard.nodeId(), shard.results().size());
+        } catch (final IOException e) {
+            log.error("Error writing shard of node {}: {}", shard.nodeId(), e.getMessage());
+        }
+    }
+
+    /**
+     * The update time of the last shard written by any node, read from the shard headers only.
+     */
+    public Optional<Instant> lastShardUpdate() {
+        Instant last = null;
+        for (final Path file : list(shardsDirectory, SHARD_SUFFIX)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                final Instant updatedAt = objectMapper.readValue(reader.readLine(), ShardHeader.class).updatedAt();
+                last = last == null || updatedAt.isAfter(last) ? updatedAt : last;
+            } catch (final IOException | IllegalArgumentException e) {
+                log.debug("Skipped shard file {}: {}", file, e.getMessage());
+            }
+        }
+        return Optional.ofNullable(last);
+    }
+
+    public List<ClusterShard> readShards() {
+        final List<ClusterShard> shards = new ArrayList<>();
+        for (final Path file : list(shardsDirectory, SHARD_SUFFIX)) {
+            try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                final ShardHeader header = objectMapper.readValue(reader.readLine(), ShardHeader.class);
+                final Map<Integer, List<LinkValidationResult>> courses = new HashMap<>();
+                header.courseIds().forEach(courseId -> courses.put(courseId, new ArrayList<>()));
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    if (!line.isBlank()) {
+                        final ShardOccurrence occurrence = objectMapper.readValue(line, ShardOccurrence.class);
+                        courses.computeIfAbsent(occurrence.courseId(), courseId -> new ArrayList<>())
+                                .add(occurrence.result());
+                    }
+                }
+                shards.add(new ClusterShard(header.nodeId(), header.completedAt(), header.updatedAt(), courses));
+            } catch (final IOException | IllegalArgumentException e) {
+                log.error("Error reading shard file {}: {}", file, e.getMessage());
+            }
+        }
+        return shards;
+    }
+
+    private static List<Path> list(final Path directory, final String suffix) {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(suffix)).toList();
+        } catch (final IOException e) {
+            log.error("Error listing {}: {}", directory, e.getMessage());
+            return List.of();
+        }
+    }
+
+    /**
+     * Writes a file through a temporary file of its own, so that concurrent writers of the same file, such as a
+     * scan and a revalidation of the same node, each move a complete file into place.
+     */
+    private static void writeAtomically(final Path path, final FileWriter content) throws IOException {
+        Files.createDirectories(path.getParent());
+        final Path tempFile = Files.createTempFile(path.getParent(), path.getFileName().toString(), TEMP_SUFFIX);
+        try {
+            try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+                content.write(writer);
+            }
+            Files.move(tempFile, path, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(tempFile);
+        }
+    }
+
+    /**
+     * Node ids become file names, so anything but letters, digits, dots, dashes and underscores is replaced.
+     */
+    static String fileName(final String nodeId) {
+        return nodeId.replaceAll("[^A-Za-z0-9._-]", "_");
+    }
+
+    @FunctionalInterface
+    private interface FileWriter {
+        void write(BufferedWriter writer) throws IOException;
+    }
+
+    private record Heartbeat(String nodeId, Instant heartbeatAt) {}
+
+    private record ShardHeader(String nodeId, Instant completedAt, Instant updatedAt, List<Integer> courseIds) {
+
+        ShardHeader {
+            updatedAt = updatedAt == null ? completedAt : updatedAt;
+            courseIds = courseIds == null ? List.of() : courseIds;
+        }
+    }
+
+    private record ShardOccurrence(int courseId, LinkValidationResult result) {}
+}
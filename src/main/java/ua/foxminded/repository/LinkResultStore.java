@@ -0,0 +1,204 @@
+package ua.foxminded.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Repository;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.StoredLinkResult;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * File-based store of per-link validation results.
+ * <p>
+ * Results are kept as newline-delimited JSON. Single results are appended, and a complete scan rewrites the file
+ * atomically, which also drops links that no longer appear in Moodle. When the file is read, the last line for a
+ * link wins.
+ * <p>
+ * A result is stored once per canonical URL, so a complete scan also rewrites a second file next to it, with every
+ * course and task each link occurs in, from which the full report is rebuilt at startup.
+ */
+@Slf4j
+@Repository
+public class LinkResultStore {
+
+    private final ObjectMapper objectMapper;
+    private final Path path;
+    private final Path occurrencesPath;
+    private final boolean enabled;
+
+    public LinkResultStore(
+            final ObjectMapper objectMapper,
+            @Value("${link.checker.store.path:data/link-results.ndjson}") final Path path,
+            @Value("${link.checker.store.enabled:true}") final boolean enabled
+    ) {
+        this.objectMapper = objectMapper;
+        this.path = path;
+        this.occurrencesPath = path.resolveSibling(occurrencesFileName(path.getFileName().toString()));
+        this.enabled = enabled;
+    }
+
+    public synchronized List<StoredLinkResult> load() {
+        if (!enabled || !Files.exists(path)) {
+            return List.of();
+        }
+
+        final Map<String, StoredLinkResult> results = new LinkedHashMap<>();
+        int skippedLines = 0;
+        try (BufferedReader reader = Files.newBufferedReader(path, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    final StoredLinkResult stored = objectMapper.readValue(line, StoredLinkResult.class);
+                    results.put(stored.result().link(), stored);
+                } catch (final IOException e) {
+                    // A partially written last line after a crash must not prevent the warm start
+                    skippedLines++;
+                }
+            }
+        } catch (final IOException e) {
+            log.error("Error reading link result store {}: {}", path, e.getMessage());
+            return List.of();
+        }
+
+        if (skippedLines > 0) {
+            log.warn("Skipped {} unreadable lines in link result store {}", skippedLines, path);
+        }
+        log.info("Loaded {} link results from {}", results.size(), path);
+        return new ArrayList<>(results.values());
+    }
+
+    public synchronized void append(final Collection<StoredLinkResult> results) {
+        if (!enabled || results.isEmpty()) {
+            return;
+        }
+
+        try {
+            createParentDirectories();
+            try (BufferedWriter writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                write(writer, results);
+            }
+        } catch (final IOException e) {
+            log.error("Error appending to link result store {}: {}", path, e.getMessage());
+        }
+    }
+
+    public synchronized void replaceAll(final Collection<StoredLinkResult> results) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            replaceFile(path, writer -> write(writer, results));
+            log.info("Stored {} link results in {}", results.size(), path);
+        } catch (final IOException e) {
+            log.error("Error writing link result store {}: {}", path, e.getMessage());
+        }
+    }
+
+    /**
+     * Replaces the stored occurrences with every link, course and task of {@code occurrences}; their outcomes are
+     * stored per URL by {@link #replaceAll} and {@link #append}.
+     */
+    public synchronized void replaceOccurrences(final Collection<LinkValidationResult> occurrences) {
+        if (!enabled) {
+            return;
+        }
+
+        try {
+            replaceFile(occurrencesPath, writer -> {
+                for (final LinkValidationResult occurrence : occurrences) {
+                    writer.write(objectMapper.writeValueAsString(new StoredOccurrence(occurrence.link(),
+                            occurrence.courseName(), occurrence.taskName())));
+                    writer.newLine();
+                }
+            });
+            log.info("Stored {} link occurrences in {}", occurrences.size(), occurrencesPath);
+        } catch (final IOException e) {
+            log.error("Error writing link occurrences {}: {}", occurrencesPath, e.getMessage());
+        }
+    }
+
+    /**
+     * The occurrences of the last complete scan, without outcomes; empty when none have been stored yet.
+     */
+    public synchronized List<LinkValidationResult> loadOccurrences() {
+        if (!enabled || !Files.exists(occurrencesPath)) {
+            return List.of();
+        }
+
+        final List<LinkValidationResult> occurrences = new ArrayList<>();
+        try (BufferedReader reader = Files.newBufferedReader(occurrencesPath, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.isBlank()) {
+                    final StoredOccurrence occurrence = objectMapper.readValue(line, StoredOccurrence.class);
+                    occurrences.add(new LinkValidationResult(occurrence.link(), false, occurrence.courseName(),
+                            occurrence.taskName(), ""));
+                }
+            }
+        } catch (final IOException e) {
+            // the file is replaced atomically, so this is not a crash mid-write: fall back to the stored results
+            log.error("Error reading link occurrences {}: {}", occurrencesPath, e.getMessage());
+            return List.of();
+        }
+        return occurrences;
+    }
+
+    private void replaceFile(final Path target, final FileContent content) throws IOException {
+        createParentDirectories();
+        final Path tempFile = target.resolveSibling(target.getFileName() + ".tmp");
+        try (BufferedWriter writer = Files.newBufferedWriter(tempFile, StandardCharsets.UTF_8)) {
+            content.write(writer);
+        }
+        Files.move(tempFile, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private void write(final BufferedWriter writer, final Collection<StoredLinkResult> results) throws IOException {
+        for (final StoredLinkResult result : results) {
+            writer.write(objectMapper.writeValueAsString(result));
+            writer.newLine();
+        }
+    }
+
+    private void createParentDirectories() throws IOException {
+        final Path parent = path.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+    }
+
+    /**
+     * {@code link-results.ndjson} keeps its occurrences in {@code link-results-occurrences.ndjson}.
+     */
+    private static String occurrencesFileName(final String fileName) {
+        final int extension = fileName.lastIndexOf('.');
+        return extension > 0
+                ? fileName.substring(0, extension) + "-occurrences" + fileName.substring(extension)
+                : fileName + "-occurrences";
+    }
+
+    @FunctionalInterface
+    private interface FileContent {
+        void write(BufferedWriter writer) throws IOException;
+    }
+
+    private record StoredOccurrence(String link, String courseName, String taskName) {}
+}
@@ -0,0 +1,89 @@
+package ua.foxminded.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.foxminded.model.MoodleAssignment;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * Remembers the links extracted from each assignment together with the assignment's {@code timemodified}, so that
+ * a scan only parses the intro of assignments that changed since they were last seen. Assignments that a complete
+ * crawl no longer returns, because they were deleted or hidden, are forgotten at its end.
+ */
+@Component
+public class AssignmentLinkIndex {
+
+    private final boolean enabled;
+    private final Map<Long, IndexedAssignment> assignments = new ConcurrentHashMap<>();
+    private final AtomicLong reused = new AtomicLong();
+    private final AtomicLong extracted = new AtomicLong();
+    private final AtomicLong crawl = new AtomicLong();
+
+    public AssignmentLinkIndex(@Value("${moodle.assignments.incremental:true}") final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public List<String> linksFor(final MoodleAssignment assignment, final Function<String, List<String>> extractor) {
+        // Without a modification time there is no way to tell whether the intro changed
+        if (!enabled || assignment.timemodified() <= 0) {
+            extracted.incrementAndGet();
+            return extractor.apply(assignment.intro());
+        }
+
+        final long seenIn = crawl.get();
+        final IndexedAssignment indexed = assignments.get(assignment.id());
+        if (indexed != null && indexed.timemodified() == assignment.timemodified()) {
+            if (indexed.seenIn() != seenIn) {
+                assignments.put(assignment.id(),
+                        new IndexedAssignment(indexed.timemodified(), indexed.links(), seenIn));
+            }
+            reused.incrementAndGet();
+            return indexed.links();
+        }
+
+        final List<String> links = List.copyOf(extractor.apply(assignment.intro()));
+        assignments.put(assignment.id(), new IndexedAssignment(assignment.timemodified(), links, seenIn));
+        extracted.incrementAndGet();
+        return links;
+    }
+
+    /**
+     * Starts a crawl of all assignments: the assignments looked up from now on are marked as seen in it.
+     *
+     * @return the crawl to pass to {@link #evictUnseen(long)} once it has completed
+     */
+    public long startCrawl() {
+        return crawl.incrementAndGet();
+    }
+
+    /**
+     * Forgets the assignments not looked up since the crawl started. Must only be called for a crawl that
+     * completed, otherwise the assignments it did not reach would have to be parsed again.
+     *
+     * @return the number of assignments forgotten
+     */
+    public int evictUnseen(final long completedCrawl) {
+        final int before = assignments.size();
+        assignments.values().removeIf(indexed -> indexed.seenIn() < completedCrawl);
+        return before - assignments.size();
+    }
+
+    public int size() {
+        return assignments.size();
+    }
+
+    public long reusedCount() {
+        return reused.get();
+    }
+
+    public long extractedCount() {
+        return extracted.get();
+    }
+
+    private record IndexedAssignment(long timemodified, List<String> links, long seenIn) {}
+}
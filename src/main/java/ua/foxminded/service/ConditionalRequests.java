@@ -0,0 +1,92 @@
+package ua.foxminded.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import ua.foxminded.model.ResponseValidators;
+import ua.foxminded.model.StoredLinkResult;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The {@code ETag} and {@code Last-Modified} of the links that were valid when last checked, shared by the link
+ * validation engines so that a revalidation can be a conditional request.
+ * <p>
+ * A link that answers a conditional request with {@code 304 Not Modified} is confirmed valid without the host
+ * sending its content again. Validators are kept from successful responses only and dropped as soon as a link
+ * answers with an error, so a broken link is always checked in full.
+ */
+@Component
+public class ConditionalRequests {
+
+    private final boolean enabled;
+    private final Map<String, ResponseValidators> validators = new ConcurrentHashMap<>();
+
+    public ConditionalRequests(@Value("${link.checker.conditional-requests.enabled:true}") final boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Optional<ResponseValidators> validatorsFor(final String link) {
+        return enabled ? Optional.ofNullable(validators.get(link)) : Optional.empty();
+    }
+
+    /**
+     * The headers that make a request for the link conditional, empty when nothing is known about it.
+     */
+    public HttpHeaders conditionalHeaders(final String link) {
+        final HttpHeaders headers = new HttpHeaders();
+        validatorsFor(link).ifPresent(known -> {
+            if (known.etag() != null) {
+                headers.set(HttpHeaders.IF_NONE_MATCH, known.etag());
+            }
+            if (known.lastModified() != null) {
+                headers.set(HttpHeaders.IF_MODIFIED_SINCE, known.lastModified());
+            }
+        });
+        return headers;
+    }
+
+    /**
+     * Whether the status confirms the link: a success, or {@code 304} to a request that was conditional.
+     */
+    public static boolean isValid(final HttpStatusCode status, final HttpHeaders requestHeaders) {
+        return status.is2xxSuccessful() || status.isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                && (requestHeaders.containsKey(HttpHeaders.IF_NONE_MATCH)
+                || requestHeaders.containsKey(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    /**
+     * Keeps the validators of a link's final response. A {@code 304} may omit them, in which case the known ones
+     * still apply.
+     */
+    public void record(final String link, final HttpStatusCode status, final boolean valid,
+                       final String etag, final String lastModified) {
+        if (!enabled) {
+            return;
+        }
+        if (!valid) {
+            validators.remove(link);
+        } else if (etag != null || lastModified != null) {
+            validators.put(link, new ResponseValidators(etag, lastModified));
+        } else if (!status.isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+            validators.remove(link);
+        }
+    }
+
+    /**
+     * Replaces the known validators with those of the stored results, dropping links that are no longer stored.
+     */
+    public void replaceAll(final Collection<StoredLinkResult> results) {
+        validators.clear();
+        results.forEach(stored -> {
+            if (stored.validators() != null && stored.result().valid()) {
+                validators.put(stored.result().link(), stored.validators());
+            }
+        });
+    }
+}
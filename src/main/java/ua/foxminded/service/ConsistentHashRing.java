@@ -0,0 +1,57 @@
+package ua.foxminded.service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.function.BinaryOperator;
+
+/**
+ * Assigns keys to nodes by consistent hashing.
+ * <p>
+ * Each node is placed at {@code virtualNodes} points of a 64-bit ring, and a key belongs to the node of the first
+ * point at or after the hash of the key. A node joining or leaving only moves the keys next to its own points, and
+ * every node computes the same assignment from the same set of node ids, whatever their order.
+ */
+public final class ConsistentHashRing {
+
+    private final NavigableMap<Long, String> points = new TreeMap<>();
+
+    public ConsistentHashRing(final Collection<String> nodes, final int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        for (final String node : nodes) {
+            for (int point = 0; point < virtualNodes; point++) {
+                // on a collision the smaller node id wins, so the ring does not depend on the order of nodes
+                points.merge(hash(node + '#' + point), node, BinaryOperator.minBy(Comparator.naturalOrder()));
+            }
+        }
+    }
+
+    public String nodeFor(final String key) {
+        final Map.Entry<Long, String> point = points.ceilingEntry(hash(key));
+        return point != null ? point.getValue() : points.firstEntry().getValue();
+    }
+
+    static long hash(final String value) {
+        final byte[] digest = md5().digest(value.getBytes(StandardCharsets.UTF_8));
+        long hash = 0;
+        for (int i = 0; i < Long.BYTES; i++) {
+            hash = hash << 8 | (digest[i] & 0xFF);
+        }
+        return hash;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (final NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 is not available", e);
+        }
+    }
+}
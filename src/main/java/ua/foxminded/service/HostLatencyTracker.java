@@ -0,0 +1,133 @@
+package ua.foxminded.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Response times of recent checks per host, used to time out a check once it takes far longer than the host
+ * usually does.
+ * <p>
+ * The timeout of a host is its 99th percentile response time multiplied by {@code multiplier}, kept between
+ * {@code min-timeout} and the configured link timeout. Until {@value #MIN_SAMPLES} responses of a host have been
+ * seen, the link timeout applies. Only the last {@value #WINDOW} responses of each host are kept, so the timeout
+ * follows a host that becomes slower or faster. A check that exceeds the timeout of its host is repeated once with
+ * the link timeout before it is reported as broken.
+ * <p>
+ * A host without responses for {@code idle-after} is forgotten, so the hosts of past scans are not kept forever.
+ */
+@Component
+public class HostLatencyTracker {
+
+    static final int WINDOW = 64;
+    static final int MIN_SAMPLES = 5;
+    private static final double PERCENTILE = 0.99;
+
+    private final Duration minTimeout;
+    private final Duration maxTimeout;
+    private final double multiplier;
+    private final long idleAfterNanos;
+    private final Map<String, Samples> hosts = new ConcurrentHashMap<>();
+    private final AtomicLong nextIdleCheck = new AtomicLong(System.nanoTime());
+
+    public HostLatencyTracker(
+            @Value("${link.checker.timeout}") final int timeoutSeconds,
+            @Value("${link.checker.adaptive-timeout.min-timeout:PT2S}") final Duration minTimeout,
+            @Value("${link.checker.adaptive-timeout.multiplier:3}") final double multiplier,
+            @Value("${link.checker.adaptive-timeout.idle-after:PT24H}") final Duration idleAfter
+    ) {
+        this.maxTimeout = Duration.ofSeconds(timeoutSeconds);
+        this.minTimeout = minTimeout.compareTo(maxTimeout) > 0 ? maxTimeout : minTimeout;
+        this.multiplier = multiplier;
+        this.idleAfterNanos = idleAfter.toNanos();
+    }
+
+    public void record(final String host, final Duration responseTime) {
+        record(host, responseTime, System.nanoTime());
+    }
+
+    void record(final String host, final Duration responseTime, final long nowNanos) {
+        hosts.computeIfAbsent(host, key -> new Samples()).add(responseTime.toNanos(), nowNanos);
+        removeIdleHosts(nowNanos);
+    }
+
+    /**
+     * The configured link timeout, which a check that exceeded the timeout of its host is repeated with.
+     */
+    public Duration linkTimeout() {
+        return maxTimeout;
+    }
+
+    /**
+     * The hosts whose response times are kept.
+     */
+    int trackedHosts() {
+        return hosts.size();
+    }
+
+    public Duration timeoutFor(final String host) {
+        final Samples samples = hosts.get(host);
+        if (samples == null) {
+            return maxTimeout;
+        }
+        final long percentileNanos = samples.percentile(PERCENTILE);
+        if (percentileNanos < 0) {
+            return maxTimeout;
+        }
+        final Duration timeout = Duration.ofNanos((long) (percentileNanos * multiplier));
+        if (timeout.compareTo(minTimeout) < 0) {
+            return minTimeout;
+        }
+        return timeout.compareTo(maxTimeout) > 0 ? maxTimeout : timeout;
+    }
+
+    /**
+     * Forgets the hosts without a response for {@code idle-after}. Runs at most once per {@code idle-after}, on the
+     * thread that records a response once that interval has elapsed.
+     */
+    private void removeIdleHosts(final long nowNanos) {
+        final long checkAt = nextIdleCheck.get();
+        if (nowNanos - checkAt < 0 || !nextIdleCheck.compareAndSet(checkAt, nowNanos + idleAfterNanos)) {
+            return;
+        }
+        hosts.values().removeIf(samples -> samples.isIdle(nowNanos, idleAfterNanos));
+    }
+
+    private static final class Samples {
+        private final long[] nanos = new long[WINDOW];
+        private int count;
+        private int next;
+        private long lastRecordedAt;
+
+        private synchronized void add(final long value, final long nowNanos) {
+            nanos[next] = value;
+            next = (next + 1) % WINDOW;
+            count = Math.min(count + 1, WINDOW);
+            lastRecordedAt = nowNanos;
+        }
+
+        private synchronized boolean isIdle(final long nowNanos, final long idleAfterNanos) {
+            return nowNanos - lastRecordedAt >= idleAfterNanos;
+        }
+
+        /**
+         * @return the percentile of the kept samples, or {@code -1} with fewer than {@link #MIN_SAMPLES} samples
+         */
+        private long percentile(final double percentile) {
+            final long[] sorted;
+            synchronized (this) {
+                if (count < MIN_SAMPLES) {
+                    return -1;
+                }
+                sorted = Arrays.copyOf(nanos, count);
+            }
+            Arrays.sort(sorted);
+            return sorted[(int) Math.ceil(percentile * sorted.length) - 1];
+        }
+    }
+}
@@ -0,0 +1,311 @@
+package ua.foxminded.service;
+
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.MonoSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Politeness scheduler for outgoing link checks.
+ * <p>
+ * Requests are queued per host and dispatched round-robin across hosts, so that no host receives more than
+ * {@code maxPerHost} concurrent requests (and, optionally, no more than {@code requestsPerSecond} request starts
+ * per second) while the global number of in-flight requests is kept at {@code maxConcurrency} as long as any
+ * host still has capacity.
+ */
+public class HostRequestScheduler {
+
+    private static final String UNKNOWN_HOST = "";
+
+    private final int maxConcurrency;
+    private final int maxPerHost;
+    private final long minIntervalNanos;
+    private final Scheduler timer;
+
+    private final Map<String, HostQueue> hosts = new HashMap<>();
+    private final ArrayDeque<HostQueue> rotation = new ArrayDeque<>();
+    private int inFlight;
+    private Disposable pendingWakeUp;
+    private long pendingWakeUpAt;
+
+    public HostRequestScheduler(final int maxConcurrency, final int maxPerHost, final double requestsPerSecond) {
+        this(maxConcurrency, maxPerHost, requestsPerSecond, Schedulers.parallel());
+    }
+
+    HostRequestScheduler(final int maxConcurrency, final int maxPerHost, final double requestsPerSecond,
+                         final Scheduler timer) {
+        if (maxConcurrency < 1 || maxPerHost < 1) {
+            throw new IllegalArgumentException("Concurrency limits must be positive");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxPerHost = maxPerHost;
+        this.minIntervalNanos = requestsPerSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / requestsPerSecond) : 0;
+        this.timer = timer;
+    }
+
+    /**
+     * Defers subscription to the supplied request until the host has a free slot. Cancelling the returned
+     * {@link Mono} either removes the request from the queue or cancels the running request.
+     */
+    public <T> Mono<T> schedule(final String host, final Supplier<Mono<T>> request) {
+        return Mono.create(sink -> {
+            final Task<T> task = new Task<>(host == null ? UNKNOWN_HOST : host, request, sink);
+            sink.onCancel(task::cancel);
+            enqueue(task);
+        });
+    }
+
+    public synchronized int inFlight() {
+        return inFlight;
+    }
+
+    public synchronized int queued() {
+        int queued = 0;
+        for (final HostQueue queue : hosts.values()) {
+            queued += queue.pending.size();
+        }
+        return queued;
+    }
+
+    /**
+     * The hosts with queued or running requests, or still within their rate limit interval.
+     */
+    synchronized int trackedHosts() {
+        return hosts.size();
+    }
+
+    public static String hostOf(final String link) {
+        try {
+            final String host = URI.create(link.trim()).getHost();
+            return host == null ? UNKNOWN_HOST : host.toLowerCase(Locale.ROOT);
+        } catch (final IllegalArgumentException e) {
+            return UNKNOWN_HOST;
+        }
+    }
+
+    private void enqueue(final Task<?> task) {
+        synchronized (this) {
+            final HostQueue queue = hosts.computeIfAbsent(task.host, key -> new HostQueue());
+            queue.pending.add(task);
+            if (!queue.inRotation) {
+                queue.inRotation = true;
+                rotation.add(queue);
+            }
+        }
+        drain();
+    }
+
+    private void release(final String host) {
+        synchronized (this) {
+            inFlight--;
+            final HostQueue queue = hosts.get(host);
+            if (queue != null) {
+                queue.inFlight--;
+                retireIfIdle(host, queue);
+            }
+        }
+        drain();
+    }
+
+    private synchronized void dequeue(final Task<?> task) {
+        final HostQueue queue = hosts.get(task.host);
+        if (queue != null) {
+            queue.pending.remove(task);
+            if (queue.pending.isEmpty()) {
+                rotation.remove(queue);
+                queue.inRotation = false;
+            }
+            retireIfIdle(task.host, queue);
+        }
+    }
+
+    private void drain() {
+        final List<Task<?>> ready = new ArrayList<>();
+        synchronized (this) {
+            final long now = System.nanoTime();
+            long nextWakeUp = Long.MAX_VALUE;
+            int skipped = 0;
+
+            while (inFlight < maxConcurrency && skipped < rotation.size()) {
+                final HostQueue queue = rotation.poll();
+                if (queue.pending.isEmpty()) {
+                    queue.inRotation = false;
+                    continue;
+                }
+                if (queue.inFlight >= maxPerHost) {
+                    rotation.add(queue);
+                    skipped++;
+                    continue;
+                }
+                if (now - queue.nextStartAt < 0) {
+                    nextWakeUp = Math.min(nextWakeUp, queue.nextStartAt);
+                    rotation.add(queue);
+                    skipped++;
+                    continue;
+                }
+
+                final Task<?> task = queue.pending.poll();
+                queue.inFlight++;
+                queue.nextStartAt = now + minIntervalNanos;
+                inFlight++;
+                ready.add(task);
+                skipped = 0;
+
+                if (queue.pending.isEmpty()) {
+                    queue.inRotation = false;
+                } else {
+                    rotation.add(queue);
+                }
+            }
+
+            if (nextWakeUp != Long.MAX_VALUE && inFlight < maxConcurrency) {
+                scheduleWakeUp(nextWakeUp);
+            }
+        }
+        ready.forEach(Task::start);
+    }
+
+    /**
+     * Forgets a host that has nothing queued or running, or schedules a wake-up to forget it once its rate limit
+     * interval has elapsed.
+     */
+    private void retireIfIdle(final String host, final HostQueue queue) {
+        if (queue.inFlight > 0 || !queue.pending.isEmpty()) {
+            return;
+        }
+        if (queue.isIdle()) {
+            hosts.remove(host);
+        } else {
+            scheduleWakeUp(queue.nextStartAt);
+        }
+    }
+
+    /**
+     * Schedules a drain at the given {@link System#nanoTime()}. A pending wake-up that is due later is replaced, one
+     * due earlier is kept: every wake-up reschedules whatever is still waiting.
+     */
+    private void scheduleWakeUp(final long wakeUpAt) {
+        if (pendingWakeUp != null && !pendingWakeUp.isDisposed()) {
+            if (pendingWakeUpAt - wakeUpAt <= 0) {
+                return;
+            }
+            pendingWakeUp.dispose();
+        }
+        pendingWakeUpAt = wakeUpAt;
+        pendingWakeUp = timer.schedule(() -> wakeUp(wakeUpAt),
+                Math.max(wakeUpAt - System.nanoTime(), 0), TimeUnit.NANOSECONDS);
+    }
+
+    private void wakeUp(final long wakeUpAt) {
+        synchronized (this) {
+            if (pendingWakeUpAt == wakeUpAt) {
+                pendingWakeUp = null;
+            }
+            removeIdleHosts();
+        }
+        drain();
+    }
+
+    private void removeIdleHosts() {
+        long nextCheck = 0;
+        boolean cooling = false;
+        final Iterator<HostQueue> queues = hosts.values().iterator();
+        while (queues.hasNext()) {
+            final HostQueue queue = queues.next();
+            if (queue.inFlight > 0 || !queue.pending.isEmpty()) {
+                continue;
+            }
+            if (queue.isIdle()) {
+                queues.remove();
+            } else if (!cooling || queue.nextStartAt - nextCheck < 0) {
+                nextCheck = queue.nextStartAt;
+                cooling = true;
+            }
+        }
+        if (cooling) {
+            scheduleWakeUp(nextCheck);
+        }
+    }
+
+    private static final class HostQueue {
+        private final ArrayDeque<Task<?>> pending = new ArrayDeque<>();
+        private int inFlight;
+        private long nextStartAt = System.nanoTime();
+        private boolean inRotation;
+
+        private boolean isIdle() {
+            // a rate-limited host is kept around until its interval elapses so the limit survives short gaps
+            return inFlight == 0 && pending.isEmpty() && System.nanoTime() - nextStartAt >= 0;
+        }
+    }
+
+    private final class Task<T> {
+        private final String host;
+        private final Supplier<Mono<T>> request;
+        private final MonoSink<T> sink;
+        private boolean started;
+        private boolean cancelled;
+        private Disposable subscription;
+
+        private Task(final String host, final Supplier<Mono<T>> request, final MonoSink<T> sink) {
+            this.host = host;
+            this.request = request;
+            this.sink = sink;
+        }
+
+        private void start() {
+            final boolean cancelledBeforeStart;
+            synchronized (this) {
+                cancelledBeforeStart = cancelled;
+                started = !cancelled;
+            }
+            if (cancelledBeforeStart) {
+                release(host);
+                return;
+            }
+            final Disposable disposable;
+            try {
+                disposable = request.get()
+                        .doFinally(signal -> release(host))
+                        .subscribe(sink::success, sink::error, sink::success);
+            } catch (final RuntimeException e) {
+                release(host);
+                sink.error(e);
+                return;
+            }
+            final boolean cancelledWhileStarting;
+            synchronized (this) {
+                subscription = disposable;
+                cancelledWhileStarting = cancelled;
+            }
+            if (cancelledWhileStarting) {
+                disposable.dispose();
+            }
+        }
+
+        private void cancel() {
+            final Disposable running;
+            synchronized (this) {
+                cancelled = true;
+                running = subscription;
+            }
+            if (running != null) {
+                running.dispose();
+            } else if (!started) {
+                dequeue(this);
+            }
+        }
+    }
+}
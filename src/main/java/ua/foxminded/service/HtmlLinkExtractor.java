@@ -0,0 +1,227 @@
+package ua.foxminded.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.parser.Parser;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Extracts absolute http(s) links from assignment HTML without building a DOM.
+ * <p>
+ * The HTML is scanned once for start tags, and only the link-bearing attribute of each known tag is read: anchors
+ * and image maps ({@code href}), images and embedded media ({@code src}) and objects ({@code data}). Comments and the
+ * content of {@code script} and {@code style} elements are skipped. Input the scanner cannot make sense of, such as an
+ * unterminated tag or quote, is handed to Jsoup, which applies the browser's error recovery rules.
+ */
+public class HtmlLinkExtractor {
+
+    private static final Map<String, String> LINK_ATTRIBUTES = Map.ofEntries(
+            Map.entry("a", "href"),
+            Map.entry("area", "href"),
+            Map.entry("img", "src"),
+            Map.entry("iframe", "src"),
+            Map.entry("embed", "src"),
+            Map.entry("source", "src"),
+            Map.entry("video", "src"),
+            Map.entry("audio", "src"),
+            Map.entry("track", "src"),
+            Map.entry("object", "data")
+    );
+
+    private static final String JSOUP_SELECTOR = "a[href], area[href], img[src], iframe[src], embed[src], "
+            + "source[src], video[src], audio[src], track[src], object[data]";
+
+    public List<String> extract(final String html) {
+        final List<String> links = new ArrayList<>();
+        if (html == null || html.isEmpty()) {
+            return links;
+        }
+        if (!new Scanner(html, links).scan()) {
+            links.clear();
+            extractWithJsoup(html, links);
+        }
+        return links;
+    }
+
+    List<String> extractWithJsoup(final String html) {
+        final List<String> links = new ArrayList<>();
+        extractWithJsoup(html, links);
+        return links;
+    }
+
+    private static void extractWithJsoup(final String html, final List<String> links) {
+        for (final Element element : Jsoup.parse(html).select(JSOUP_SELECTOR)) {
+            addIfAbsolute(element.attr(LINK_ATTRIBUTES.get(element.normalName())), links);
+        }
+    }
+
+    private static void addIfAbsolute(final String value, final List<String> links) {
+        final String link = value.strip();
+        if (link.regionMatches(true, 0, "http://", 0, 7) || link.regionMatches(true, 0, "https://", 0, 8)) {
+            links.add(link);
+        }
+    }
+
+    private static final class Scanner {
+
+        private final String html;
+        private final int length;
+        private final List<String> links;
+        private int position;
+        private int valueStart;
+        private int valueEnd;
+
+        private Scanner(final String html, final List<String> links) {
+            this.html = html;
+            this.length = html.length();
+            this.links = links;
+        }
+
+        /**
+         * @return {@code false} when the markup is malformed and should be parsed by Jsoup instead
+         */
+        private boolean scan() {
+            while (true) {
+                final int tagStart = html.indexOf('<', position);
+                if (tagStart < 0) {
+                    return true;
+                }
+                position = tagStart + 1;
+
+                if (html.startsWith("!--", position)) {
+                    final int commentEnd = html.indexOf("-->", position + 3);
+                    if (commentEnd < 0) {
+                        return false;
+                    }
+                    position = commentEnd + 3;
+                    continue;
+                }
+
+                if (position >= length || !isAsciiLetter(html.charAt(position))) {
+                    // an end tag, a declaration or a literal '<' in text
+                    continue;
+                }
+                final int nameStart = position;
+                while (position < length && isTagNameChar(html.charAt(position))) {
+                    position++;
+                }
+
+                final String tagName = html.substring(nameStart, position).toLowerCase(Locale.ROOT);
+                if (!scanAttributes(LINK_ATTRIBUTES.get(tagName))) {
+                    return false;
+                }
+                if ((tagName.equals("script") || tagName.equals("style")) && !skipRawText(tagName)) {
+                    return false;
+                }
+            }
+        }
+
+        private boolean scanAttributes(final String linkAttribute) {
+            while (true) {
+                skipWhitespace();
+                if (position >= length) {
+                    return false;
+                }
+
+                final char current = html.charAt(position);
+                if (current == '>') {
+                    position++;
+                    return true;
+                }
+                if (current == '/') {
+                    position++;
+                    continue;
+                }
+
+                final int nameStart = position;
+                while (position < length && isAttributeNameChar(html.charAt(position))) {
+                    position++;
+                }
+                if (position == nameStart) {
+                    // stray quote or similar in the attribute list
+                    return false;
+                }
+                final int nameEnd = position;
+
+                skipWhitespace();
+                if (position >= length || html.charAt(position) != '=') {
+                    continue;
+                }
+                position++;
+                skipWhitespace();
+
+                if (!readAttributeValue()) {
+                    return false;
+                }
+                if (linkAttribute != null && nameEnd - nameStart == linkAttribute.length()
+                        && html.regionMatches(true, nameStart, linkAttribute, 0, linkAttribute.length())) {
+                    // only the values that are kept are copied out of the HTML
+                    final String value = html.substring(valueStart, valueEnd);
+                    addIfAbsolute(value.indexOf('&') >= 0 ? Parser.unescapeEntities(value, true) : value, links);
+                }
+            }
+        }
+
+        private boolean readAttributeValue() {
+            if (position >= length) {
+                return false;
+            }
+
+            final char quote = html.charAt(position);
+            if (quote == '"' || quote == '\'') {
+                valueStart = position + 1;
+                valueEnd = html.indexOf(quote, valueStart);
+                if (valueEnd < 0) {
+                    return false;
+                }
+                position = valueEnd + 1;
+                return true;
+            }
+
+            valueStart = position;
+            while (position < length && !Character.isWhitespace(html.charAt(position)) && html.charAt(position) != '>') {
+                position++;
+            }
+            valueEnd = position;
+            return true;
+        }
+
+        private boolean skipRawText(final String tagName) {
+            int search = position;
+            while (true) {
+                final int end = html.indexOf("</", search);
+                if (end < 0) {
+                    return false;
+                }
+                if (html.regionMatches(true, end + 2, tagName, 0, tagName.length())) {
+                    position = end;
+                    return true;
+                }
+                search = end + 2;
+            }
+        }
+
+        private void skipWhitespace() {
+            while (position < length && Character.isWhitespace(html.charAt(position))) {
+                position++;
+            }
+        }
+
+        private static boolean isAsciiLetter(final char c) {
+            return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+        }
+
+        private static boolean isTagNameChar(final char c) {
+            return isAsciiLetter(c) || (c >= '0' && c <= '9');
+        }
+
+        private static boolean isAttributeNameChar(final char c) {
+            return !Character.isWhitespace(c) && c != '=' && c != '>' && c != '/' && c != '"' && c != '\''
+                    && c != '<';
+        }
+    }
+}
@@ -3,71 +3,520 @@ package ua.foxminded.service;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import ua.foxminded.model.LinkReport;
 import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.ResultPage;
+import ua.foxminded.model.ResultQuery;
+import ua.foxminded.model.ScanProgress;
+import ua.foxminded.model.StoredLinkResult;
+import ua.foxminded.repository.LinkResultStore;
 
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
 public class LinkCacheService {
 
+    private static final String NOT_CHECKED = "Not checked: scan deadline reached";
+
     private final MoodleApiService moodleApiService;
-    private final LinkValidatorService linkValidatorService;
-    private final long cacheDurationHours;
-    
-    private final AtomicReference<List<LinkValidationResult>> cachedResults = new AtomicReference<>();
+    private final LinkValidator linkValidator;
+    private final LinkResultStore linkResultStore;
+    private final LinkResultCache linkResultCache;
+    private final ConditionalRequests conditionalRequests;
+    private final UrlCanonicalizer urlCanonicalizer;
+    private final ScanMetrics scanMetrics;
+    private final ScanCoordinator scanCoordinator;
+    private final int refreshBatchSize;
+
+    private final AtomicReference<LinkReport> cachedReport = new AtomicReference<>();
+    private final AtomicReference<ResultIndex> resultIndex = new AtomicReference<>();
     private final AtomicReference<LocalDateTime> lastUpdateTime = new AtomicReference<>();
+    private final AtomicReference<ScanTracker> latestScan = new AtomicReference<>();
+    private final AtomicReference<Instant> mergedShardsAt = new AtomicReference<>();
+    private final AtomicReference<Shard> shard = new AtomicReference<>();
+    private Mono<List<LinkValidationResult>> scanInProgress;
+    private Flux<LinkValidationResult> scanResults;
 
     public LinkCacheService(
             final MoodleApiService moodleApiService,
-            final LinkValidatorService linkValidatorService,
-            @Value("${link.checker.cache.duration-hours:24}") final long cacheDurationHours
+            final LinkValidator linkValidator,
+            final LinkResultStore linkResultStore,
+            final LinkResultCache linkResultCache,
+            final ConditionalRequests conditionalRequests,
+            final UrlCanonicalizer urlCanonicalizer,
+            final ScanMetrics scanMetrics,
+            final ScanCoordinator scanCoordinator,
+            @Value("${link.checker.cache.refresh-batch-size:500}") final int refreshBatchSize
     ) {
         this.moodleApiService = moodleApiService;
-        this.linkValidatorService = linkValidatorService;
-        this.cacheDurationHours = cacheDurationHours;
-        log.info("Link cache initialized with duration of {} hours", cacheDurationHours);
+        this.linkValidator = linkValidator;
+        this.linkResultStore = linkResultStore;
+        this.linkResultCache = linkResultCache;
+        this.conditionalRequests = conditionalRequests;
+        this.urlCanonicalizer = urlCanonicalizer;
+        this.scanMetrics = scanMetrics;
+        this.scanCoordinator = scanCoordinator;
+        this.refreshBatchSize = refreshBatchSize;
+        warmUp();
+    }
+
+    /**
+     * Starts a scan, or joins the one in progress. Links with a fresh cached result are not validated again.
+     */
+    public Mono<List<LinkValidationResult>> scan() {
+        return refresh(false);
+    }
+
+    public synchronized boolean isScanInProgress() {
+        return scanInProgress != null;
+    }
+
+    /**
+     * Progress of the scan in progress, or else of the last scan since startup.
+     */
+    public Optional<ScanProgress> getScanProgress() {
+        final ScanTracker tracker = latestScan.get();
+        return tracker == null ? Optional.empty() : Optional.of(tracker.progress(Instant.now()));
     }
 
-    public Mono<List<LinkValidationResult>> getLinkValidationResults(final boolean forceRefresh) {
-        if (!forceRefresh && isCacheValid()) {
-            log.info("Returning cached link validation results");
-            return Mono.just(cachedResults.get());
+    /**
+     * Stops the scan in progress. Checks still running are abandoned, and the links validated so far are cached
+     * and stored; they update the matching links of the current snapshot, or become the snapshot when there is
+     * none yet.
+     *
+     * @return {@code false} when no scan is running
+     */
+    public synchronized boolean cancelScan() {
+        if (scanInProgress == null || !latestScan.get().cancel()) {
+            return false;
         }
-        
+        log.info("Cancelling link validation scan {}", latestScan.get().id());
+        return true;
+    }
+
+    /**
+     * Streams results as they become available. While a scan runs, or when one is needed, the result of each
+     * checked URL is emitted as soon as it is validated, from the start of the scan; the stream completes with the
+     * scan. Results of URLs found again in other tasks are only part of the complete report. Otherwise the cached
+     * results are emitted at once.
+     */
+    public Flux<LinkValidationResult> streamLinkValidationResults(final boolean forceRefresh) {
+        final Mono<List<LinkValidationResult>> scan;
+        final Flux<LinkValidationResult> liveResults;
+        synchronized (this) {
+            if (!forceRefresh && scanResults == null && cachedReport.get() != null) {
+                return Flux.fromIterable(cachedReport.get().results());
+            }
+            scan = refresh(forceRefresh);
+            liveResults = scanResults;
+        }
+        scan.subscribe(results -> { }, e -> { });
+        return liveResults;
+    }
+
+    public boolean hasCachedResults() {
+        return cachedReport.get() != null;
+    }
+
+    /**
+     * Returns a page of the last complete snapshot, using indexes built when the snapshot was taken.
+     */
+    public ResultPage findResults(final ResultQuery query) {
+        final ResultIndex index = resultIndex.get();
+        return index == null ? ResultPage.empty(query) : index.find(query);
+    }
+
+    /**
+     * Emits every result of the last complete snapshot matching the filters and sort of {@code query}, ignoring its
+     * page. Results are created as the subscriber requests them, so a large export only holds the results in flight.
+     */
+    public Flux<LinkValidationResult> exportResults(final ResultQuery query) {
+        return Flux.defer(() -> {
+            final ResultIndex index = resultIndex.get();
+            return index == null ? Flux.empty() : Flux.fromIterable(index.matching(query));
+        });
+    }
+
+    /**
+     * Returns the scan in progress, or starts a new one. Concurrent callers share a single scan, so Moodle and
+     * the checked hosts see one crawl no matter how many requests trigger it.
+     */
+    private synchronized Mono<List<LinkValidationResult>> refresh(final boolean forceRefresh) {
+        if (scanInProgress != null) {
+            log.info("Joining link validation scan in progress");
+            return scanInProgress;
+        }
+
         log.info("Fetching fresh link validation results");
-        return fetchFreshResults()
-                .doOnSuccess(results -> {
-                    cachedResults.set(results);
+        final Sinks.Many<LinkValidationResult> liveResults = Sinks.many().replay().all();
+        scanResults = liveResults.asFlux();
+        final ScanTracker tracker = new ScanTracker(Instant.now());
+        latestScan.set(tracker);
+        scanInProgress = fetchFreshResults(forceRefresh, liveResults, tracker)
+                .transform(scanMetrics::timeScan)
+                .doOnSuccess(report -> {
+                    publish(previous -> report);
                     lastUpdateTime.set(LocalDateTime.now());
-                    log.info("Cache updated with {} links", results.size());
-                });
+                    tracker.completed(Instant.now());
+                    log.info("Cache updated with {} links in {} places", report.urlCount(),
+                            report.occurrenceCount());
+                })
+                .map(LinkReport::results)
+                .doOnError(e -> {
+                    tracker.failed(Instant.now());
+                    liveResults.tryEmitError(e);
+                })
+                // the scan is over before its callers hear of it, so that a caller can start the next one
+                .doOnTerminate(() -> finishScan(liveResults))
+                .doOnCancel(() -> finishScan(liveResults))
+                .cache();
+        return scanInProgress;
     }
 
-    private boolean isCacheValid() {
-        final List<LinkValidationResult> results = cachedResults.get();
-        final LocalDateTime lastUpdate = lastUpdateTime.get();
-        
-        if (results == null || lastUpdate == null) {
-            return false;
+    private void finishScan(final Sinks.Many<LinkValidationResult> liveResults) {
+        clearScanInProgress();
+        liveResults.tryEmitComplete();
+    }
+
+    private synchronized void clearScanInProgress() {
+        scanInProgress = null;
+        scanResults = null;
+    }
+
+    private void warmUp() {
+        final List<StoredLinkResult> stored = linkResultStore.load();
+        if (stored.isEmpty()) {
+            return;
         }
-        
-        final LocalDateTime expirationTime = lastUpdate.plusHours(cacheDurationHours);
-        return LocalDateTime.now().isBefore(expirationTime);
+
+        // Results stored before links were canonicalized are keyed by the link as written
+        final List<StoredLinkResult> canonicalized = stored.stream().map(this::canonicalized).toList();
+        linkResultCache.replaceAll(canonicalized);
+        conditionalRequests.replaceAll(canonicalized);
+
+        // Each result carries one occurrence of its URL; the others, in further courses and tasks, are stored
+        // apart. Stores written before they were only give the first occurrence.
+        final List<LinkValidationResult> results = canonicalized.stream().map(StoredLinkResult::result).toList();
+        final List<LinkValidationResult> occurrences = linkResultStore.loadOccurrences();
+        final UrlIndex urlIndex = new UrlIndex(urlCanonicalizer);
+        (occurrences.isEmpty() ? results : occurrences).forEach(urlIndex::add);
+        final LinkReport report = urlIndex.build(results);
+        publish(previous -> report);
+        stored.stream()
+                .map(StoredLinkResult::checkedAt)
+                .max(Comparator.naturalOrder())
+                .ifPresent(checkedAt -> lastUpdateTime.set(LocalDateTime.ofInstant(checkedAt, ZoneId.systemDefault())));
+        log.info("Link cache warmed up with {} stored links", stored.size());
     }
 
-    private Mono<List<LinkValidationResult>> fetchFreshResults() {
-        return moodleApiService.getCourseIds()
-                .transform(moodleApiService::extractAssignmentLinks)
-                .transform(linkValidatorService::validateLinks)
+    /**
+     * Revalidates links whose cached result has expired, a batch at a time, so that the full scan only has to
+     * validate links that are new or expired.
+     */
+    public Mono<Void> refreshExpiredLinks() {
+        final List<StoredLinkResult> expired = linkResultCache.expired(Instant.now(), refreshBatchSize);
+        if (expired.isEmpty()) {
+            return Mono.empty();
+        }
+
+        log.info("Revalidating {} expired links", expired.size());
+        return Flux.fromIterable(expired)
+                .map(StoredLinkResult::result)
+                .transform(linkValidator::validateLinks)
+                .map(this::checked)
                 .collectList()
-                .doOnError(e -> log.error("Error fetching link validation results: {}", e.getMessage()));
+                .publishOn(Schedulers.boundedElastic())
+                .doOnNext(this::applyRefreshed)
+                .doOnError(e -> log.error("Error revalidating expired links: {}", e.getMessage()))
+                .onErrorComplete()
+                .then();
+    }
+
+    private Mono<LinkReport> fetchFreshResults(final boolean forceRefresh,
+                                               final Sinks.Many<LinkValidationResult> liveResults,
+                                               final ScanTracker tracker) {
+        // Each canonical URL is validated once, as soon as its first occurrence is extracted, and the results are
+        // fanned out to all occurrences when the scan completes. A forced refresh revalidates everything;
+        // otherwise only URLs without a fresh cached result are checked.
+        return Mono.defer(() -> {
+            final Instant now = Instant.now();
+            final UrlIndex urlIndex = new UrlIndex(urlCanonicalizer);
+            final IntPredicate ownCourses = scanCoordinator.claimShard(now);
+            final Set<Integer> listedCourses = ConcurrentHashMap.newKeySet();
+            final Map<Integer, String> courseNames = new ConcurrentHashMap<>();
+
+            return moodleApiService.getCourseIds()
+                    .filter(ownCourses::test)
+                    .doOnNext(courseId -> {
+                        listedCourses.add(courseId);
+                        tracker.courseListed();
+                    })
+                    .doOnComplete(tracker::coursesListingComplete)
+                    .transform(courseIds -> moodleApiService.extractAssignmentLinks(courseIds, tracker::coursesFetched,
+                            courseNames::put))
+                    .mapNotNull(occurrence -> urlIndex.add(occurrence).orElse(null))
+                    .doOnNext(link -> tracker.linkFound())
+                    .map(link -> {
+                        if (forceRefresh) {
+                            return new CacheLookup(link, Optional.<StoredLinkResult>empty());
+                        }
+                        final Optional<StoredLinkResult> cached = linkResultCache.getFresh(link.link(), now);
+                        scanMetrics.recordCacheLookup(cached.isPresent());
+                        return new CacheLookup(link, cached);
+                    })
+                    .publish(lookups -> Flux.merge(
+                            lookups.filter(lookup -> lookup.cached().isPresent())
+                                    .map(lookup -> reuse(lookup.link(), lookup.cached().get())),
+                            lookups.filter(lookup -> lookup.cached().isEmpty())
+                                    .map(CacheLookup::link)
+                                    .transform(linkValidator::validateLinks)
+                                    .map(this::checked)))
+                    // cancelling stops the crawl and the checks in flight, and keeps what has been validated
+                    .takeUntilOther(tracker.cancellation())
+                    .doOnNext(result -> {
+                        tracker.linkValidated();
+                        liveResults.tryEmitNext(result.result());
+                    })
+                    .collectList()
+                    .publishOn(Schedulers.boundedElastic())
+                    .map(results -> {
+                        if (tracker.isCancelRequested()) {
+                            return publishShard(keepPartialResults(results, urlIndex),
+                                    reachedCourses(listedCourses, courseNames));
+                        }
+                        final List<LinkValidationResult> validated =
+                                results.stream().map(StoredLinkResult::result).toList();
+                        final List<String> unchecked = urlIndex.missing(validated);
+                        final LinkReport report;
+                        if (unchecked.isEmpty()) {
+                            report = urlIndex.build(validated);
+                            store(results, report);
+                            log.info("Validated {} unique URLs for {} link occurrences", urlIndex.urlCount(),
+                                    urlIndex.occurrenceCount());
+                        } else {
+                            tracker.truncated();
+                            report = keepTruncatedResults(results, unchecked, urlIndex);
+                        }
+                        final Map<Integer, String> courses = new TreeMap<>();
+                        listedCourses.forEach(courseId -> courses.put(courseId, courseNames.get(courseId)));
+                        return publishShard(report, courses);
+                    });
+        }).doOnError(e -> log.error("Error fetching link validation results: {}", e.getMessage()));
+    }
+
+    /**
+     * In cluster mode, writes the results of this node's courses as its shard and returns the merged results of
+     * the cluster instead.
+     */
+    private LinkReport publishShard(final LinkReport report, final Map<Integer, String> courses) {
+        if (!scanCoordinator.isEnabled()) {
+            return report;
+        }
+        // a revalidation rewrites the shard from the one kept here, so both are replaced together
+        synchronized (shard) {
+            shard.set(new Shard(report, courses));
+            scanCoordinator.publishShard(byCourse(report, courses), Instant.now());
+        }
+        return mergeShards();
+    }
+
+    /**
+     * The occurrences of a report by course id, for every course of {@code courses}. Moodle course short names are
+     * unique, so the names the scan found for the course ids tell the course of each occurrence.
+     */
+    private static Map<Integer, List<LinkValidationResult>> byCourse(final LinkReport report,
+                                                                     final Map<Integer, String> courses) {
+        final Map<String, Integer> courseIds = new HashMap<>();
+        final Map<Integer, List<LinkValidationResult>> byCourse = new TreeMap<>();
+        courses.forEach((courseId, courseName) -> {
+            byCourse.put(courseId, new ArrayList<>());
+            if (courseName != null) {
+                courseIds.put(courseName, courseId);
+            }
+        });
+        for (final LinkValidationResult result : report.results()) {
+            final Integer courseId = courseIds.get(result.courseName());
+            if (courseId != null) {
+                byCourse.get(courseId).add(result);
+            }
+        }
+        return byCourse;
+    }
+
+    /**
+     * The courses a cancelled scan owns: those it fetched, and those of the previous shard still assigned to this
+     * node, whose results it keeps. Courses it did not reach are not claimed, so they keep their previous owner.
+     */
+    private Map<Integer, String> reachedCourses(final Set<Integer> listedCourses,
+                                                final Map<Integer, String> courseNames) {
+        final Map<Integer, String> courses = new TreeMap<>();
+        final Shard previous = shard.get();
+        final Map<Integer, String> previousCourses = previous == null ? Map.of() : previous.courses();
+        previousCourses.forEach((courseId, courseName) -> {
+            if (listedCourses.contains(courseId)) {
+                courses.put(courseId, courseName);
+            }
+        });
+        courses.putAll(courseNames);
+        return courses;
+    }
+
+    /**
+     * In cluster mode, renews the heartbeat of this node and, when a node has written a shard since the last merge,
+     * replaces the snapshot with the merged results of the cluster.
+     */
+    public void syncCluster() {
+        if (!scanCoordinator.isEnabled()) {
+            return;
+        }
+        scanCoordinator.heartbeat(Instant.now());
+        final Optional<Instant> lastShard = scanCoordinator.lastShardUpdate();
+        if (lastShard.isEmpty() || lastShard.get().equals(mergedShardsAt.get())) {
+            return;
+        }
+        final LinkReport report = mergeShards();
+        publish(previous -> report);
+        lastUpdateTime.set(LocalDateTime.ofInstant(lastShard.get(), ZoneId.systemDefault()));
+        log.info("Snapshot updated with the cluster's {} links in {} places", report.urlCount(),
+                report.occurrenceCount());
+    }
+
+    private LinkReport mergeShards() {
+        // noted before reading, so that a shard written meanwhile is merged at the next sync
+        scanCoordinator.lastShardUpdate().ifPresent(mergedShardsAt::set);
+        final List<LinkValidationResult> merged = scanCoordinator.mergedResults(Instant.now());
+        final UrlIndex urlIndex = new UrlIndex(urlCanonicalizer);
+        merged.forEach(urlIndex::add);
+        return urlIndex.build(merged);
+    }
+
+    private static StoredLinkResult reuse(final LinkValidationResult link, final StoredLinkResult stored) {
+        return new StoredLinkResult(UrlIndex.withOutcome(link, stored.result()), stored.checkedAt(),
+                stored.validators());
+    }
+
+    /**
+     * Stores a fresh result with the validators its response came with, for the next revalidation.
+     */
+    private StoredLinkResult checked(final LinkValidationResult result) {
+        return new StoredLinkResult(result, Instant.now(),
+                conditionalRequests.validatorsFor(result.link()).orElse(null));
+    }
+
+    private StoredLinkResult canonicalized(final StoredLinkResult stored) {
+        final LinkValidationResult result = stored.result();
+        return new StoredLinkResult(new LinkValidationResult(urlCanonicalizer.canonicalize(result.link()),
+                result.valid(), result.courseName(), result.taskName(), result.statusMessage(), result.redirects()),
+                stored.checkedAt(), stored.validators());
+    }
+
+    private void store(final List<StoredLinkResult> results, final LinkReport report) {
+        linkResultCache.replaceAll(results);
+        conditionalRequests.replaceAll(results);
+        linkResultStore.replaceAll(results);
+        linkResultStore.replaceOccurrences(report.results());
+    }
+
+    private LinkReport keepPartialResults(final List<StoredLinkResult> results, final UrlIndex urlIndex) {
+        results.forEach(linkResultCache::put);
+        linkResultStore.append(results);
+        log.info("Scan cancelled after validating {} of {} unique URLs", results.size(), urlIndex.urlCount());
+
+        // in cluster mode the snapshot holds the courses of every node, and only this node's are kept in its shard
+        final Shard previous = shard.get();
+        final LinkReport current = !scanCoordinator.isEnabled() ? cachedReport.get()
+                : previous == null ? null : previous.report();
+        if (current == null) {
+            return urlIndex.build(results.stream().map(StoredLinkResult::result).toList());
+        }
+        return current.withResults(results.stream()
+                .collect(Collectors.toMap(stored -> stored.result().link(), StoredLinkResult::result,
+                        (first, second) -> second)));
+    }
+
+    /**
+     * Merges the results of a scan stopped by its deadline into the cache and the store, rather than replacing
+     * them. The URLs it did not reach keep their last known result, or are reported as not checked.
+     */
+    private LinkReport keepTruncatedResults(final List<StoredLinkResult> results, final List<String> unchecked,
+                                            final UrlIndex urlIndex) {
+        results.forEach(linkResultCache::put);
+        linkResultStore.append(results);
+        log.warn("Scan deadline reached after validating {} of {} unique URLs", results.size(), urlIndex.urlCount());
+
+        final List<LinkValidationResult> reported = new ArrayList<>(urlIndex.urlCount());
+        results.forEach(stored -> reported.add(stored.result()));
+        unchecked.forEach(url -> reported.add(linkResultCache.get(url)
+                .map(StoredLinkResult::result)
+                .orElseGet(() -> new LinkValidationResult(url, false, "", "", NOT_CHECKED))));
+        // the crawl itself completed, so the occurrences are those of the current courses
+        final LinkReport report = urlIndex.build(reported);
+        linkResultStore.replaceOccurrences(report.results());
+        return report;
+    }
+
+    private void applyRefreshed(final List<StoredLinkResult> refreshed) {
+        refreshed.forEach(linkResultCache::put);
+        linkResultStore.append(refreshed);
+
+        final Map<String, LinkValidationResult> byUrl = refreshed.stream()
+                .collect(Collectors.toMap(stored -> urlCanonicalizer.canonicalize(stored.result().link()),
+                        StoredLinkResult::result, (first, second) -> second));
+        // in cluster mode the snapshot is the merge of the shards, so the own shard is rewritten and merged again
+        final boolean republished;
+        synchronized (shard) {
+            final Shard updated = shard.updateAndGet(previous -> previous == null ? null
+                    : new Shard(previous.report().withResults(byUrl), previous.courses()));
+            republished = scanCoordinator.isEnabled() && updated != null;
+            if (republished) {
+                scanCoordinator.republishShard(byCourse(updated.report(), updated.courses()), Instant.now());
+            }
+        }
+        if (republished) {
+            final LinkReport merged = mergeShards();
+            publish(previous -> merged);
+        } else {
+            publish(report -> report == null ? null : report.withResults(byUrl));
+        }
+        log.info("Revalidated {} expired links", refreshed.size());
+    }
+
+    /**
+     * Replaces the snapshot and rebuilds its indexes, off the request path.
+     */
+    private synchronized void publish(final UnaryOperator<LinkReport> update) {
+        final LinkReport report = cachedReport.updateAndGet(update);
+        resultIndex.set(report == null ? null : ResultIndex.of(report));
     }
 
     public LocalDateTime getLastUpdateTime() {
         return lastUpdateTime.get();
     }
-}
\ No newline at end of file
+
+    private record CacheLookup(LinkValidationResult link, Optional<StoredLinkResult> cached) {}
+
+    /**
+     * The last results this node published as its shard in cluster mode, with the names of its courses by id.
+     */
+    private record Shard(LinkReport report, Map<Integer, String> courses) {}
+}
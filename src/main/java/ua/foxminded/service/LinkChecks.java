@@ -0,0 +1,75 @@
+package ua.foxminded.service;
+
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.Redirect;
+
+import java.net.URI;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Rules shared by the link validation engines.
+ */
+final class LinkChecks {
+
+    static final Set<Integer> HEAD_UNSUPPORTED_STATUSES = Set.of(405, 501);
+    static final Set<Integer> REDIRECT_STATUSES = Set.of(301, 302, 303, 307, 308);
+    static final int MAX_REDIRECTS = 5;
+
+    private static final Pattern PORT_SUFFIX = Pattern.compile(":\\d{1,5}$");
+
+    private LinkChecks() {
+    }
+
+    /**
+     * Figma links are not checked: Figma answers automated requests with errors even for working links.
+     */
+    static boolean isSkipped(final String link) {
+        return link.contains("figma.com");
+    }
+
+    static LinkValidationResult skipped(final LinkValidationResult link) {
+        return new LinkValidationResult(link.link(), true, link.courseName(), link.taskName(),
+                "Figma link (validation skipped)");
+    }
+
+    static LinkValidationResult failed(final LinkValidationResult link, final Throwable error) {
+        final String message = error.getMessage() == null ? error.getClass().getSimpleName() : error.getMessage();
+        return new LinkValidationResult(link.link(), false, link.courseName(), link.taskName(),
+                PORT_SUFFIX.matcher(message).replaceAll(""));
+    }
+
+    /**
+     * The redirect a response stands for, its location resolved against the requested URL. A redirect status
+     * without a {@code Location} is reported as the outcome.
+     *
+     * @throws IllegalArgumentException when the location is not a valid URI
+     */
+    static Optional<Redirect> redirectOf(final String url, final int status, final Optional<String> location) {
+        if (!REDIRECT_STATUSES.contains(status) || location.isEmpty() || location.get().isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(new Redirect(status, URI.create(url.strip()).resolve(location.get().strip()).toString()));
+        } catch (final IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid redirect location: " + location.get(), e);
+        }
+    }
+
+    static LinkValidationResult result(final LinkValidationResult link, final boolean valid,
+                                       final String statusMessage, final RedirectChain chain) {
+        return new LinkValidationResult(link.link(), valid, link.courseName(), link.taskName(), statusMessage,
+                chain.redirects());
+    }
+
+    static Set<String> parseHosts(final String hosts) {
+        return Arrays.stream(hosts.split(","))
+                .map(host -> host.trim().toLowerCase(Locale.ROOT))
+                .filter(host -> !host.isEmpty())
+                .collect(Collectors.toSet());
+    }
+}
@@ -0,0 +1,114 @@
+package ua.foxminded.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.StoredLinkResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Per-link cache of validation results.
+ * <p>
+ * Every entry expires on its own: valid links are trusted the longest, links that answered with an error status
+ * are rechecked sooner, and links that failed without any HTTP status (timeouts, resets, DNS failures) are retried
+ * first. The cache is bounded; when full, the least recently used entry is evicted.
+ */
+@Component
+public class LinkResultCache {
+
+    private static final Pattern HTTP_STATUS_MESSAGE = Pattern.compile("^[1-5]\\d\\d\\b.*");
+
+    public enum Outcome { VALID, BROKEN, ERROR }
+
+    private final Duration validTtl;
+    private final Duration brokenTtl;
+    private final Duration errorTtl;
+    private final Map<String, StoredLinkResult> entries;
+
+    public LinkResultCache(
+            @Value("${link.checker.cache.valid-ttl-hours:72}") final long validTtlHours,
+            @Value("${link.checker.cache.broken-ttl-hours:12}") final long brokenTtlHours,
+            @Value("${link.checker.cache.error-ttl-hours:1}") final long errorTtlHours,
+            @Value("${link.checker.cache.max-entries:100000}") final int maxEntries
+    ) {
+        this.validTtl = Duration.ofHours(validTtlHours);
+        this.brokenTtl = Duration.ofHours(brokenTtlHours);
+        this.errorTtl = Duration.ofHours(errorTtlHours);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, StoredLinkResult> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    public static Outcome classify(final LinkValidationResult result) {
+        if (result.valid()) {
+            return Outcome.VALID;
+        }
+        final String statusMessage = result.statusMessage();
+        return statusMessage != null && HTTP_STATUS_MESSAGE.matcher(statusMessage).matches()
+                ? Outcome.BROKEN
+                : Outcome.ERROR;
+    }
+
+    public Instant expiresAt(final StoredLinkResult stored) {
+        final Duration ttl = switch (classify(stored.result())) {
+            case VALID -> validTtl;
+            case BROKEN -> brokenTtl;
+            case ERROR -> errorTtl;
+        };
+        return stored.checkedAt().plus(ttl);
+    }
+
+    public synchronized Optional<StoredLinkResult> getFresh(final String link, final Instant now) {
+        final StoredLinkResult stored = entries.get(link);
+        if (stored == null || !expiresAt(stored).isAfter(now)) {
+            return Optional.empty();
+        }
+        return Optional.of(stored);
+    }
+
+    /**
+     * The last result of a link, even when it has expired.
+     */
+    public synchronized Optional<StoredLinkResult> get(final String link) {
+        return Optional.ofNullable(entries.get(link));
+    }
+
+    public synchronized void put(final StoredLinkResult stored) {
+        entries.put(stored.result().link(), stored);
+    }
+
+    /**
+     * Replaces the whole content, dropping links that are no longer referenced.
+     */
+    public synchronized void replaceAll(final Collection<StoredLinkResult> results) {
+        entries.clear();
+        results.forEach(this::put);
+    }
+
+    /**
+     * Returns up to {@code limit} expired entries, those that expired first coming first.
+     */
+    public synchronized List<StoredLinkResult> expired(final Instant now, final int limit) {
+        return entries.values().stream()
+                .filter(stored -> !expiresAt(stored).isAfter(now))
+                .sorted(Comparator.comparing(this::expiresAt))
+                .limit(limit)
+                .toList();
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
@@ -0,0 +1,22 @@
+package ua.foxminded.service;
+
+import reactor.core.publisher.Flux;
+import ua.foxminded.model.LinkValidationResult;
+
+/**
+ * Checks whether links are reachable.
+ * <p>
+ * Two engines are available, selected with {@code link.checker.engine}: {@code reactor} ({@link LinkValidatorService},
+ * the default) runs checks on Reactor Netty, and {@code virtual-threads} ({@link VirtualThreadLinkValidator}) runs
+ * each check on its own virtual thread with the JDK HTTP client.
+ */
+public interface LinkValidator {
+
+    String ENGINE_PROPERTY = "link.checker.engine";
+
+    /**
+     * Checks each distinct link and emits its result, in completion order. Links still unchecked when the scan
+     * deadline passes are left out.
+     */
+    Flux<LinkValidationResult> validateLinks(Flux<LinkValidationResult> links);
+}
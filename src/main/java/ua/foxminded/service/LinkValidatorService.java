@@ -1,75 +1,84 @@
 package ua.foxminded.service;
 
-import io.netty.handler.ssl.SslContext;
-import io.netty.handler.ssl.SslContextBuilder;
-import io.netty.handler.ssl.util.InsecureTrustManagerFactory;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.client.reactive.ReactorClientHttpConnector;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 import reactor.netty.http.client.HttpClient;
 import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.Redirect;
 
-import javax.net.ssl.SSLException;
 import java.time.Duration;
-import java.util.regex.Pattern;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeoutException;
 
 @Slf4j
 @Service
-public class LinkValidatorService {
+@ConditionalOnProperty(name = LinkValidator.ENGINE_PROPERTY, havingValue = "reactor", matchIfMissing = true)
+public class LinkValidatorService implements LinkValidator {
 
-    private static final int MAX_REDIRECTS = 5;
-    private static final int TIMEOUT_SECONDS = 30;
-    private final int timeoutSeconds;
-    private final int parallelism;
+    private final Duration scanDeadline;
 
     private final WebClient webClient;
+    private final HostRequestScheduler hostRequestScheduler;
+    private final HostLatencyTracker hostLatencyTracker;
+    private final TransientFailureRetry transientFailureRetry;
+    private final ScanMetrics scanMetrics;
+    private final ConditionalRequests conditionalRequests;
+    private final RedirectCache redirectCache;
+    private final Set<String> headHostileHosts = ConcurrentHashMap.newKeySet();
 
     public LinkValidatorService(
             final WebClient.Builder webClientBuilder,
-            @Value("${link.checker.timeout}") final int timeoutSeconds,
-            @Value("${link.checker.parallelism}") final int parallelism
+            final HttpClient linkCheckerHttpClient,
+            final HostLatencyTracker hostLatencyTracker,
+            final TransientFailureRetry transientFailureRetry,
+            final ScanMetrics scanMetrics,
+            final ConditionalRequests conditionalRequests,
+            final RedirectCache redirectCache,
+            @Value("${link.checker.scan-deadline:PT30M}") final Duration scanDeadline,
+            @Value("${link.checker.parallelism}") final int parallelism,
+            @Value("${link.checker.per-host.max-concurrency:4}") final int maxPerHost,
+            @Value("${link.checker.per-host.requests-per-second:0}") final double perHostRequestsPerSecond,
+            @Value("${link.checker.head-hostile-hosts:}") final String headHostileHosts
     ) {
-        this.timeoutSeconds = timeoutSeconds;
-        this.parallelism = parallelism;
-
-        System.setProperty("java.net.preferIPv4Stack", "true");
-
-        final SslContext sslContext;
-        try {
-            sslContext = SslContextBuilder
-                    .forClient()
-                    .trustManager(InsecureTrustManagerFactory.INSTANCE)
-                    .build();
-        } catch (final SSLException e) {
-            log.error("Error creating SSL context: {}", e.getMessage());
-            throw new RuntimeException("Failed to create SSL context", e);
-        }
-
-        final HttpClient httpClient = HttpClient.create()
-                .responseTimeout(Duration.ofSeconds(timeoutSeconds))
-                .followRedirect(true)
-                .option(io.netty.channel.ChannelOption.CONNECT_TIMEOUT_MILLIS, timeoutSeconds * 1000)
-                .secure(sslContextSpec -> sslContextSpec.sslContext(sslContext));
+        this.hostLatencyTracker = hostLatencyTracker;
+        this.transientFailureRetry = transientFailureRetry;
+        this.scanMetrics = scanMetrics;
+        this.conditionalRequests = conditionalRequests;
+        this.redirectCache = redirectCache;
+        this.scanDeadline = scanDeadline;
+        this.hostRequestScheduler = new HostRequestScheduler(parallelism, maxPerHost, perHostRequestsPerSecond);
+        this.headHostileHosts.addAll(LinkChecks.parseHosts(headHostileHosts));
+        scanMetrics.registerQueuedRequests(hostRequestScheduler::queued);
 
         this.webClient = webClientBuilder
-                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                .clientConnector(new ReactorClientHttpConnector(linkCheckerHttpClient))
                 .build();
     }
 
+    @Override
     public Flux<LinkValidationResult> validateLinks(final Flux<LinkValidationResult> links) {
+        // Every request is handed to the host scheduler right away; it decides when each request may start,
+        // so links for one busy host do not occupy global slots that other hosts could use.
         return links
                 .distinct(LinkValidationResult::link)
-                .parallel(parallelism)
-                .runOn(Schedulers.boundedElastic())
-                .flatMap(this::checkLink)
-                .sequential()
-                .timeout(Duration.ofSeconds(timeoutSeconds))
+                .flatMap(link -> Mono.defer(() -> checkLink(link)), Integer.MAX_VALUE)
+                // Past the deadline the checks still running are cancelled and the results so far are kept
+                .takeUntilOther(Mono.delay(scanDeadline)
+                        .doOnNext(tick -> log.warn("Scan deadline of {} reached, unchecked links are skipped",
+                                scanDeadline)))
                 .onErrorResume(e -> {
                     log.error("Validation error: {}", e.getMessage());
                     return Flux.empty();
@@ -78,46 +87,163 @@ public class LinkValidatorService {
 
     private Mono<LinkValidationResult> checkLink(final LinkValidationResult linkValidationResult) {
         // Skip validation for Figma links and mark them as valid
-        if (linkValidationResult.link().contains("figma.com")) {
+        if (LinkChecks.isSkipped(linkValidationResult.link())) {
             log.info("Skipping validation for Figma link: {}", linkValidationResult.link());
-            return Mono.just(new LinkValidationResult(
-                    linkValidationResult.link(), true, linkValidationResult.courseName(),
-                    linkValidationResult.taskName(), "Figma link (validation skipped)"));
+            return Mono.just(LinkChecks.skipped(linkValidationResult));
         }
 
-        return checkLink(linkValidationResult.link(), linkValidationResult.courseName(),
-                linkValidationResult.taskName(), 0)
-                .timeout(Duration.ofSeconds(TIMEOUT_SECONDS))
-                .onErrorResume(e -> Mono.just(new LinkValidationResult(
-                        linkValidationResult.link(), false, linkValidationResult.courseName(),
-                        linkValidationResult.taskName(), cleanErrorMessage(e.getMessage()))));
+        // A link known to be valid is only asked whether it changed since
+        final HttpHeaders conditions = conditionalRequests.conditionalHeaders(linkValidationResult.link());
+        return follow(linkValidationResult, new RedirectChain(linkValidationResult.link()), conditions)
+                .onErrorResume(e -> Mono.just(LinkChecks.failed(linkValidationResult, e)));
     }
 
-    private Mono<LinkValidationResult> checkLink(final String link, final String courseName,
-                                                 final String taskName, final int redirectionDepth) {
-        if (redirectionDepth > MAX_REDIRECTS) {
-            return Mono.just(new LinkValidationResult(link, false, courseName, taskName,
-                    "Too many redirects (max " + MAX_REDIRECTS + " allowed)"));
+    /**
+     * Requests the current URL of the chain and follows its redirects one at a time. Permanent redirects seen
+     * before are followed without a request, and a redirect target checked recently is not requested again.
+     * Each request waits for a slot of its own host, so a redirect to another host counts against that host's
+     * limits rather than the linked one's.
+     */
+    private Mono<LinkValidationResult> follow(final LinkValidationResult link, final RedirectChain chain,
+                                              final HttpHeaders conditions) {
+        final String url = chain.current();
+        final Instant now = Instant.now();
+        final Optional<Redirect> knownRedirect = redirectCache.permanentRedirect(url, now);
+        if (knownRedirect.isPresent()) {
+            return next(link, chain, conditions, knownRedirect.get());
+        }
+        final Optional<RedirectCache.Target> knownTarget =
+                chain.hasRedirects() ? redirectCache.target(url, now) : Optional.empty();
+        if (knownTarget.isPresent()) {
+            return Mono.just(outcome(link, chain, conditions, knownTarget.get()));
         }
 
-        final WebClient.RequestHeadersSpec<?> requestSpec = webClient.get().uri(link);
+        return probeWithRetry(url, conditions)
+                .flatMap(response -> {
+                    final Optional<Redirect> redirect = LinkChecks.redirectOf(url, response.getStatusCode().value(),
+                            Optional.ofNullable(response.getHeaders().getFirst(HttpHeaders.LOCATION)));
+                    if (redirect.isPresent()) {
+                        redirectCache.recordRedirect(url, redirect.get(), Instant.now());
+                        return next(link, chain, conditions, redirect.get());
+                    }
+                    final RedirectCache.Target target = new RedirectCache.Target(response.getStatusCode(),
+                            response.getHeaders().getETag(), response.getHeaders().getFirst(HttpHeaders.LAST_MODIFIED));
+                    if (chain.hasRedirects()) {
+                        redirectCache.recordTarget(url, target, Instant.now());
+                    }
+                    return Mono.just(outcome(link, chain, conditions, target));
+                });
+    }
 
-        return requestSpec
-                .retrieve()
-                .toBodilessEntity()
-                .flatMap(response -> handleResponse(response, link, courseName, taskName));
+    private Mono<LinkValidationResult> next(final LinkValidationResult link, final RedirectChain chain,
+                                            final HttpHeaders conditions, final Redirect redirect) {
+        return chain.follow(redirect)
+                .map(failure -> Mono.just(LinkChecks.result(link, false, failure, chain)))
+                .orElseGet(() -> follow(link, chain, conditions));
+    }
+
+    private LinkValidationResult outcome(final LinkValidationResult link, final RedirectChain chain,
+                                         final HttpHeaders conditions, final RedirectCache.Target target) {
+        final boolean valid = ConditionalRequests.isValid(target.status(), conditions);
+        conditionalRequests.record(link.link(), target.status(), valid, target.etag(), target.lastModified());
+        return LinkChecks.result(link, valid, target.status().toString(), chain);
+    }
+
+    /**
+     * Probes a link, retrying transient failures. Each attempt waits for a slot of the host and times out after what
+     * is unusually slow for it; the slot is released between attempts, so the backoff does not hold back the other
+     * links of the host. A transient status that is still returned after the last retry is reported as the outcome.
+     */
+    private Mono<ResponseEntity<Void>> probeWithRetry(final String link, final HttpHeaders conditions) {
+        final String host = HostRequestScheduler.hostOf(link);
+        return Mono.defer(() -> probeWithTimeoutFallback(link, host, conditions))
+                .flatMap(response -> TransientFailureRetry.isTransientStatus(response.getStatusCode())
+                        ? Mono.error(new TransientFailureRetry.TransientStatusException(
+                                response.getStatusCode(), response.getHeaders()))
+                        : Mono.just(response))
+                .retryWhen(transientFailureRetry.retrySpec())
+                .onErrorResume(TransientFailureRetry.TransientStatusException.class,
+                        e -> Mono.just(ResponseEntity.status(e.status()).build()));
+    }
+
+    /**
+     * Probes a link with the timeout of its host. A host that is slower than usual is given the link timeout once
+     * more, so that a slow response is not reported as a broken link.
+     */
+    private Mono<ResponseEntity<Void>> probeWithTimeoutFallback(final String link, final String host,
+                                                                 final HttpHeaders conditions) {
+        final Duration timeout = hostLatencyTracker.timeoutFor(host);
+        final Mono<ResponseEntity<Void>> attempt = probeOnce(link, host, conditions, timeout);
+        if (timeout.compareTo(hostLatencyTracker.linkTimeout()) >= 0) {
+            return attempt;
+        }
+        return attempt.onErrorResume(TimeoutException.class, e -> {
+            log.debug("{} timed out after {}, trying again with the link timeout", link, timeout);
+            return probeOnce(link, host, conditions, hostLatencyTracker.linkTimeout());
+        });
     }
 
-    private Mono<LinkValidationResult> handleResponse(final ResponseEntity response, final String link,
-                                                      final String courseName, final String taskName) {
-        final boolean isValid = response.getStatusCode().is2xxSuccessful();
-        return Mono.just(
-                new LinkValidationResult(link, isValid, courseName, taskName, response.getStatusCode().toString()));
+    private Mono<ResponseEntity<Void>> probeOnce(final String link, final String host, final HttpHeaders conditions,
+                                                 final Duration timeout) {
+        return hostRequestScheduler.schedule(host, () -> {
+            final long start = System.nanoTime();
+            scanMetrics.requestStarted();
+            return probe(link, conditions)
+                    .timeout(timeout)
+                    .doOnNext(response -> {
+                        final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+                        hostLatencyTracker.record(host, elapsed);
+                        scanMetrics.recordResponse(host, elapsed, response.getStatusCode().value());
+                    })
+                    .doOnError(e -> scanMetrics.recordFailure(host, Duration.ofNanos(System.nanoTime() - start), e))
+                    .doFinally(signal -> scanMetrics.requestFinished());
+        });
     }
 
-    private String cleanErrorMessage(final String message) {
-        final Pattern IP_PATTERN = Pattern.compile(":\\d{1,5}$");
-        final String emptyStatusMessage = "";
-        return IP_PATTERN.matcher(message).replaceAll(emptyStatusMessage);
+    private Mono<ResponseEntity<Void>> probe(final String link, final HttpHeaders conditions) {
+        final String host = HostRequestScheduler.hostOf(link);
+        if (headHostileHosts.contains(host)) {
+            return probeWithGet(link, conditions);
+        }
+
+        return probeWithHead(link, conditions)
+                .flatMap(response -> {
+                    if (!LinkChecks.HEAD_UNSUPPORTED_STATUSES.contains(response.getStatusCode().value())) {
+                        return Mono.just(response);
+                    }
+                    // Remember the host so the rest of its links skip the HEAD round trip
+                    if (headHostileHosts.add(host)) {
+                        log.info("HEAD not supported by {} ({}), falling back to GET", host,
+                                response.getStatusCode());
+                    }
+                    return probeWithGet(link, conditions);
+                });
+    }
+
+    private Mono<ResponseEntity<Void>> probeWithHead(final String link, final HttpHeaders conditions) {
+        return webClient.head()
+                .uri(link)
+                .headers(headers -> headers.addAll(conditions))
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toBodilessEntity();
+    }
+
+    private Mono<ResponseEntity<Void>> probeWithGet(final String link, final HttpHeaders conditions) {
+        // Only the status line and headers are needed: the first chunk of the body is read and released, then
+        // the body is cancelled, so Reactor Netty closes the connection instead of draining a large page, PDF
+        // or video.
+        return webClient.get()
+                .uri(link)
+                .headers(headers -> headers.addAll(conditions))
+                .retrieve()
+                .onStatus(status -> true, response -> Mono.empty())
+                .toEntityFlux(DataBuffer.class)
+                .flatMap(response -> response.getBody()
+                        .take(1)
+                        .doOnNext(DataBufferUtils::release)
+                        .then(Mono.just(ResponseEntity.status(response.getStatusCode())
+                                .headers(response.getHeaders())
+                                .<Void>build())));
     }
 }
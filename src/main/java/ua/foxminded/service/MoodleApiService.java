@@ -4,23 +4,17 @@ import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.io.buffer.DataBuffer;
-import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.MoodleAssignment;
 
-import java.nio.charset.StandardCharsets;
-import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
-
-import org.jsoup.Jsoup;
-import org.jsoup.nodes.Document;
-import org.jsoup.nodes.Element;
-import org.jsoup.select.Elements;
+import java.util.function.BiConsumer;
+import java.util.function.IntConsumer;
 
 @Slf4j
 @Service
@@ -29,6 +23,12 @@ public class MoodleApiService {
     private final String moodleToken;
     private final String baseUrl;
     private final WebClient webClient;
+    private final MoodleAssignmentParser assignmentParser;
+    private final AssignmentLinkIndex assignmentLinkIndex;
+    private final ScanMetrics scanMetrics;
+    private final HtmlLinkExtractor linkExtractor = new HtmlLinkExtractor();
+    private final int courseBatchSize;
+    private final int maxConcurrentRequests;
 
     private static final String FORMAT = "json";
     private static final String WSTOKEN = "wstoken";
@@ -37,109 +37,133 @@ public class MoodleApiService {
 
     public MoodleApiService(final WebClient.Builder webClientBuilder,
                             @Value("${moodle.base-url}") final String baseUrl,
-                            @Value("${moodle.token}") final String moodleToken) {
+                            @Value("${moodle.token}") final String moodleToken,
+                            final ObjectMapper objectMapper,
+                            final AssignmentLinkIndex assignmentLinkIndex,
+                            final ScanMetrics scanMetrics,
+                            @Value("${moodle.assignments.batch-size:50}") final int courseBatchSize,
+                            @Value("${moodle.assignments.max-concurrent-requests:4}") final int maxConcurrentRequests) {
         this.baseUrl = baseUrl;
         this.moodleToken = moodleToken;
         this.webClient = webClientBuilder.baseUrl(baseUrl).build();
+        this.assignmentParser = new MoodleAssignmentParser(objectMapper);
+        this.assignmentLinkIndex = assignmentLinkIndex;
+        this.scanMetrics = scanMetrics;
+        this.courseBatchSize = courseBatchSize;
+        this.maxConcurrentRequests = maxConcurrentRequests;
     }
 
     public Flux<Integer> getCourseIds() {
         final String function = "core_course_get_courses";
         final String ID = "id";
 
-        return webClient.post()
-                .uri(uriBuilder -> uriBuilder
-                        .queryParam(WSTOKEN, moodleToken)
-                        .queryParam(WSFUNCTION, function)
-                        .queryParam(MOODLE_WS_REST_FORMAT, FORMAT)
-                        .build())
-                .header("Accept", "application/json")
-                .retrieve()
-                .bodyToFlux(Map.class)
+        return scanMetrics.timeMoodleCall(function, webClient.post()
+                        .uri(uriBuilder -> uriBuilder
+                                .queryParam(WSTOKEN, moodleToken)
+                                .queryParam(WSFUNCTION, function)
+                                .queryParam(MOODLE_WS_REST_FORMAT, FORMAT)
+                                .build())
+                        .header("Accept", "application/json")
+                        .retrieve()
+                        .bodyToFlux(Map.class))
                 .map(map -> (Integer) map.get(ID));
     }
 
     public Flux<LinkValidationResult> extractAssignmentLinks(final Flux<Integer> courseIds) {
-        return courseIds
-                .flatMap(this::fetchAssignmentsForCourse);
+        return extractAssignmentLinks(courseIds, count -> { }, (courseId, courseName) -> { });
+    }
+
+    /**
+     * Extracts the links of the assignments of {@code courseIds}, reporting to {@code coursesFetched} the number of
+     * courses of each batch whose assignments have all been read, and to {@code courseFound} the id and name of each
+     * course with assignments.
+     */
+    public Flux<LinkValidationResult> extractAssignmentLinks(final Flux<Integer> courseIds,
+                                                             final IntConsumer coursesFetched,
+                                                             final BiConsumer<Integer, String> courseFound) {
+        return Flux.defer(() -> {
+            final long reusedBefore = assignmentLinkIndex.reusedCount();
+            final long extractedBefore = assignmentLinkIndex.extractedCount();
+            final long crawl = assignmentLinkIndex.startCrawl();
+            return courseIds
+                    .buffer(courseBatchSize)
+                    .flatMap(batch -> fetchAssignmentsForCourses(batch, courseFound)
+                            .doOnComplete(() -> coursesFetched.accept(batch.size())), maxConcurrentRequests)
+                    .doOnComplete(() -> log.info(
+                            "Extracted links from {} changed assignments, reused {} unchanged, forgot {} removed",
+                            assignmentLinkIndex.extractedCount() - extractedBefore,
+                            assignmentLinkIndex.reusedCount() - reusedBefore,
+                            assignmentLinkIndex.evictUnseen(crawl)));
+        });
     }
 
     public Flux<LinkValidationResult> fetchAssignmentsForCourse(final Integer courseId) {
+        return fetchAssignmentsForCourses(List.of(courseId));
+    }
+
+    public Flux<LinkValidationResult> fetchAssignmentsForCourses(final List<Integer> courseIds) {
+        return fetchAssignmentsForCourses(courseIds, (courseId, courseName) -> { });
+    }
+
+    private Flux<LinkValidationResult> fetchAssignmentsForCourses(final List<Integer> courseIds,
+                                                                  final BiConsumer<Integer, String> courseFound) {
         final String functionAssignments = "mod_assign_get_assignments";
-        final String courseIdKey = "courseids[0]";
-
-        return webClient.post()
-                .uri(uriBuilder -> uriBuilder
-                        .queryParam(WSTOKEN, moodleToken)
-                        .queryParam(WSFUNCTION, functionAssignments)
-                        .queryParam(MOODLE_WS_REST_FORMAT, FORMAT)
-                        .queryParam(courseIdKey, courseId)
-                        .build())
+        final String courseIdKey = "courseids[%d]";
+
+        return scanMetrics.timeMoodleCall(functionAssignments, webClient.post()
+                .uri(uriBuilder -> {
+                    uriBuilder
+                            .queryParam(WSTOKEN, moodleToken)
+                            .queryParam(WSFUNCTION, functionAssignments)
+                            .queryParam(MOODLE_WS_REST_FORMAT, FORMAT);
+                    for (int i = 0; i < courseIds.size(); i++) {
+                        uriBuilder.queryParam(courseIdKey.formatted(i), courseIds.get(i));
+                    }
+                    return uriBuilder.build();
+                })
                 .header("Accept", "application/json")
                 .retrieve()
                 .bodyToFlux(DataBuffer.class)
-                .map(dataBuffer -> {
-                    final byte[] bytes = new byte[dataBuffer.readableByteCount()];
-                    dataBuffer.read(bytes);
-                    DataBufferUtils.release(dataBuffer);
-                    return new String(bytes, StandardCharsets.UTF_8);
-                })
-                .collectList()
-                .map(chunks -> String.join("", chunks))
-                .flatMapMany(this::processResponse);
+                .transform(response -> processResponse(response, courseFound)));
     }
 
-    private Flux<LinkValidationResult> processResponse(final String response) {
-        final Set<String> processedLinks = ConcurrentHashMap.newKeySet();
-
-        final String introBlock = "intro";
-        final String coursesBlock = "courses";
-        final String assignmentsBlock = "assignments";
-        try {
-            final ObjectMapper objectMapper = new ObjectMapper();
-            final Map<String, Object> responseMap = objectMapper.readValue(response, Map.class);
-            final List<Map<String, Object>> courses = (List<Map<String, Object>>) responseMap.get(coursesBlock);
-
-            return Flux.fromIterable(courses)
-                    .flatMap(course -> {
-                        final String courseName = (String) course.get("shortname");
-                        final List<Map<String, Object>> assignments = (List<Map<String, Object>>) course.get(
-                                assignmentsBlock);
-
-                        return Flux.fromIterable(assignments)
-                                .flatMap(assignment -> {
-                                    final String name = "name";
-                                    final String taskName = (String) assignment.get(name);
-                                    final String intro = (String) assignment.get(introBlock);
-                                    final List<String> links = extractLinks(intro);
-                                    final String emptyStatusMessage = "";
-                                    return Flux.fromIterable(links)
-                                            .filter(processedLinks::add)
-                                            .map(link -> new LinkValidationResult(link, false, courseName, taskName, emptyStatusMessage));
-                                });
-                    });
-
-        } catch (final Exception e) {
+    private Flux<LinkValidationResult> processResponse(final Flux<DataBuffer> response,
+                                                       final BiConsumer<Integer, String> courseFound) {
+        // Every assignment a link occurs in is reported; links repeated across assignments are
+        // deduplicated by canonical URL before validation
+        final String emptyStatusMessage = "";
+
+        return Flux.defer(() -> {
+            // assignments and links of each course in the response, as {assignments, links}
+            final Map<String, int[]> courseCounts = new HashMap<>();
+            return assignmentParser.parse(response)
+                    .concatMapIterable(courseAssignment -> {
+                        final MoodleAssignment assignment = courseAssignment.assignment();
+                        final List<LinkValidationResult> links =
+                                assignmentLinkIndex.linksFor(assignment, this::extractLinks).stream()
+                                        .distinct()
+                                        .map(link -> new LinkValidationResult(link, false,
+                                                courseAssignment.courseName(), assignment.name(), emptyStatusMessage))
+                                        .toList();
+                        int[] counts = courseCounts.get(courseAssignment.courseName());
+                        if (counts == null) {
+                            counts = new int[2];
+                            courseCounts.put(courseAssignment.courseName(), counts);
+                            courseFound.accept(courseAssignment.courseId(), courseAssignment.courseName());
+                        }
+                        counts[0]++;
+                        counts[1] += links.size();
+                        return links;
+                    })
+                    .doOnComplete(() -> courseCounts.values()
+                            .forEach(counts -> scanMetrics.recordCourse(counts[0], counts[1])));
+        }).onErrorMap(e -> {
             log.error("Error processing Moodle response: {}", e.getMessage());
-            return Flux.error(new RuntimeException("Failed to process Moodle API response"));
-        }
+            return new RuntimeException("Failed to process Moodle API response", e);
+        });
     }
 
     private List<String> extractLinks(final String intro) {
-        final List<String> links = new ArrayList<>();
-        final Document doc = Jsoup.parse(intro);
-        final Elements anchors = doc.select("a[href]");
-        final String http = "http://";
-        final String https = "https://";
-        final String href = "href";
-
-        for (final Element anchor : anchors) {
-            final String link = anchor.attr(href);
-
-            if (link.startsWith(http) || link.startsWith(https)) {
-                links.add(link);
-            }
-        }
-        return links;
+        return linkExtractor.extract(intro);
     }
-}
\ No newline at end of file
+}
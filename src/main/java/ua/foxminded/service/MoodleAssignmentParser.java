@@ -0,0 +1,222 @@
+package ua.foxminded.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import reactor.core.publisher.Flux;
+import ua.foxminded.model.MoodleAssignment;
+import ua.foxminded.model.MoodleCourseAssignment;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming parser for {@code mod_assign_get_assignments} responses.
+ * <p>
+ * The response buffers are fed into a non-blocking Jackson parser as they arrive. Only one assignment object at a
+ * time is buffered as tokens and bound to {@link MoodleAssignment}; everything else is skipped, so the full response
+ * never has to be held in memory as a string or as a map tree.
+ */
+public class MoodleAssignmentParser {
+
+    private static final String COURSES = "courses";
+    private static final String ASSIGNMENTS = "assignments";
+    private static final String ID = "id";
+    private static final String SHORTNAME = "shortname";
+    private static final String EXCEPTION = "exception";
+    private static final String MESSAGE = "message";
+
+    private final ObjectMapper objectMapper;
+
+    public MoodleAssignmentParser(final ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    public Flux<MoodleCourseAssignment> parse(final Flux<DataBuffer> body) {
+        return Flux.defer(() -> {
+            final Tokenizer tokenizer = new Tokenizer();
+            return body
+                    .concatMapIterable(tokenizer::feed)
+                    .concatWith(Flux.defer(() -> Flux.fromIterable(tokenizer.finish())))
+                    .doFinally(signal -> tokenizer.close());
+        }).doOnDiscard(DataBuffer.class, DataBufferUtils::release);
+    }
+
+    private final class Tokenizer {
+
+        private static final int ROOT_DEPTH = 1;
+        private static final int COURSES_DEPTH = 2;
+        private static final int COURSE_DEPTH = 3;
+        private static final int ASSIGNMENTS_DEPTH = 4;
+
+        private final JsonParser parser;
+        private final ByteBufferFeeder feeder;
+
+        private int depth;
+        private String fieldName;
+        private boolean inCourses;
+        private boolean inAssignments;
+
+        private Integer courseId;
+        private String courseName;
+        private final List<MoodleAssignment> assignmentsBeforeCourse = new ArrayList<>();
+
+        private TokenBuffer assignmentTokens;
+        private int assignmentDepth;
+
+        private String exception;
+        private String message;
+
+        private Tokenizer() {
+            try {
+                this.parser = objectMapper.getFactory().createNonBlockingByteBufferParser();
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            this.feeder = (ByteBufferFeeder) parser.getNonBlockingInputFeeder();
+        }
+
+        private List<MoodleCourseAssignment> feed(final DataBuffer dataBuffer) {
+            final List<MoodleCourseAssignment> parsed = new ArrayList<>();
+            try (DataBuffer.ByteBufferIterator buffers = dataBuffer.readableByteBuffers()) {
+                while (buffers.hasNext()) {
+                    final ByteBuffer buffer = buffers.next();
+                    feeder.feedInput(buffer);
+                    // The parser reads straight from the buffer, so it has to be drained before the next one
+                    readAvailableTokens(parsed);
+                }
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                DataBufferUtils.release(dataBuffer);
+            }
+            return parsed;
+        }
+
+        private List<MoodleCourseAssignment> finish() {
+            final List<MoodleCourseAssignment> parsed = new ArrayList<>();
+            try {
+                feeder.endOfInput();
+                readAvailableTokens(parsed);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            if (exception != null) {
+                throw new IllegalStateException("Moodle API error " + exception + ": " + message);
+            }
+            return parsed;
+        }
+
+        private void close() {
+            try {
+                parser.close();
+            } catch (final IOException e) {
+                // nothing left to release
+            }
+        }
+
+        private void readAvailableTokens(final List<MoodleCourseAssignment> parsed) throws IOException {
+            JsonToken token;
+            while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+                if (assignmentTokens != null) {
+                    bufferAssignmentToken(token, parsed);
+                } else {
+                    handleToken(token, parsed);
+                }
+            }
+        }
+
+        private void handleToken(final JsonToken token, final List<MoodleCourseAssignment> parsed) throws IOException {
+            switch (token) {
+                case FIELD_NAME -> fieldName = parser.currentName();
+                case START_OBJECT -> {
+                    depth++;
+                    if (inAssignments && depth == ASSIGNMENTS_DEPTH + 1) {
+                        assignmentTokens = new TokenBuffer(parser);
+                        assignmentTokens.copyCurrentEvent(parser);
+                        assignmentDepth = 1;
+                    } else if (inCourses && depth == COURSE_DEPTH) {
+                        courseId = null;
+                        courseName = null;
+                        assignmentsBeforeCourse.clear();
+                    }
+                }
+                case START_ARRAY -> {
+                    depth++;
+                    if (depth == COURSES_DEPTH && COURSES.equals(fieldName)) {
+                        inCourses = true;
+                    } else if (inCourses && depth == ASSIGNMENTS_DEPTH && ASSIGNMENTS.equals(fieldName)) {
+                        inAssignments = true;
+                    }
+                }
+                case END_OBJECT -> {
+                    if (inCourses && depth == COURSE_DEPTH) {
+                        final int id = courseId == null ? 0 : courseId;
+                        assignmentsBeforeCourse.forEach(assignment ->
+                                parsed.add(new MoodleCourseAssignment(id, courseName, assignment)));
+                        assignmentsBeforeCourse.clear();
+                    }
+                    depth--;
+                }
+                case END_ARRAY -> {
+                    if (depth == ASSIGNMENTS_DEPTH) {
+                        inAssignments = false;
+                    } else if (depth == COURSES_DEPTH) {
+                        inCourses = false;
+                    }
+                    depth--;
+                }
+                case VALUE_STRING -> {
+                    if (inCourses && depth == COURSE_DEPTH && SHORTNAME.equals(fieldName)) {
+                        courseName = parser.getText();
+                    } else if (depth == ROOT_DEPTH && EXCEPTION.equals(fieldName)) {
+                        exception = parser.getText();
+                    } else if (depth == ROOT_DEPTH && MESSAGE.equals(fieldName)) {
+                        message = parser.getText();
+                    }
+                }
+                case VALUE_NUMBER_INT -> {
+                    if (inCourses && depth == COURSE_DEPTH && ID.equals(fieldName)) {
+                        courseId = parser.getIntValue();
+                    }
+                }
+                default -> {
+                    // scalar values outside of assignments are not needed
+                }
+            }
+        }
+
+        private void bufferAssignmentToken(final JsonToken token, final List<MoodleCourseAssignment> parsed)
+                throws IOException {
+            assignmentTokens.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                assignmentDepth++;
+            } else if (token.isStructEnd()) {
+                assignmentDepth--;
+            }
+            if (assignmentDepth > 0) {
+                return;
+            }
+
+            final MoodleAssignment assignment;
+            try (JsonParser assignmentParser = assignmentTokens.asParser(objectMapper)) {
+                assignment = objectMapper.readValue(assignmentParser, MoodleAssignment.class);
+            }
+            assignmentTokens = null;
+            depth--;
+
+            if (courseId != null && courseName != null) {
+                parsed.add(new MoodleCourseAssignment(courseId, courseName, assignment));
+            } else {
+                assignmentsBeforeCourse.add(assignment);
+            }
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package ua.foxminded.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import ua.foxminded.model.Redirect;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Redirects met while checking links, shared by the link validation engines.
+ * <p>
+ * Permanent redirects are remembered for {@code permanent-ttl}, so that later checks of a moved link go straight to
+ * its new location instead of repeating the hop. The final response of a redirect target is kept for
+ * {@code target-ttl}, so that links moved to the same resource share one request to it. Both caches are bounded;
+ * when full, the least recently used entry is evicted.
+ */
+@Component
+public class RedirectCache {
+
+    /**
+     * The final response of a redirect target, with the validators it answered with.
+     */
+    public record Target(HttpStatusCode status, String etag, String lastModified) {}
+
+    private final Duration permanentTtl;
+    private final Duration targetTtl;
+    private final Map<String, Expiring<Redirect>> redirects;
+    private final Map<String, Expiring<Target>> targets;
+
+    public RedirectCache(
+            @Value("${link.checker.redirects.permanent-ttl:P7D}") final Duration permanentTtl,
+            @Value("${link.checker.redirects.target-ttl:PT1H}") final Duration targetTtl,
+            @Value("${link.checker.redirects.max-entries:10000}") final int maxEntries
+    ) {
+        this.permanentTtl = permanentTtl;
+        this.targetTtl = targetTtl;
+        this.redirects = boundedMap(maxEntries);
+        this.targets = boundedMap(maxEntries);
+    }
+
+    public synchronized Optional<Redirect> permanentRedirect(final String url, final Instant now) {
+        return fresh(redirects, url, now);
+    }
+
+    /**
+     * Remembers a redirect when it is permanent; other redirects may change and are followed every time.
+     */
+    public synchronized void recordRedirect(final String url, final Redirect redirect, final Instant now) {
+        if (redirect.permanent()) {
+            redirects.put(url, new Expiring<>(redirect, now.plus(permanentTtl)));
+        }
+    }
+
+    public synchronized Optional<Target> target(final String url, final Instant now) {
+        return fresh(targets, url, now);
+    }
+
+    /**
+     * Remembers the final response of a redirect target. A {@code 304} only answers the validators of the link
+     * that was checked, and a transient status may be gone on the next request, so neither is shared.
+     */
+    public synchronized void recordTarget(final String url, final Target target, final Instant now) {
+        if (target.status().isSameCodeAs(HttpStatus.NOT_MODIFIED)
+                || TransientFailureRetry.isTransientStatus(target.status())) {
+            targets.remove(url);
+            return;
+        }
+        targets.put(url, new Expiring<>(target, now.plus(targetTtl)));
+    }
+
+    private static <T> Optional<T> fresh(final Map<String, Expiring<T>> entries, final String url,
+                                         final Instant now) {
+        final Expiring<T> entry = entries.get(url);
+        if (entry == null) {
+            return Optional.empty();
+        }
+        if (!entry.expiresAt().isAfter(now)) {
+            entries.remove(url);
+            return Optional.empty();
+        }
+        return Optional.of(entry.value());
+    }
+
+    private static <T> Map<String, Expiring<T>> boundedMap(final int maxEntries) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, Expiring<T>> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    private record Expiring<T>(T value, Instant expiresAt) {}
+}
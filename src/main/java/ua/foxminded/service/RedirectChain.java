@@ -0,0 +1,58 @@
+package ua.foxminded.service;
+
+import ua.foxminded.model.Redirect;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The redirects followed while checking one link. Every URL of the chain is remembered, so a loop is reported as
+ * soon as a redirect points back to one of them rather than after {@value LinkChecks#MAX_REDIRECTS} hops.
+ * Not thread-safe.
+ */
+final class RedirectChain {
+
+    private final List<Redirect> redirects = new ArrayList<>();
+    private final Set<String> visited = new HashSet<>();
+    private String current;
+
+    RedirectChain(final String link) {
+        this.current = link;
+        visited.add(link);
+    }
+
+    /**
+     * The URL to request next: the link, or the location of the last redirect.
+     */
+    String current() {
+        return current;
+    }
+
+    boolean hasRedirects() {
+        return !redirects.isEmpty();
+    }
+
+    List<Redirect> redirects() {
+        return redirects;
+    }
+
+    /**
+     * Adds a redirect to the chain.
+     *
+     * @return why the chain cannot be followed further, or empty when its location is the next URL to request
+     */
+    Optional<String> follow(final Redirect redirect) {
+        redirects.add(redirect);
+        if (!visited.add(redirect.location())) {
+            return Optional.of("Redirect loop back to " + redirect.location());
+        }
+        if (redirects.size() > LinkChecks.MAX_REDIRECTS) {
+            return Optional.of("Too many redirects (max " + LinkChecks.MAX_REDIRECTS + " allowed)");
+        }
+        current = redirect.location();
+        return Optional.empty();
+    }
+}
@@ -0,0 +1,280 @@
+package ua.foxminded.service;
+
+import ua.foxminded.model.LinkReport;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.ResultPage;
+import ua.foxminded.model.ResultQuery;
+import ua.foxminded.model.ResultSort;
+
+import java.util.AbstractList;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Filter and sort indexes over the occurrences of a {@link LinkReport}, so that a page of results costs the same
+ * whatever the size of the report.
+ * <p>
+ * Each column maps every occurrence to the position of its value among the sorted distinct values of the column,
+ * which is its sort rank. Sortable columns keep the occurrences in sorted order, and filterable columns keep the
+ * occurrences of each value. A query starts from the shortest matching list, keeps the occurrences matching the
+ * other filters and sorts them by rank; the matches of the last {@value #MAX_CACHED_QUERIES} queries are kept, so
+ * paging through them only slices an array.
+ * <p>
+ * Instances are immutable and built once per snapshot.
+ */
+public final class ResultIndex {
+
+    static final int MAX_CACHED_QUERIES = 32;
+    private static final Comparator<String> VALUE_ORDER =
+            Comparator.comparing((String value) -> value.toLowerCase(Locale.ROOT)).thenComparing(Comparator.naturalOrder());
+
+    private final List<LinkValidationResult> results;
+    private final boolean[] valid;
+    private final int brokenCount;
+    private final int[] validOccurrences;
+    private final int[] brokenOccurrences;
+    private final Column course;
+    private final Column host;
+    private final Column status;
+    private final Map<ResultSort, Column> sortColumns = new EnumMap<>(ResultSort.class);
+    private final Map<Matching, int[]> matches = new ConcurrentHashMap<>();
+
+    private ResultIndex(final List<LinkValidationResult> results) {
+        this.results = results;
+        // the report creates each occurrence on access, so they are only materialized while the index is built
+        final List<LinkValidationResult> occurrences = new ArrayList<>(results);
+        final int size = occurrences.size();
+        valid = new boolean[size];
+        int broken = 0;
+        for (int i = 0; i < size; i++) {
+            valid[i] = occurrences.get(i).valid();
+            broken += valid[i] ? 0 : 1;
+        }
+        brokenCount = broken;
+        validOccurrences = new int[size - broken];
+        brokenOccurrences = new int[broken];
+        int nextValid = 0;
+        int nextBroken = 0;
+        for (int i = 0; i < size; i++) {
+            if (valid[i]) {
+                validOccurrences[nextValid++] = i;
+            } else {
+                brokenOccurrences[nextBroken++] = i;
+            }
+        }
+
+        course = new Column(occurrences, LinkValidationResult::courseName, true, true);
+        host = new Column(occurrences, result -> HostRequestScheduler.hostOf(result.link()), true, false);
+        status = new Column(occurrences, result -> statusCode(result.statusMessage()), true, true);
+        sortColumns.put(ResultSort.COURSE, course);
+        sortColumns.put(ResultSort.TASK, new Column(occurrences, LinkValidationResult::taskName, false, true));
+        sortColumns.put(ResultSort.LINK, new Column(occurrences, LinkValidationResult::link, false, true));
+        sortColumns.put(ResultSort.STATUS, status);
+    }
+
+    public static ResultIndex of(final LinkReport report) {
+        return new ResultIndex(report.results());
+    }
+
+    /**
+     * The HTTP status code a status message starts with, or {@link ResultQuery#NO_STATUS} when the check got no
+     * response.
+     */
+    static String statusCode(final String statusMessage) {
+        if (statusMessage != null && statusMessage.length() >= 3
+                && (statusMessage.length() == 3 || statusMessage.charAt(3) == ' ')
+                && statusMessage.chars().limit(3).allMatch(Character::isDigit)) {
+            return statusMessage.substring(0, 3);
+        }
+        return ResultQuery.NO_STATUS;
+    }
+
+    public ResultPage find(final ResultQuery query) {
+        final int[] matched = matchesOf(matchingOf(query));
+
+        final int pageCount = Math.max(1, (matched.length + query.size() - 1) / query.size());
+        final int page = Math.min(query.page(), pageCount);
+        final int from = (page - 1) * query.size();
+        final int to = Math.min(from + query.size(), matched.length);
+        final List<LinkValidationResult> pageResults = new ArrayList<>(Math.max(0, to - from));
+        for (int position = from; position < to; position++) {
+            final int occurrence = query.descending() ? matched[matched.length - 1 - position] : matched[position];
+            pageResults.add(results.get(occurrence));
+        }
+
+        return new ResultPage(pageResults, page, query.size(), matched.length, results.size(), brokenCount,
+                course.values, status.values);
+    }
+
+    /**
+     * Every result matching the filters and sort of {@code query}, whatever its page. The list is a read-only view
+     * that creates each result on access.
+     */
+    public List<LinkValidationResult> matching(final ResultQuery query) {
+        final int[] matched = matchesOf(matchingOf(query));
+        return new AbstractList<>() {
+            @Override
+            public LinkValidationResult get(final int index) {
+                return results.get(query.descending() ? matched[matched.length - 1 - index] : matched[index]);
+            }
+
+            @Override
+            public int size() {
+                return matched.length;
+            }
+        };
+    }
+
+    private static Matching matchingOf(final ResultQuery query) {
+        return new Matching(query.course(), query.host() == null ? null : query.host().toLowerCase(Locale.ROOT),
+                query.status(), query.valid(), query.sort());
+    }
+
+    private int[] matchesOf(final Matching matching) {
+        final int[] cached = matches.get(matching);
+        if (cached != null) {
+            return cached;
+        }
+        final int[] matched = match(matching);
+        if (matches.size() >= MAX_CACHED_QUERIES) {
+            matches.clear();
+        }
+        matches.put(matching, matched);
+        return matched;
+    }
+
+    private int[] match(final Matching matching) {
+        final Column sortColumn = sortColumns.get(matching.sort());
+        final int courseId = course.idOf(matching.course());
+        final int hostId = host.idOf(matching.host());
+        final int statusId = status.idOf(matching.status());
+        if (courseId == Column.UNKNOWN || hostId == Column.UNKNOWN || statusId == Column.UNKNOWN) {
+            return new int[0];
+        }
+
+        int[] candidates = null;
+        if (matching.valid() != null) {
+            candidates = matching.valid() ? validOccurrences : brokenOccurrences;
+        }
+        candidates = shorter(candidates, course.occurrencesOf(courseId));
+        candidates = shorter(candidates, host.occurrencesOf(hostId));
+        candidates = shorter(candidates, status.occurrencesOf(statusId));
+        if (candidates == null) {
+            return sortColumn.order;
+        }
+
+        // rank in the high bits and occurrence in the low bits, so that equal values keep the report order
+        final long[] keys = new long[candidates.length];
+        int count = 0;
+        for (final int occurrence : candidates) {
+            if ((matching.valid() == null || valid[occurrence] == matching.valid())
+                    && course.matches(occurrence, courseId)
+                    && host.matches(occurrence, hostId)
+                    && status.matches(occurrence, statusId)) {
+                keys[count++] = (long) sortColumn.ids[occurrence] << 32 | occurrence;
+            }
+        }
+        Arrays.sort(keys, 0, count);
+        final int[] matched = new int[count];
+        for (int i = 0; i < count; i++) {
+            matched[i] = (int) keys[i];
+        }
+        return matched;
+    }
+
+    private static int[] shorter(final int[] current, final int[] other) {
+        if (other == null) {
+            return current;
+        }
+        return current == null || other.length < current.length ? other : current;
+    }
+
+    private record Matching(String course, String host, String status, Boolean valid, ResultSort sort) {}
+
+    /**
+     * The values of one field of every occurrence.
+     */
+    private static final class Column {
+
+        static final int ANY = -1;
+        static final int UNKNOWN = -2;
+
+        final List<String> values;
+        final Map<String, Integer> valueIds;
+        final int[] ids;
+        final int[] order;
+        final int[][] occurrences;
+
+        Column(final List<LinkValidationResult> results, final Function<LinkValidationResult, String> field,
+               final boolean filterable, final boolean sortable) {
+            final int size = results.size();
+            final String[] fieldValues = new String[size];
+            final Map<String, Integer> distinct = new HashMap<>();
+            for (int i = 0; i < size; i++) {
+                final String value = field.apply(results.get(i));
+                fieldValues[i] = value == null ? "" : value;
+                distinct.putIfAbsent(fieldValues[i], distinct.size());
+            }
+
+            values = distinct.keySet().stream().sorted(VALUE_ORDER).toList();
+            valueIds = new HashMap<>(values.size() * 4 / 3 + 1);
+            for (int id = 0; id < values.size(); id++) {
+                valueIds.put(values.get(id), id);
+            }
+            ids = new int[size];
+            final int[] counts = new int[values.size()];
+            for (int i = 0; i < size; i++) {
+                ids[i] = valueIds.get(fieldValues[i]);
+                counts[ids[i]]++;
+            }
+
+            occurrences = filterable ? new int[values.size()][] : null;
+            order = sortable ? new int[size] : null;
+            final int[] starts = new int[values.size()];
+            for (int id = 1; id < values.size(); id++) {
+                starts[id] = starts[id - 1] + counts[id - 1];
+            }
+            if (filterable) {
+                for (int id = 0; id < values.size(); id++) {
+                    occurrences[id] = new int[counts[id]];
+                }
+            }
+            // counting sort: occurrences of a value stay in report order
+            final int[] filled = new int[values.size()];
+            for (int i = 0; i < size; i++) {
+                final int id = ids[i];
+                if (sortable) {
+                    order[starts[id] + filled[id]] = i;
+                }
+                if (filterable) {
+                    occurrences[id][filled[id]] = i;
+                }
+                filled[id]++;
+            }
+        }
+
+        int idOf(final String value) {
+            if (value == null) {
+                return ANY;
+            }
+            final Integer id = valueIds.get(value);
+            return id == null ? UNKNOWN : id;
+        }
+
+        int[] occurrencesOf(final int id) {
+            return id == ANY ? null : occurrences[id];
+        }
+
+        boolean matches(final int occurrence, final int id) {
+            return id == ANY || ids[occurrence] == id;
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package ua.foxminded.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ua.foxminded.model.ClusterShard;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.repository.ClusterStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.IntPredicate;
+import java.util.stream.Collectors;
+
+/**
+ * Splits scans between the nodes of a cluster, so that Moodle and the checked hosts see each course crawled once
+ * rather than once per node.
+ * <p>
+ * Nodes announce themselves with heartbeats in the {@link ClusterStore}. At the start of a scan a node hashes the
+ * course ids onto the ring of nodes whose heartbeat is younger than {@code node-timeout} and only scans its own
+ * courses. It then writes its results as a shard that lists the course ids it owned, and every node serves the merge
+ * of all shards: for each course id, the occurrences of the newest shard that owns it, even when that shard found no
+ * links in it. When nodes join or leave, courses move to other nodes at their next scan, and until then they keep
+ * the results of their previous owner. The shard of a node without a heartbeat is removed once all of its courses
+ * have been scanned again by other nodes.
+ * <p>
+ * Disabled, every node scans every course on its own.
+ */
+@Slf4j
+@Component
+public class ScanCoordinator {
+
+    private final ClusterStore clusterStore;
+    private final boolean enabled;
+    private final String nodeId;
+    private final int virtualNodes;
+    private final Duration nodeTimeout;
+    private final AtomicReference<ClusterShard> publishedShard = new AtomicReference<>();
+
+    public ScanCoordinator(
+            final ClusterStore clusterStore,
+            @Value("${link.checker.cluster.enabled:false}") final boolean enabled,
+            @Value("${link.checker.cluster.node-id:${HOSTNAME:}}") final String nodeId,
+            @Value("${link.checker.cluster.virtual-nodes:128}") final int virtualNodes,
+            @Value("${link.checker.cluster.node-timeout:PT1M}") final Duration nodeTimeout
+    ) {
+        this.clusterStore = clusterStore;
+        this.enabled = enabled;
+        this.nodeId = nodeId.isBlank() ? UUID.randomUUID().toString() : nodeId;
+        this.virtualNodes = virtualNodes;
+        this.nodeTimeout = nodeTimeout;
+        if (enabled) {
+            log.info("Cluster scanning enabled for node {}", this.nodeId);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public String nodeId() {
+        return nodeId;
+    }
+
+    public void heartbeat(final Instant now) {
+        if (enabled) {
+            clusterStore.heartbeat(nodeId, now);
+        }
+    }
+
+    /**
+     * The nodes whose heartbeat is younger than {@code node-timeout}, this one included.
+     */
+    public Set<String> liveNodes(final Instant now) {
+        final Set<String> nodes = new TreeSet<>();
+        clusterStore.heartbeats().forEach((node, heartbeatAt) -> {
+            if (heartbeatAt.isAfter(now.minus(nodeTimeout))) {
+                nodes.add(node);
+            }
+        });
+        nodes.add(nodeId);
+        return nodes;
+    }
+
+    /**
+     * Announces this node and returns the courses it scans among the live nodes: all of them when disabled.
+     */
+    public IntPredicate claimShard(final Instant now) {
+        if (!enabled) {
+            return courseId -> true;
+        }
+        heartbeat(now);
+        final Set<String> nodes = liveNodes(now);
+        final ConsistentHashRing ring = new ConsistentHashRing(nodes, virtualNodes);
+        log.info("Node {} scans its share of the courses among {} nodes", nodeId, nodes.size());
+        return courseId -> ring.nodeFor(String.valueOf(courseId)).equals(nodeId);
+    }
+
+    /**
+     * Writes the results of a scan of this node: the occurrences of each course it owned, by course id.
+     */
+    public synchronized void publishShard(final Map<Integer, List<LinkValidationResult>> courses,
+                                          final Instant completedAt) {
+        if (enabled) {
+            final ClusterShard shard = new ClusterShard(nodeId, completedAt, courses);
+            publishedShard.set(shard);
+            clusterStore.writeShard(shard);
+        }
+    }
+
+    /**
+     * Rewrites the last shard of this node with revalidated results. It keeps the completion time of its scan, so
+     * that it does not take courses back from nodes that have scanned them since.
+     */
+    public synchronized void republishShard(final Map<Integer, List<LinkValidationResult>> courses,
+                                            final Instant updatedAt) {
+        final ClusterShard published = publishedShard.get();
+        if (enabled && published != null) {
+            final ClusterShard shard = new ClusterShard(nodeId, published.completedAt(), updatedAt, courses);
+            publishedShard.set(shard);
+            clusterStore.writeShard(shard);
+        }
+    }
+
+    /**
+     * The update time of the newest shard of any node, to tell whether the merged results have changed.
+     */
+    public Optional<Instant> lastShardUpdate() {
+        return enabled ? clusterStore.lastShardUpdate() : Optional.empty();
+    }
+
+    /**
+     * The results of the whole cluster: for each course, the occurrences of the newest shard owning it. Shards of
+     * nodes without a heartbeat that no longer own any course are removed.
+     */
+    public List<LinkValidationResult> mergedResults(final Instant now) {
+        if (!enabled) {
+            return List.of();
+        }
+        final List<ClusterShard> shards = clusterStore.readShards();
+        final Set<String> owners = courseOwners(shards).values().stream()
+                .map(ClusterShard::nodeId)
+                .collect(Collectors.toSet());
+        final Set<String> nodes = liveNodes(now);
+        for (final ClusterShard shard : shards) {
+            if (!nodes.contains(shard.nodeId()) && !owners.contains(shard.nodeId())) {
+                clusterStore.forget(shard.nodeId());
+                log.info("Removed shard of node {}, whose courses other nodes have scanned since", shard.nodeId());
+            }
+        }
+        return merge(shards);
+    }
+
+    static List<LinkValidationResult> merge(final List<ClusterShard> shards) {
+        final Map<Integer, ClusterShard> courseOwners = courseOwners(shards);
+        final List<LinkValidationResult> merged = new ArrayList<>();
+        for (final ClusterShard shard : newestFirst(shards)) {
+            shard.courses().forEach((courseId, results) -> {
+                if (courseOwners.get(courseId).nodeId().equals(shard.nodeId())) {
+                    merged.addAll(results);
+                }
+            });
+        }
+        return merged;
+    }
+
+    /**
+     * The newest shard owning each course id.
+     */
+    private static Map<Integer, ClusterShard> courseOwners(final List<ClusterShard> shards) {
+        final Map<Integer, ClusterShard> courseOwners = new HashMap<>();
+        for (final ClusterShard shard : newestFirst(shards)) {
+            shard.courses().keySet().forEach(courseId -> courseOwners.putIfAbsent(courseId, shard));
+        }
+        return courseOwners;
+    }
+
+    private static List<ClusterShard> newestFirst(final List<ClusterShard> shards) {
+        return shards.stream()
+                .sorted(Comparator.comparing(ClusterShard::completedAt).reversed()
+                        .thenComparing(ClusterShard::nodeId))
+                .toList();
+    }
+
+    @PreDestroy
+    public void leave() {
+        if (enabled) {
+            clusterStore.leave(nodeId);
+            log.info("Node {} left the cluster", nodeId);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package ua.foxminded.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.LongTaskTimer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Metrics of every stage of a scan: the Moodle calls, the links extracted per course, the cache lookups, each
+ * request sent to a checked host and the scan as a whole.
+ * <p>
+ * Request timers are tagged with the host and the status code, or {@value #NO_STATUS} and the exception for a
+ * request without a response. Their latency buckets are the fixed {@link #LATENCY_BUCKETS}, so that each host adds
+ * a handful of series rather than a full percentile histogram.
+ */
+@Component
+public class ScanMetrics {
+
+    static final String MOODLE_REQUESTS = "moodle.api.requests";
+    static final String COURSE_ASSIGNMENTS = "moodle.course.assignments";
+    static final String COURSE_LINKS = "moodle.course.links";
+    static final String CACHE_LOOKUPS = "link.checker.cache.lookups";
+    static final String REQUESTS = "link.checker.requests";
+    static final String REQUESTS_IN_FLIGHT = "link.checker.requests.in.flight";
+    static final String REQUESTS_QUEUED = "link.checker.requests.queued";
+    static final String SCANS = "link.checker.scans";
+    static final String ACTIVE_SCANS = "link.checker.scans.active";
+
+    static final String NO_STATUS = "none";
+    private static final String SUCCESS = "success";
+    private static final String ERROR = "error";
+    private static final String CANCELLED = "cancelled";
+    static final Duration[] LATENCY_BUCKETS = {
+            Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500), Duration.ofSeconds(1),
+            Duration.ofMillis(2500), Duration.ofSeconds(5), Duration.ofSeconds(10), Duration.ofSeconds(30)
+    };
+
+    private final MeterRegistry registry;
+    private final AtomicInteger requestsInFlight = new AtomicInteger();
+    private final DistributionSummary courseAssignments;
+    private final DistributionSummary courseLinks;
+    private final Counter cacheHits;
+    private final Counter cacheMisses;
+    private final LongTaskTimer activeScans;
+
+    public ScanMetrics(final MeterRegistry registry) {
+        this.registry = registry;
+        Gauge.builder(REQUESTS_IN_FLIGHT, requestsInFlight, AtomicInteger::get)
+                .description("Requests to checked hosts awaiting a response")
+                .register(registry);
+        courseAssignments = DistributionSummary.builder(COURSE_ASSIGNMENTS)
+                .description("Assignments read per course")
+                .register(registry);
+        courseLinks = DistributionSummary.builder(COURSE_LINKS)
+                .description("Links extracted per course")
+                .register(registry);
+        cacheHits = Counter.builder(CACHE_LOOKUPS).tag("result", "hit")
+                .description("Lookups of cached link results; a hit skips validating the link")
+                .register(registry);
+        cacheMisses = Counter.builder(CACHE_LOOKUPS).tag("result", "miss")
+                .description("Lookups of cached link results; a hit skips validating the link")
+                .register(registry);
+        activeScans = LongTaskTimer.builder(ACTIVE_SCANS)
+                .description("Scans in progress")
+                .register(registry);
+    }
+
+    /**
+     * Times a Moodle web service call until its response has been consumed.
+     */
+    public <T> Flux<T> timeMoodleCall(final String function, final Flux<T> call) {
+        return Flux.defer(() -> {
+            final Timer.Sample sample = Timer.start(registry);
+            final Consumer<String> stop = once(outcome -> sample.stop(Timer.builder(MOODLE_REQUESTS)
+                    .description("Moodle web service calls, until the response is read")
+                    .tag("function", function)
+                    .tag("outcome", outcome)
+                    .register(registry)));
+            return call.doOnComplete(() -> stop.accept(SUCCESS))
+                    .doOnError(e -> stop.accept(ERROR))
+                    .doOnCancel(() -> stop.accept(CANCELLED));
+        });
+    }
+
+    public void recordCourse(final int assignments, final int links) {
+        courseAssignments.record(assignments);
+        courseLinks.record(links);
+    }
+
+    public void recordCacheLookup(final boolean hit) {
+        (hit ? cacheHits : cacheMisses).increment();
+    }
+
+    public void requestStarted() {
+        requestsInFlight.incrementAndGet();
+    }
+
+    public void requestFinished() {
+        requestsInFlight.decrementAndGet();
+    }
+
+    public void recordResponse(final String host, final Duration elapsed, final int status) {
+        requestTimer(host, String.valueOf(status), NO_STATUS).record(elapsed);
+    }
+
+    public void recordFailure(final String host, final Duration elapsed, final Throwable failure) {
+        requestTimer(host, NO_STATUS, failure.getClass().getSimpleName()).record(elapsed);
+    }
+
+    /**
+     * Publishes the number of checks waiting for a slot of their host or of the engine.
+     */
+    public void registerQueuedRequests(final Supplier<Number> queued) {
+        Gauge.builder(REQUESTS_QUEUED, queued)
+                .description("Checks waiting for a host or engine slot")
+                .register(registry);
+    }
+
+    /**
+     * Times a scan, from subscription until it completes, fails or is cancelled.
+     */
+    public <T> Mono<T> timeScan(final Mono<T> scan) {
+        return Mono.defer(() -> {
+            final LongTaskTimer.Sample active = activeScans.start();
+            final Timer.Sample sample = Timer.start(registry);
+            final Consumer<String> stop = once(outcome -> {
+                active.stop();
+                sample.stop(Timer.builder(SCANS)
+                        .description("Scans, from the Moodle crawl until every link is validated")
+                        .tag("outcome", outcome)
+                        .register(registry));
+            });
+            return scan.doOnSuccess(result -> stop.accept(SUCCESS))
+                    .doOnError(e -> stop.accept(ERROR))
+                    .doOnCancel(() -> stop.accept(CANCELLED));
+        });
+    }
+
+    private Timer requestTimer(final String host, final String status, final String exception) {
+        return Timer.builder(REQUESTS)
+                .description("Requests to checked hosts, per attempt")
+                .tag("host", host)
+                .tag("status", status)
+                .tag("exception", exception)
+                .serviceLevelObjectives(LATENCY_BUCKETS)
+                .register(registry);
+    }
+
+    /**
+     * Records only the first outcome. Outcomes are recorded before the signal travels downstream, where an error
+     * may make an operator cancel its other sources, this one included.
+     */
+    private static Consumer<String> once(final Consumer<String> record) {
+        final AtomicBoolean recorded = new AtomicBoolean();
+        return outcome -> {
+            if (recorded.compareAndSet(false, true)) {
+                record.accept(outcome);
+            }
+        };
+    }
+}
@@ -0,0 +1,132 @@
+package ua.foxminded.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.Trigger;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.annotation.SchedulingConfigurer;
+import org.springframework.scheduling.config.ScheduledTaskRegistrar;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import ua.foxminded.model.ScanStatus;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Runs the scans in the background, so that web requests are served from the last complete snapshot and never
+ * wait for Moodle or the checked hosts.
+ * <p>
+ * Scans run on {@code cron} when it is set, and otherwise {@code fixed-delay} after the previous scan completes.
+ * While paused, neither scheduled scans nor the revalidation of expired links run; a scan can still be triggered.
+ * A running scan can be cancelled whatever its origin.
+ */
+@Slf4j
+@Component
+public class ScanScheduler implements SchedulingConfigurer {
+
+    private final LinkCacheService linkCacheService;
+    private final String cron;
+    private final Duration fixedDelay;
+    private final Duration initialDelay;
+    private final AtomicBoolean paused;
+
+    public ScanScheduler(
+            final LinkCacheService linkCacheService,
+            @Value("${link.checker.scan.cron:}") final String cron,
+            @Value("${link.checker.scan.fixed-delay:PT${link.checker.cache.duration-hours:24}H}") final Duration fixedDelay,
+            @Value("${link.checker.scan.initial-delay:PT0S}") final Duration initialDelay,
+            @Value("${link.checker.scan.paused:false}") final boolean paused
+    ) {
+        this.linkCacheService = linkCacheService;
+        this.cron = cron.isBlank() ? null : cron;
+        this.fixedDelay = fixedDelay;
+        this.initialDelay = initialDelay;
+        this.paused = new AtomicBoolean(paused);
+        log.info("Scheduled scans {}{}", schedule(), paused ? " (paused)" : "");
+    }
+
+    @Override
+    public void configureTasks(final ScheduledTaskRegistrar registrar) {
+        registrar.addTriggerTask(this::runScheduledScan, scanTrigger());
+    }
+
+    Trigger scanTrigger() {
+        if (cron != null) {
+            return new CronTrigger(cron);
+        }
+        final PeriodicTrigger trigger = new PeriodicTrigger(fixedDelay);
+        trigger.setInitialDelay(initialDelay);
+        return trigger;
+    }
+
+    /**
+     * Runs on a scheduler thread and waits for the scan, so that the fixed delay is measured from its completion
+     * and cron runs do not overlap.
+     */
+    void runScheduledScan() {
+        if (paused.get()) {
+            log.info("Scheduled scan skipped: scans are paused");
+            return;
+        }
+        log.info("Starting scheduled scan");
+        linkCacheService.scan()
+                .doOnError(e -> log.error("Scheduled scan failed: {}", e.getMessage()))
+                .onErrorComplete()
+                .block();
+    }
+
+    @Scheduled(fixedDelayString = "${link.checker.cache.refresh-interval:PT10M}",
+            initialDelayString = "${link.checker.cache.refresh-interval:PT10M}")
+    public Mono<Void> refreshExpiredLinks() {
+        return paused.get() ? Mono.empty() : linkCacheService.refreshExpiredLinks();
+    }
+
+    /**
+     * Keeps this node in the cluster and its snapshot in line with the shards of the other nodes, paused or not.
+     */
+    @Scheduled(fixedDelayString = "${link.checker.cluster.heartbeat-interval:PT15S}")
+    public void syncCluster() {
+        linkCacheService.syncCluster();
+    }
+
+    /**
+     * Starts a scan now, whether or not scans are paused, without waiting for it.
+     */
+    public void trigger() {
+        log.info("Scan triggered");
+        linkCacheService.scan().subscribe(results -> { }, e -> { });
+    }
+
+    /**
+     * Stops the scan in progress, keeping the links it has validated.
+     *
+     * @return {@code false} when no scan is running
+     */
+    public boolean cancel() {
+        return linkCacheService.cancelScan();
+    }
+
+    public void pause() {
+        if (!paused.getAndSet(true)) {
+            log.info("Scheduled scans paused");
+        }
+    }
+
+    public void resume() {
+        if (paused.getAndSet(false)) {
+            log.info("Scheduled scans resumed");
+        }
+    }
+
+    public ScanStatus status() {
+        return new ScanStatus(schedule(), paused.get(), linkCacheService.isScanInProgress(),
+                linkCacheService.getLastUpdateTime(), linkCacheService.getScanProgress().orElse(null));
+    }
+
+    private String schedule() {
+        return cron != null ? "cron " + cron : "every " + fixedDelay + " after the previous scan";
+    }
+}
@@ -0,0 +1,131 @@
+package ua.foxminded.service;
+
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import ua.foxminded.model.ScanProgress;
+import ua.foxminded.model.ScanProgress.State;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Counts the courses and links of one scan as it runs, and carries the request to cancel it. Counters are updated
+ * from the scan's threads and read by {@link #progress} from any thread.
+ */
+final class ScanTracker {
+
+    private final String id = UUID.randomUUID().toString();
+    private final Instant startedAt;
+    private final AtomicInteger coursesListed = new AtomicInteger();
+    private final AtomicInteger coursesFetched = new AtomicInteger();
+    private final AtomicLong linksFound = new AtomicLong();
+    private final AtomicLong linksValidated = new AtomicLong();
+    private final Sinks.Empty<Void> cancellation = Sinks.empty();
+    private final AtomicReference<State> state = new AtomicReference<>(State.RUNNING);
+    private volatile boolean coursesComplete;
+    private volatile boolean cancelRequested;
+    private volatile boolean truncated;
+    private volatile Instant finishedAt;
+
+    ScanTracker(final Instant startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    String id() {
+        return id;
+    }
+
+    void courseListed() {
+        coursesListed.incrementAndGet();
+    }
+
+    void coursesListingComplete() {
+        coursesComplete = true;
+    }
+
+    void coursesFetched(final int count) {
+        coursesFetched.addAndGet(count);
+    }
+
+    void linkFound() {
+        linksFound.incrementAndGet();
+    }
+
+    void linkValidated() {
+        linksValidated.incrementAndGet();
+    }
+
+    /**
+     * Completes when the scan is asked to stop.
+     */
+    Mono<Void> cancellation() {
+        return cancellation.asMono();
+    }
+
+    /**
+     * Asks the scan to stop, keeping what it has validated so far.
+     *
+     * @return {@code false} when the scan has already finished
+     */
+    boolean cancel() {
+        if (state.get() != State.RUNNING) {
+            return false;
+        }
+        cancelRequested = true;
+        cancellation.tryEmitEmpty();
+        return true;
+    }
+
+    boolean isCancelRequested() {
+        return cancelRequested;
+    }
+
+    /**
+     * Notes that the scan deadline was reached before every link was validated.
+     */
+    void truncated() {
+        truncated = true;
+    }
+
+    /**
+     * Marks the scan as finished: cancelled when that was asked for, truncated when the deadline was reached,
+     * otherwise completed.
+     */
+    void completed(final Instant now) {
+        finish(cancelRequested ? State.CANCELLED : truncated ? State.TRUNCATED : State.COMPLETED, now);
+    }
+
+    void failed(final Instant now) {
+        finish(State.FAILED, now);
+    }
+
+    private void finish(final State outcome, final Instant now) {
+        if (state.compareAndSet(State.RUNNING, outcome)) {
+            finishedAt = now;
+        }
+    }
+
+    ScanProgress progress(final Instant now) {
+        final Instant end = finishedAt != null ? finishedAt : now;
+        final int fetched = coursesFetched.get();
+        final Integer total = coursesComplete ? coursesListed.get() : null;
+        final long found = linksFound.get();
+        final long validated = linksValidated.get();
+
+        final double seconds = Duration.between(startedAt, end).toMillis() / 1000.0;
+        final double linksPerSecond = seconds > 0 ? validated / seconds : 0;
+        Duration remaining = null;
+        if (state.get() != State.RUNNING) {
+            remaining = Duration.ZERO;
+        } else if (linksPerSecond > 0 && total != null && fetched > 0) {
+            final double expectedLinks = Math.max(found, (double) found * total / fetched);
+            remaining = Duration.ofMillis(Math.round(Math.max(0, expectedLinks - validated) / linksPerSecond * 1000));
+        }
+        return new ScanProgress(id, state.get(), startedAt, finishedAt, fetched, total, validated, found,
+                linksPerSecond, remaining);
+    }
+}
@@ -0,0 +1,139 @@
+package ua.foxminded.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.http.client.PrematureCloseException;
+import reactor.util.retry.Retry;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Retries a link check that failed for a reason likely to go away: a reset or prematurely closed connection, or a
+ * {@code 429}, {@code 502}, {@code 503} or {@code 504} response.
+ * <p>
+ * Retries back off exponentially from {@code min-backoff}, with random jitter so that the links of one host are not
+ * retried in lockstep. A {@code Retry-After} header replaces the backoff; when it asks for more than
+ * {@code max-delay}, the check is not retried and the response is reported as is. Other failures are not retried;
+ * a check that timed out is instead repeated once with the link timeout, see {@link HostLatencyTracker}.
+ */
+@Component
+public class TransientFailureRetry {
+
+    private static final Set<Integer> TRANSIENT_STATUSES = Set.of(429, 502, 503, 504);
+
+    private final int maxRetries;
+    private final Duration minBackoff;
+    private final Duration maxDelay;
+    private final Scheduler timer;
+
+    @Autowired
+    public TransientFailureRetry(
+            @Value("${link.checker.retry.max-retries:2}") final int maxRetries,
+            @Value("${link.checker.retry.min-backoff:PT0.5S}") final Duration minBackoff,
+            @Value("${link.checker.retry.max-delay:PT30S}") final Duration maxDelay
+    ) {
+        this(maxRetries, minBackoff, maxDelay, Schedulers.parallel());
+    }
+
+    TransientFailureRetry(final int maxRetries, final Duration minBackoff, final Duration maxDelay,
+                          final Scheduler timer) {
+        this.maxRetries = maxRetries;
+        this.minBackoff = minBackoff;
+        this.maxDelay = maxDelay;
+        this.timer = timer;
+    }
+
+    public static boolean isTransientStatus(final HttpStatusCode status) {
+        return TRANSIENT_STATUSES.contains(status.value());
+    }
+
+    public Retry retrySpec() {
+        return Retry.from(signals -> signals.concatMap(signal -> {
+            final Duration delay = delayFor(signal.failure(), signal.totalRetries());
+            return delay == null ? Mono.error(signal.failure()) : Mono.delay(delay, timer);
+        }));
+    }
+
+    /**
+     * @return the delay before the next attempt, or {@code null} when the failure is not retried
+     */
+    Duration delayFor(final Throwable failure, final long retriesSoFar) {
+        if (retriesSoFar >= maxRetries || !isTransient(failure)) {
+            return null;
+        }
+        if (failure instanceof TransientStatusException statusException && statusException.retryAfter() != null) {
+            return statusException.retryAfter().compareTo(maxDelay) > 0 ? null : statusException.retryAfter();
+        }
+        final long backoffNanos = minBackoff.toNanos() << Math.min(retriesSoFar, 20);
+        final long jitteredNanos = backoffNanos / 2 + ThreadLocalRandom.current().nextLong(backoffNanos + 1);
+        return Duration.ofNanos(Math.min(jitteredNanos, maxDelay.toNanos()));
+    }
+
+    static boolean isTransient(final Throwable failure) {
+        for (Throwable cause = failure; cause != null; cause = cause.getCause()) {
+            if (cause instanceof TransientStatusException || cause instanceof PrematureCloseException) {
+                return true;
+            }
+            if (cause instanceof IOException && cause.getMessage() != null
+                    && cause.getMessage().contains("Connection reset")) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Reads a {@code Retry-After} header given either in seconds or as an HTTP date.
+     *
+     * @return the delay it asks for, or {@code null} without a valid header
+     */
+    static Duration retryAfter(final HttpHeaders headers, final Instant now) {
+        final String value = headers.getFirst(HttpHeaders.RETRY_AFTER);
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(Long.parseLong(value.trim()), 0));
+        } catch (final NumberFormatException e) {
+            try {
+                final Instant retryAt = Instant.ofEpochMilli(headers.getFirstDate(HttpHeaders.RETRY_AFTER));
+                return retryAt.isAfter(now) ? Duration.between(now, retryAt) : Duration.ZERO;
+            } catch (final IllegalArgumentException invalidDate) {
+                return null;
+            }
+        }
+    }
+
+    /**
+     * A response with a transient status, raised so that the check is retried.
+     */
+    public static final class TransientStatusException extends RuntimeException {
+
+        private final HttpStatusCode status;
+        private final Duration retryAfter;
+
+        public TransientStatusException(final HttpStatusCode status, final HttpHeaders headers) {
+            super(status.toString(), null, false, false);
+            this.status = status;
+            this.retryAfter = TransientFailureRetry.retryAfter(headers, Instant.now());
+        }
+
+        public HttpStatusCode status() {
+            return status;
+        }
+
+        public Duration retryAfter() {
+            return retryAfter;
+        }
+    }
+}
@@ -0,0 +1,174 @@
+package ua.foxminded.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Reduces the spellings of a link to one canonical URL, so that every variant is validated only once.
+ * <p>
+ * Scheme and host are lower-cased, default ports, fragments and an empty path are dropped, percent-escapes are
+ * upper-cased and tracking query parameters are removed. A parameter pattern ending with {@code *} matches by
+ * prefix. Optionally, {@code http} links are checked as {@code https}. Links that are not absolute http(s) URLs
+ * are returned stripped but otherwise unchanged.
+ */
+@Component
+public class UrlCanonicalizer {
+
+    private static final String HTTP = "http";
+    private static final String HTTPS = "https";
+    private static final String SCHEME_SEPARATOR = "://";
+
+    private final Set<String> strippedParams = new HashSet<>();
+    private final List<String> strippedParamPrefixes = new ArrayList<>();
+    private final boolean preferHttps;
+
+    public UrlCanonicalizer(
+            @Value("${link.checker.canonical.strip-query-params:utm_*,fbclid,gclid,dclid,msclkid,yclid,mc_cid,mc_eid,_hsenc,_hsmi}")
+            final String strippedParams,
+            @Value("${link.checker.canonical.prefer-https:false}") final boolean preferHttps
+    ) {
+        Arrays.stream(strippedParams.split(","))
+                .map(param -> param.trim().toLowerCase(Locale.ROOT))
+                .filter(param -> !param.isEmpty())
+                .forEach(param -> {
+                    if (param.endsWith("*")) {
+                        this.strippedParamPrefixes.add(param.substring(0, param.length() - 1));
+                    } else {
+                        this.strippedParams.add(param);
+                    }
+                });
+        this.preferHttps = preferHttps;
+    }
+
+    public String canonicalize(final String link) {
+        final String url = link.strip();
+        final int schemeEnd = url.indexOf(SCHEME_SEPARATOR);
+        if (schemeEnd <= 0) {
+            return url;
+        }
+        String scheme = url.substring(0, schemeEnd).toLowerCase(Locale.ROOT);
+        if (!scheme.equals(HTTP) && !scheme.equals(HTTPS)) {
+            return url;
+        }
+
+        final int authorityStart = schemeEnd + SCHEME_SEPARATOR.length();
+        final int fragmentStart = url.indexOf('#', authorityStart);
+        final int end = fragmentStart < 0 ? url.length() : fragmentStart;
+        final int authorityEnd = indexOfAny(url, authorityStart, end, '/', '?');
+        final int queryStart = url.indexOf('?', authorityEnd);
+        final int pathEnd = queryStart < 0 || queryStart > end ? end : queryStart;
+
+        final String authority = canonicalAuthority(url.substring(authorityStart, authorityEnd), scheme);
+        if (authority == null) {
+            return url;
+        }
+        if (preferHttps && scheme.equals(HTTP)) {
+            scheme = HTTPS;
+        }
+
+        final StringBuilder canonical = new StringBuilder(end)
+                .append(scheme).append(SCHEME_SEPARATOR).append(authority);
+        appendPath(canonical, url, authorityEnd, pathEnd);
+        if (pathEnd < end) {
+            appendQuery(canonical, url, pathEnd + 1, end);
+        }
+        return canonical.toString();
+    }
+
+    /**
+     * @return the authority with a lower-cased host and without a default port, or {@code null} without a host
+     */
+    private static String canonicalAuthority(final String authority, final String scheme) {
+        final int userInfoEnd = authority.lastIndexOf('@');
+        final int hostStart = userInfoEnd + 1;
+        final int ipv6End = authority.indexOf(']', hostStart);
+        final int portSeparator = authority.indexOf(':', ipv6End < 0 ? hostStart : ipv6End);
+
+        final String host = authority.substring(hostStart, portSeparator < 0 ? authority.length() : portSeparator);
+        if (host.isEmpty()) {
+            return null;
+        }
+        final String port = portSeparator < 0 ? "" : authority.substring(portSeparator + 1);
+        final boolean defaultPort = port.isEmpty()
+                || (scheme.equals(HTTP) && port.equals("80"))
+                || (scheme.equals(HTTPS) && port.equals("443"));
+
+        return authority.substring(0, hostStart) + host.toLowerCase(Locale.ROOT) + (defaultPort ? "" : ":" + port);
+    }
+
+    private static void appendPath(final StringBuilder canonical, final String url, final int start, final int end) {
+        // A trailing slash is kept: the canonical URL is the one requested, and most servers redirect a directory
+        // requested without it, which would report a correct link as moved
+        for (int i = start; i < end; i++) {
+            if (url.charAt(i) != '/') {
+                appendWithUpperCaseEscapes(canonical, url, start, end);
+                return;
+            }
+        }
+    }
+
+    private void appendQuery(final StringBuilder canonical, final String url, final int start, final int end) {
+        boolean first = true;
+        int paramStart = start;
+        while (paramStart <= end) {
+            int paramEnd = url.indexOf('&', paramStart);
+            if (paramEnd < 0 || paramEnd > end) {
+                paramEnd = end;
+            }
+            if (paramEnd > paramStart && !isStripped(url, paramStart, paramEnd)) {
+                canonical.append(first ? '?' : '&');
+                appendWithUpperCaseEscapes(canonical, url, paramStart, paramEnd);
+                first = false;
+            }
+            paramStart = paramEnd + 1;
+        }
+    }
+
+    private boolean isStripped(final String url, final int paramStart, final int paramEnd) {
+        final int nameEnd = indexOfAny(url, paramStart, paramEnd, '=');
+        final String name = url.substring(paramStart, nameEnd).toLowerCase(Locale.ROOT);
+        if (strippedParams.contains(name)) {
+            return true;
+        }
+        for (final String prefix : strippedParamPrefixes) {
+            if (name.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendWithUpperCaseEscapes(final StringBuilder canonical, final String url,
+                                                   final int start, final int end) {
+        for (int i = start; i < end; i++) {
+            final char c = url.charAt(i);
+            if (c == '%' && i + 2 < end) {
+                canonical.append(c)
+                        .append(Character.toUpperCase(url.charAt(i + 1)))
+                        .append(Character.toUpperCase(url.charAt(i + 2)));
+                i += 2;
+            } else {
+                canonical.append(c);
+            }
+        }
+    }
+
+    private static int indexOfAny(final String url, final int start, final int end, final char... chars) {
+        for (int i = start; i < end; i++) {
+            final char c = url.charAt(i);
+            for (final char candidate : chars) {
+                if (c == candidate) {
+                    return i;
+                }
+            }
+        }
+        return end;
+    }
+}
@@ -0,0 +1,81 @@
+package ua.foxminded.service;
+
+import ua.foxminded.model.LinkReport;
+import ua.foxminded.model.LinkValidationResult;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Link occurrences found during one scan, grouped by canonical URL.
+ * <p>
+ * The first occurrence of a canonical URL yields the link to validate; later occurrences, in other courses or tasks
+ * or spelled differently, are only recorded. Once the URLs are validated, {@link #build} combines the per-URL
+ * results with the recorded occurrences into a {@link LinkReport}.
+ */
+public class UrlIndex {
+
+    private static final String EMPTY_STATUS_MESSAGE = "";
+
+    private final UrlCanonicalizer canonicalizer;
+    private final LinkReport.Builder report = LinkReport.builder();
+
+    public UrlIndex(final UrlCanonicalizer canonicalizer) {
+        this.canonicalizer = canonicalizer;
+    }
+
+    /**
+     * Records an occurrence of a link.
+     *
+     * @return the canonical URL to validate, carrying the course and task of its first occurrence, or empty when
+     * the URL has already been seen
+     */
+    public synchronized Optional<LinkValidationResult> add(final LinkValidationResult occurrence) {
+        final String url = canonicalizer.canonicalize(occurrence.link());
+        if (!report.add(url, occurrence)) {
+            return Optional.empty();
+        }
+        return Optional.of(new LinkValidationResult(url, false, occurrence.courseName(), occurrence.taskName(),
+                EMPTY_STATUS_MESSAGE));
+    }
+
+    /**
+     * Builds the report of the scan from per-URL results. URLs without a result are left out.
+     */
+    public synchronized LinkReport build(final Collection<LinkValidationResult> results) {
+        return report.build(byUrl(results));
+    }
+
+    /**
+     * The canonical URLs that have no result among {@code results}, in the order they were first seen.
+     */
+    public synchronized List<String> missing(final Collection<LinkValidationResult> results) {
+        final Map<String, LinkValidationResult> resultsByUrl = byUrl(results);
+        return report.urls().stream().filter(url -> !resultsByUrl.containsKey(url)).toList();
+    }
+
+    public synchronized int urlCount() {
+        return report.urlCount();
+    }
+
+    public synchronized int occurrenceCount() {
+        return report.occurrenceCount();
+    }
+
+    private Map<String, LinkValidationResult> byUrl(final Collection<LinkValidationResult> results) {
+        final Map<String, LinkValidationResult> resultsByUrl = new HashMap<>(results.size() * 4 / 3 + 1);
+        results.forEach(result -> resultsByUrl.put(canonicalizer.canonicalize(result.link()), result));
+        return resultsByUrl;
+    }
+
+    /**
+     * Copies the validity, status and redirects of {@code result} onto an occurrence of the same URL.
+     */
+    static LinkValidationResult withOutcome(final LinkValidationResult occurrence, final LinkValidationResult result) {
+        return new LinkValidationResult(occurrence.link(), result.valid(), occurrence.courseName(),
+                occurrence.taskName(), result.statusMessage(), result.redirects());
+    }
+}
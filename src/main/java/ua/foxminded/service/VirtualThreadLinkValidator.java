@@ -0,0 +1,415 @@
+package ua.foxminded.service;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.Redirect;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Link validation engine that runs each check on its own virtual thread with the JDK HTTP client.
+ * <p>
+ * Checks are written as plain blocking code; concurrency is bounded by semaphores instead of a thread pool, up to
+ * {@code max-concurrency} requests at once and {@code per-host.max-concurrency} per host. A request waits for its
+ * host's permit before taking a global one, so checks queued behind a busy host do not hold back other hosts. Each
+ * redirect hop takes the permit of its own host. Timeouts, retries, HEAD-hostile hosts, conditional requests,
+ * redirects and the scan deadline follow {@link LinkValidatorService}.
+ */
+@Slf4j
+@Service
+@ConditionalOnProperty(name = LinkValidator.ENGINE_PROPERTY, havingValue = "virtual-threads")
+public class VirtualThreadLinkValidator implements LinkValidator {
+
+    private final HttpClient httpClient;
+    private final HostLatencyTracker hostLatencyTracker;
+    private final TransientFailureRetry transientFailureRetry;
+    private final ScanMetrics scanMetrics;
+    private final ConditionalRequests conditionalRequests;
+    private final RedirectCache redirectCache;
+    private final Duration scanDeadline;
+    private final int maxPerHost;
+    private final long minIntervalNanos;
+
+    private final Semaphore permits;
+    private final Map<String, HostSlots> hosts = new ConcurrentHashMap<>();
+    private final AtomicLong nextIdleCheck = new AtomicLong(System.nanoTime());
+    private final Set<String> headHostileHosts = ConcurrentHashMap.newKeySet();
+    private final ExecutorService executor =
+            Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("link-check-", 0).factory());
+
+    public VirtualThreadLinkValidator(
+            final HttpClient jdkLinkCheckerHttpClient,
+            final HostLatencyTracker hostLatencyTracker,
+            final TransientFailureRetry transientFailureRetry,
+            final ScanMetrics scanMetrics,
+            final ConditionalRequests conditionalRequests,
+            final RedirectCache redirectCache,
+            @Value("${link.checker.scan-deadline:PT30M}") final Duration scanDeadline,
+            @Value("${link.checker.virtual-threads.max-concurrency:1000}") final int maxConcurrency,
+            @Value("${link.checker.per-host.max-concurrency:4}") final int maxPerHost,
+            @Value("${link.checker.per-host.requests-per-second:0}") final double perHostRequestsPerSecond,
+            @Value("${link.checker.head-hostile-hosts:}") final String headHostileHosts
+    ) {
+        this.httpClient = jdkLinkCheckerHttpClient;
+        this.hostLatencyTracker = hostLatencyTracker;
+        this.transientFailureRetry = transientFailureRetry;
+        this.scanMetrics = scanMetrics;
+        this.conditionalRequests = conditionalRequests;
+        this.redirectCache = redirectCache;
+        this.scanDeadline = scanDeadline;
+        this.permits = new Semaphore(maxConcurrency);
+        this.maxPerHost = maxPerHost;
+        this.minIntervalNanos = perHostRequestsPerSecond > 0
+                ? (long) (TimeUnit.SECONDS.toNanos(1) / perHostRequestsPerSecond)
+                : 0;
+        this.headHostileHosts.addAll(LinkChecks.parseHosts(headHostileHosts));
+        scanMetrics.registerQueuedRequests(permits::getQueueLength);
+        log.info("Validating links on virtual threads, at most {} at once", maxConcurrency);
+    }
+
+    @Override
+    public Flux<LinkValidationResult> validateLinks(final Flux<LinkValidationResult> links) {
+        return links
+                .distinct(LinkValidationResult::link)
+                .flatMap(this::submit, Integer.MAX_VALUE)
+                // Past the deadline the checks still running are interrupted and the results so far are kept
+                .takeUntilOther(Mono.delay(scanDeadline)
+                        .doOnNext(tick -> log.warn("Scan deadline of {} reached, unchecked links are skipped",
+                                scanDeadline)))
+                .onErrorResume(e -> {
+                    log.error("Validation error: {}", e.getMessage());
+                    return Flux.empty();
+                });
+    }
+
+    /**
+     * Interrupts the checks still running, which aborts their requests, and refuses new ones.
+     */
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Runs the check of a link on a virtual thread. A check that is interrupted completes without a result, like
+     * one cut off by the scan deadline, and a link submitted after {@link #shutdown()} is reported as failed, so
+     * neither ends the rest of the scan.
+     */
+    private Mono<LinkValidationResult> submit(final LinkValidationResult link) {
+        return Mono.create(sink -> {
+            final Future<?> check;
+            try {
+                check = executor.submit(() -> {
+                    try {
+                        sink.success(checkLink(link));
+                    } catch (final InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        sink.success();
+                    } catch (final RuntimeException e) {
+                        sink.success(LinkChecks.failed(link, e));
+                    }
+                });
+            } catch (final RejectedExecutionException e) {
+                sink.success(LinkChecks.failed(link, e));
+                return;
+            }
+            sink.onCancel(() -> check.cancel(true));
+        });
+    }
+
+    private LinkValidationResult checkLink(final LinkValidationResult link) throws InterruptedException {
+        if (LinkChecks.isSkipped(link.link())) {
+            log.info("Skipping validation for Figma link: {}", link.link());
+            return LinkChecks.skipped(link);
+        }
+
+        try {
+            // A link known to be valid is only asked whether it changed since
+            final HttpHeaders conditions = conditionalRequests.conditionalHeaders(link.link());
+            return follow(link, new RedirectChain(link.link()), conditions);
+        } catch (final IOException | IllegalArgumentException e) {
+            return LinkChecks.failed(link, e);
+        }
+    }
+
+    /**
+     * Requests the link and follows its redirects one at a time. Permanent redirects seen before are followed
+     * without a request, and a redirect target checked recently is not requested again.
+     */
+    private LinkValidationResult follow(final LinkValidationResult link, final RedirectChain chain,
+                                        final HttpHeaders conditions) throws IOException, InterruptedException {
+        while (true) {
+            final String url = chain.current();
+            final Instant now = Instant.now();
+            Optional<Redirect> redirect = redirectCache.permanentRedirect(url, now);
+            if (redirect.isEmpty()) {
+                final Optional<RedirectCache.Target> knownTarget =
+                        chain.hasRedirects() ? redirectCache.target(url, now) : Optional.empty();
+                if (knownTarget.isPresent()) {
+                    return outcome(link, chain, conditions, knownTarget.get());
+                }
+
+                final HttpResponse<?> response = probeOnHost(url, conditions);
+                redirect = LinkChecks.redirectOf(url, response.statusCode(),
+                        response.headers().firstValue(HttpHeaders.LOCATION));
+                if (redirect.isEmpty()) {
+                    final RedirectCache.Target target = new RedirectCache.Target(
+                            HttpStatusCode.valueOf(response.statusCode()),
+                            response.headers().firstValue(HttpHeaders.ETAG).orElse(null),
+                            response.headers().firstValue(HttpHeaders.LAST_MODIFIED).orElse(null));
+                    if (chain.hasRedirects()) {
+                        redirectCache.recordTarget(url, target, Instant.now());
+                    }
+                    return outcome(link, chain, conditions, target);
+                }
+                redirectCache.recordRedirect(url, redirect.get(), Instant.now());
+            }
+
+            final Optional<String> failure = chain.follow(redirect.get());
+            if (failure.isPresent()) {
+                return LinkChecks.result(link, false, failure.get(), chain);
+            }
+        }
+    }
+
+    private LinkValidationResult outcome(final LinkValidationResult link, final RedirectChain chain,
+                                         final HttpHeaders conditions, final RedirectCache.Target target) {
+        final boolean valid = ConditionalRequests.isValid(target.status(), conditions);
+        conditionalRequests.record(link.link(), target.status(), valid, target.etag(), target.lastModified());
+        return LinkChecks.result(link, valid, target.status().toString(), chain);
+    }
+
+    /**
+     * Probes a URL with the permits of its host, which is tracked until its last check is done.
+     */
+    private HttpResponse<?> probeOnHost(final String url, final HttpHeaders conditions)
+            throws IOException, InterruptedException {
+        final String host = HostRequestScheduler.hostOf(url);
+        final HostSlots slots = hosts.compute(host, (key, current) -> {
+            final HostSlots hostSlots = current == null ? new HostSlots(maxPerHost) : current;
+            hostSlots.checks++;
+            return hostSlots;
+        });
+        try {
+            return probeWithRetry(url, host, slots, conditions);
+        } finally {
+            release(host);
+        }
+    }
+
+    /**
+     * Probes a link, retrying transient failures. A transient status that is still returned after the last retry
+     * is reported as the outcome. Permits are only held during an attempt, so a retry does not hold back other links.
+     */
+    private HttpResponse<?> probeWithRetry(final String link, final String host, final HostSlots slots,
+                                           final HttpHeaders conditions) throws IOException, InterruptedException {
+        for (long retries = 0; ; retries++) {
+            Exception failure;
+            HttpResponse<?> transientResponse = null;
+            try {
+                final HttpResponse<?> response = probeWithTimeoutFallback(link, host, slots, conditions);
+                final HttpStatusCode status = HttpStatusCode.valueOf(response.statusCode());
+                if (!TransientFailureRetry.isTransientStatus(status)) {
+                    return response;
+                }
+                transientResponse = response;
+                failure = new TransientFailureRetry.TransientStatusException(status, headersOf(response));
+            } catch (final IOException e) {
+                if (!TransientFailureRetry.isTransient(e)) {
+                    throw e;
+                }
+                failure = e;
+            }
+
+            final Duration delay = transientFailureRetry.delayFor(failure, retries);
+            if (delay == null) {
+                if (transientResponse != null) {
+                    return transientResponse;
+                }
+                throw (IOException) failure;
+            }
+            Thread.sleep(delay);
+        }
+    }
+
+    /**
+     * Probes a link with the timeout of its host. A host that is slower than usual is given the link timeout once
+     * more, so that a slow response is not reported as a broken link.
+     */
+    private HttpResponse<?> probeWithTimeoutFallback(final String link, final String host, final HostSlots slots,
+                                                     final HttpHeaders conditions)
+            throws IOException, InterruptedException {
+        final Duration timeout = hostLatencyTracker.timeoutFor(host);
+        try {
+            return probeOnce(link, host, slots, conditions, timeout);
+        } catch (final HttpTimeoutException e) {
+            if (timeout.compareTo(hostLatencyTracker.linkTimeout()) >= 0) {
+                throw e;
+            }
+            log.debug("{} timed out after {}, trying again with the link timeout", link, timeout);
+            return probeOnce(link, host, slots, conditions, hostLatencyTracker.linkTimeout());
+        }
+    }
+
+    /**
+     * Sends a single probe once a permit of its host is free and the rate limit allows it to start, then a global
+     * permit. Both permits are released as soon as the response arrives.
+     */
+    private HttpResponse<?> probeOnce(final String link, final String host, final HostSlots slots,
+                                      final HttpHeaders conditions, final Duration timeout)
+            throws IOException, InterruptedException {
+        slots.permits.acquire();
+        try {
+            awaitStartSlot(slots);
+            permits.acquire();
+        } catch (final InterruptedException e) {
+            slots.permits.release();
+            throw e;
+        }
+        scanMetrics.requestStarted();
+        final long start = System.nanoTime();
+        try {
+            final HttpResponse<?> response = probe(link, host, conditions, timeout);
+            final Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            hostLatencyTracker.record(host, elapsed);
+            scanMetrics.recordResponse(host, elapsed, response.statusCode());
+            return response;
+        } catch (final IOException e) {
+            scanMetrics.recordFailure(host, Duration.ofNanos(System.nanoTime() - start), e);
+            throw e;
+        } finally {
+            scanMetrics.requestFinished();
+            permits.release();
+            slots.permits.release();
+        }
+    }
+
+    private HttpResponse<?> probe(final String link, final String host, final HttpHeaders conditions,
+                                  final Duration timeout) throws IOException, InterruptedException {
+        if (headHostileHosts.contains(host)) {
+            return probeWithGet(link, conditions, timeout);
+        }
+
+        final HttpResponse<Void> response = httpClient.send(request(link, conditions, timeout).HEAD().build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (!LinkChecks.HEAD_UNSUPPORTED_STATUSES.contains(response.statusCode())) {
+            return response;
+        }
+        // Remember the host so the rest of its links skip the HEAD round trip
+        if (headHostileHosts.add(host)) {
+            log.info("HEAD not supported by {} ({}), falling back to GET", host, response.statusCode());
+        }
+        return probeWithGet(link, conditions, timeout);
+    }
+
+    private HttpResponse<?> probeWithGet(final String link, final HttpHeaders conditions, final Duration timeout)
+            throws IOException, InterruptedException {
+        // The body stream is closed unread, which makes the client abort the download after the headers
+        final HttpResponse<InputStream> response = httpClient.send(request(link, conditions, timeout).GET().build(),
+                HttpResponse.BodyHandlers.ofInputStream());
+        response.body().close();
+        return response;
+    }
+
+    private HttpRequest.Builder request(final String link, final HttpHeaders conditions, final Duration timeout) {
+        final HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(link.strip()))
+                .timeout(timeout);
+        conditions.forEach((name, values) -> values.forEach(value -> builder.header(name, value)));
+        return builder;
+    }
+
+    /**
+     * Waits until the host may receive another request under {@code per-host.requests-per-second}.
+     */
+    private void awaitStartSlot(final HostSlots slots) throws InterruptedException {
+        if (minIntervalNanos == 0) {
+            return;
+        }
+        final long now = System.nanoTime();
+        final long startAt = slots.nextStart.getAndUpdate(next -> Math.max(next, now) + minIntervalNanos);
+        final long waitNanos = Math.max(startAt, now) - now;
+        if (waitNanos > 0) {
+            Thread.sleep(Duration.ofNanos(waitNanos));
+        }
+    }
+
+    /**
+     * Ends a check of the host and forgets the host once no check uses it and its rate limit interval has elapsed.
+     * A host that is still within its interval is kept so the limit survives short gaps; such hosts are forgotten
+     * by a later check, at most once per interval.
+     */
+    private void release(final String host) {
+        final long now = System.nanoTime();
+        hosts.computeIfPresent(host, (key, slots) -> --slots.checks == 0 && slots.isIdle(now) ? null : slots);
+
+        if (minIntervalNanos == 0) {
+            return;
+        }
+        final long checkAt = nextIdleCheck.get();
+        if (now - checkAt < 0 || !nextIdleCheck.compareAndSet(checkAt, now + minIntervalNanos)) {
+            return;
+        }
+        for (final String tracked : hosts.keySet()) {
+            hosts.computeIfPresent(tracked, (key, slots) -> slots.checks == 0 && slots.isIdle(now) ? null : slots);
+        }
+    }
+
+    /**
+     * The hosts with checks in flight, waiting for a permit or a retry, or still within their rate limit interval.
+     */
+    int trackedHosts() {
+        return hosts.size();
+    }
+
+    private static HttpHeaders headersOf(final HttpResponse<?> response) {
+        final HttpHeaders headers = new HttpHeaders();
+        response.headers().firstValue(HttpHeaders.RETRY_AFTER)
+                .ifPresent(retryAfter -> headers.set(HttpHeaders.RETRY_AFTER, retryAfter));
+        return headers;
+    }
+
+    /**
+     * The permits and rate limit of a host. {@code checks} counts the checks using the host and is only changed
+     * within {@link Map#compute} of the host, so a host is never forgotten while a check holds its permits.
+     */
+    private static final class HostSlots {
+        private final Semaphore permits;
+        private final AtomicLong nextStart = new AtomicLong(System.nanoTime());
+        private int checks;
+
+        private HostSlots(final int maxPerHost) {
+            this.permits = new Semaphore(maxPerHost);
+        }
+
+        private boolean isIdle(final long now) {
+            return now - nextStart.get() >= 0;
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package ua.foxminded.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.net.InetSocketAddress;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class DnsMetricsRecorderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DnsMetricsRecorder recorder = new DnsMetricsRecorder(meterRegistry);
+
+    @Test
+    void recordResolveAddressTime_TagsHostAndStatus() {
+        // Act
+        recorder.recordResolveAddressTime(InetSocketAddress.createUnresolved("example.com", 443),
+                Duration.ofMillis(40), "SUCCESS");
+        recorder.recordResolveAddressTime(InetSocketAddress.createUnresolved("example.com", 80),
+                Duration.ofMillis(2), "SUCCESS");
+        recorder.recordResolveAddressTime(InetSocketAddress.createUnresolved("dead.example", 443),
+                Duration.ofMillis(15), "ERROR");
+
+        // Assert
+        final Timer resolved = meterRegistry.find(DnsMetricsRecorder.RESOLUTION_TIMER)
+                .tags("host", "example.com", "status", "SUCCESS").timer();
+        final Timer failed = meterRegistry.find(DnsMetricsRecorder.RESOLUTION_TIMER)
+                .tags("host", "dead.example", "status", "ERROR").timer();
+        assertNotNull(resolved);
+        assertEquals(2, resolved.count());
+        assertEquals(42, resolved.totalTime(TimeUnit.MILLISECONDS), 0.001);
+        assertNotNull(failed);
+        assertEquals(1, failed.count());
+    }
+
+    @Test
+    void otherChannelEvents_AreNotRecorded() {
+        // Arrange
+        final InetSocketAddress address = InetSocketAddress.createUnresolved("example.com", 443);
+
+        // Act
+        recorder.recordConnectTime(address, Duration.ofMillis(5), "SUCCESS");
+        recorder.recordDataReceived(address, 1024);
+        recorder.incrementErrorsCount(address);
+
+        // Assert
+        assertTrue(meterRegistry.getMeters().isEmpty());
+    }
+}
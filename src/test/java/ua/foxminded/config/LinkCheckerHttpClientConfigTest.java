@@ -0,0 +1,110 @@
+package ua.foxminded.config;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+class LinkCheckerHttpClientConfigTest {
+
+    private final LinkCheckerHttpClientConfig config = new LinkCheckerHttpClientConfig();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private ConnectionProvider connectionProvider;
+
+    @AfterEach
+    void tearDown() {
+        if (connectionProvider != null) {
+            connectionProvider.dispose();
+        }
+    }
+
+    private ConnectionProvider createConnectionProvider(final int maxConnections, final boolean http2Enabled) {
+        connectionProvider = config.linkCheckerConnectionProvider(30, maxConnections, 256, Duration.ofSeconds(20),
+                Duration.ofMinutes(5), Duration.ofSeconds(30), false, http2Enabled, 100);
+        return connectionProvider;
+    }
+
+    private HttpClient createHttpClient(final ConnectionProvider provider, final boolean http2Enabled) {
+        return config.linkCheckerHttpClient(provider, meterRegistry, 30, http2Enabled, Duration.ZERO,
+                Duration.ofHours(1), Duration.ofMinutes(5), Duration.ofSeconds(5));
+    }
+
+    @Test
+    void connectionProvider_LimitsConnectionsPerHost() {
+        // Act
+        final ConnectionProvider provider = createConnectionProvider(16, false);
+
+        // Assert
+        assertEquals("link-checker", provider.name());
+        assertEquals(16, provider.maxConnections());
+    }
+
+    @Test
+    void httpClient_UsesHttp11ByDefault() {
+        // Arrange
+        final ConnectionProvider provider = createConnectionProvider(16, false);
+
+        // Act
+        final HttpClient httpClient = createHttpClient(provider, false);
+
+        // Assert
+        assertArrayEquals(new HttpProtocol[]{HttpProtocol.HTTP11}, httpClient.configuration().protocols());
+        assertNotNull(httpClient.configuration().sslProvider());
+        assertEquals(Duration.ofSeconds(30), httpClient.configuration().responseTimeout());
+    }
+
+    @Test
+    void httpClient_NegotiatesHttp2WhenEnabled() {
+        // Arrange
+        final ConnectionProvider provider = createConnectionProvider(16, true);
+
+        // Act
+        final HttpClient httpClient = createHttpClient(provider, true);
+
+        // Assert
+        assertArrayEquals(new HttpProtocol[]{HttpProtocol.H2, HttpProtocol.HTTP11},
+                httpClient.configuration().protocols());
+    }
+
+    @Test
+    void httpClient_RecordsResolutionTimePerHost() {
+        // Arrange
+        final DisposableServer server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> response.status(200).send())
+                .bindNow();
+        final HttpClient httpClient = createHttpClient(createConnectionProvider(16, false), false);
+
+        try {
+            // Act
+            for (int i = 0; i < 2; i++) {
+                httpClient.head()
+                        .uri("http://localhost:" + server.port() + "/")
+                        .response()
+                        .block(Duration.ofSeconds(10));
+            }
+
+            // Assert
+            final Timer timer = meterRegistry.find(DnsMetricsRecorder.RESOLUTION_TIMER)
+                    .tag("host", "localhost")
+                    .tag("status", "SUCCESS")
+                    .timer();
+            assertNotNull(timer);
+            assertEquals(2, timer.count());
+        } finally {
+            server.disposeNow();
+        }
+    }
+}
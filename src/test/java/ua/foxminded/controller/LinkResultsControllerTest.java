@@ -0,0 +1,212 @@
+package ua.foxminded.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.test.web.reactive.server.WebTestClient;
+import reactor.core.publisher.Flux;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.Redirect;
+import ua.foxminded.model.ResultQuery;
+import ua.foxminded.model.ResultSort;
+import ua.foxminded.model.ScanProgress;
+import ua.foxminded.service.LinkCacheService;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class LinkResultsControllerTest {
+
+    private static final ParameterizedTypeReference<ServerSentEvent<String>> EVENT_TYPE =
+            new ParameterizedTypeReference<>() {};
+
+    private static final List<LinkValidationResult> RESULTS = List.of(
+            new LinkValidationResult("https://valid.com", true, "Course1", "Task1", "200 OK"),
+            new LinkValidationResult("https://invalid.com", false, "Course1", "Task2", "404 NOT_FOUND"));
+
+    @Mock
+    private LinkCacheService linkCacheService;
+
+    private WebTestClient webTestClient;
+
+    @BeforeEach
+    void setUp() {
+        webTestClient = WebTestClient.bindToController(new LinkResultsController(linkCacheService, Duration.ofMillis(20))).build();
+    }
+
+    private List<ServerSentEvent<String>> stream(final String uri) {
+        return webTestClient.get()
+                .uri(uri)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM)
+                .returnResult(EVENT_TYPE)
+                .getResponseBody()
+                .collectList()
+                .block();
+    }
+
+    @Test
+    void streamResults_shouldSendResultEventsThenComplete() {
+        // Arrange
+        when(linkCacheService.streamLinkValidationResults(true)).thenReturn(Flux.just(
+                new LinkValidationResult("https://valid.com", true, "Course1", "Task1", "200 OK"),
+                new LinkValidationResult("https://invalid.com", false, "Course1", "Task2", "404 NOT_FOUND")));
+
+        // Act
+        final List<ServerSentEvent<String>> events = stream("/results/stream?refresh=true");
+
+        // Assert
+        assertEquals(List.of("result", "result", "complete"), events.stream().map(ServerSentEvent::event).toList());
+        assertTrue(events.get(0).data().contains("\"link\":\"https://valid.com\""));
+        assertTrue(events.get(1).data().contains("\"valid\":false"));
+    }
+
+    @Test
+    void streamResults_shouldSendFailedEvent_whenScanFails() {
+        // Arrange
+        when(linkCacheService.streamLinkValidationResults(false))
+                .thenReturn(Flux.error(new IllegalStateException("Moodle unavailable")));
+
+        // Act
+        final List<ServerSentEvent<String>> events = stream("/results/stream");
+
+        // Assert
+        assertEquals(1, events.size());
+        assertEquals("failed", events.get(0).event());
+        assertEquals("Moodle unavailable", events.get(0).data());
+    }
+
+    @Test
+    void streamResults_shouldSendProgressEvents_whileScanRuns() {
+        // Arrange
+        when(linkCacheService.streamLinkValidationResults(false)).thenReturn(Flux.fromIterable(RESULTS)
+                .delayElements(Duration.ofMillis(200)));
+        when(linkCacheService.getScanProgress()).thenReturn(Optional.of(new ScanProgress("scan-1",
+                ScanProgress.State.RUNNING, Instant.now(), null, 1, 2, 1, 4, 5.0, Duration.ofSeconds(3))));
+
+        // Act
+        final List<ServerSentEvent<String>> events = stream("/results/stream");
+
+        // Assert
+        final List<String> names = events.stream().map(ServerSentEvent::event).toList();
+        assertTrue(names.contains("progress"));
+        assertEquals(2, names.stream().filter("result"::equals).count());
+        assertEquals("complete", names.get(names.size() - 1));
+        assertTrue(events.stream().filter(event -> event.event().equals("progress")).findFirst().orElseThrow()
+                .data().contains("\"linksFound\":4"));
+    }
+
+    @Test
+    void exportResults_shouldWriteJsonArray() {
+        // Arrange
+        when(linkCacheService.exportResults(any())).thenReturn(Flux.fromIterable(RESULTS));
+
+        // Act & Assert
+        webTestClient.get()
+                .uri("/results?course=Course1&valid=false&sort=link&dir=desc")
+                .accept(MediaType.APPLICATION_JSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_JSON)
+                .expectBodyList(LinkValidationResult.class).isEqualTo(RESULTS);
+        verify(linkCacheService).exportResults(
+                new ResultQuery("Course1", null, null, false, ResultSort.LINK, true, 1, ResultQuery.DEFAULT_PAGE_SIZE));
+    }
+
+    @Test
+    void exportResults_shouldWriteOneJsonObjectPerLine_whenNdjsonIsAccepted() {
+        // Arrange
+        when(linkCacheService.exportResults(any())).thenReturn(Flux.fromIterable(RESULTS));
+
+        // Act
+        final String body = webTestClient.get()
+                .uri("/results")
+                .accept(MediaType.APPLICATION_NDJSON)
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.APPLICATION_NDJSON)
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        final String[] lines = body.split("\n");
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].startsWith("{\"link\":\"https://valid.com\""));
+        assertTrue(lines[1].contains("\"statusMessage\":\"404 NOT_FOUND\""));
+    }
+
+    @Test
+    void exportResultsAsCsv_shouldWriteHeaderAndQuotedRows() {
+        // Arrange
+        when(linkCacheService.exportResults(any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://a.com/?q=1,2", false, "Course \"One\"", "Task1", "404 NOT_FOUND")));
+
+        // Act
+        final String body = webTestClient.get()
+                .uri("/results?status=404")
+                .accept(MediaType.parseMediaType(LinkResultsController.TEXT_CSV_VALUE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectHeader().contentTypeCompatibleWith(MediaType.parseMediaType(LinkResultsController.TEXT_CSV_VALUE))
+                .expectHeader().valueMatches("Content-Disposition", "attachment; filename=\"link-results.csv\"")
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        assertEquals(LinkResultsController.CSV_HEADER
+                + "\"https://a.com/?q=1,2\",false,\"Course \"\"One\"\"\",Task1,404 NOT_FOUND,\r\n", body);
+    }
+
+    @Test
+    void csvLine_shouldPrefixFieldsThatSpreadsheetsRunAsFormulas() {
+        // Arrange
+        final LinkValidationResult result = new LinkValidationResult("https://a.com", false, "=HYPERLINK(\"x\")",
+                "+Task", "-1 error", null);
+
+        // Act
+        final String line = LinkResultsController.csvLine(result);
+
+        // Assert
+        assertEquals("https://a.com,false,\"'=HYPERLINK(\"\"x\"\")\",'+Task,'-1 error,\r\n", line);
+    }
+
+    @Test
+    void exportResultsAsCsv_shouldWriteWhereMovedLinksPoint() {
+        // Arrange
+        when(linkCacheService.exportResults(any())).thenReturn(Flux.just(
+                new LinkValidationResult("http://a.com/doc", true, "Course", "Task1", "200 OK",
+                        List.of(new Redirect(301, "https://a.com/doc"), new Redirect(302, "https://a.com/doc/v2")))));
+
+        // Act
+        final String body = webTestClient.get()
+                .uri("/results")
+                .accept(MediaType.parseMediaType(LinkResultsController.TEXT_CSV_VALUE))
+                .exchange()
+                .expectStatus().isOk()
+                .expectBody(String.class)
+                .returnResult()
+                .getResponseBody();
+
+        // Assert
+        assertEquals(LinkResultsController.CSV_HEADER
+                + "http://a.com/doc,true,Course,Task1,200 OK,https://a.com/doc\r\n", body);
+    }
+}
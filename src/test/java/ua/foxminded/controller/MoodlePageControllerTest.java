@@ -10,12 +10,18 @@ import org.springframework.ui.Model;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.ResultPage;
+import ua.foxminded.model.ResultQuery;
+import ua.foxminded.model.ResultSort;
 import ua.foxminded.service.LinkCacheService;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -31,98 +37,125 @@ class MoodlePageControllerTest {
     @InjectMocks
     private MoodlePageController controller;
 
-    private List<LinkValidationResult> testResults;
+    private ResultPage testPage;
     private LocalDateTime testUpdateTime;
 
     @BeforeEach
     void setUp() {
-        testResults = List.of(
-                new LinkValidationResult("https://valid.com", true, "Course1", "Task1", "200 OK"),
-                new LinkValidationResult("https://invalid.com", false, "Course1", "Task2", "404 NOT_FOUND")
-        );
-        
+        testPage = new ResultPage(List.of(
+                new LinkValidationResult("https://invalid.com", false, "Course1", "Task2", "404 NOT_FOUND")),
+                2, 50, 120, 400, 120, List.of("Course1"), List.of("404"));
+
         testUpdateTime = LocalDateTime.now();
-        
-        when(linkCacheService.getLinkValidationResults(anyBoolean())).thenReturn(Mono.just(testResults));
+
+        lenient().when(linkCacheService.findResults(any())).thenReturn(testPage);
+        lenient().when(linkCacheService.hasCachedResults()).thenReturn(true);
+        lenient().when(model.addAttribute(anyString(), any())).thenReturn(model);
         when(linkCacheService.getLastUpdateTime()).thenReturn(testUpdateTime);
     }
 
     @Test
-    void showLinks_shouldAddAllLinksAndBrokenLinksToModel() {
-        // Arrange
-        when(model.addAttribute(anyString(), any())).thenReturn(model);
-
+    void showLinks_shouldAddPageOfBrokenLinksToModel() {
         // Act
-        Mono<String> result = controller.showLinks(model, false);
+        Mono<String> result = controller.showLinks(model, false, "Course1", null, "404", "link", "desc", 2, 50);
 
         // Assert
         StepVerifier.create(result)
                 .expectNext("links")
                 .verifyComplete();
 
-        verify(model).addAttribute("allLinks", testResults);
-        verify(model).addAttribute(eq("brokenLinks"), argThat(list -> 
-            ((List<LinkValidationResult>) list).size() == 1 && 
-            ((List<LinkValidationResult>) list).get(0).link().equals("https://invalid.com")
-        ));
+        verify(linkCacheService).findResults(
+                new ResultQuery("Course1", null, "404", false, ResultSort.LINK, true, 2, 50));
+        verify(model).addAttribute("page", testPage);
         verify(model).addAttribute("showAllLinks", false);
+        verify(model).addAttribute("previousUrl", "/?course=Course1&status=404&sort=link&dir=desc");
+        verify(model).addAttribute("nextUrl", "/?course=Course1&status=404&sort=link&dir=desc&page=3");
         verify(model).addAttribute(eq("lastUpdate"), contains("Last updated:"));
+        verify(model, never()).addAttribute(eq("streamUrl"), any());
     }
 
     @Test
-    void showLinks_shouldRefreshCache_whenRefreshIsTrue() {
-        // Arrange
-        when(model.addAttribute(anyString(), any())).thenReturn(model);
+    void showLinks_shouldLinkSortedColumnInReverseOrder() {
+        // Act
+        controller.showLinks(model, false, null, null, null, "course", null, 1, 50).block();
 
+        // Assert
+        verify(model).addAttribute(eq("sortUrls"), argThat(urls -> {
+            Map<String, String> sortUrls = (Map<String, String>) urls;
+            return sortUrls.get("course").equals("/?sort=course&dir=desc")
+                    && sortUrls.get("task").equals("/?sort=task");
+        }));
+    }
+
+    @Test
+    void showLinks_shouldStreamForcedRefresh_whenRefreshIsTrue() {
         // Act
-        controller.showLinks(model, true).block();
+        controller.showLinks(model, true, null, null, null, null, null, 1, 50).block();
 
         // Assert
-        verify(linkCacheService).getLinkValidationResults(true);
+        verify(model).addAttribute("streamUrl", "/results/stream?refresh=true");
+        verify(model).addAttribute("showAllLinks", false);
+        verify(linkCacheService, never()).findResults(any());
     }
 
     @Test
-    void showAllLinks_shouldAddAllLinksAndBrokenLinksToModel() {
+    void showLinks_shouldStreamFirstScan_whenNothingIsCached() {
         // Arrange
-        when(model.addAttribute(anyString(), any())).thenReturn(model);
+        when(linkCacheService.hasCachedResults()).thenReturn(false);
+
+        // Act
+        StepVerifier.create(controller.showLinks(model, false, null, null, null, null, null, 1, 50))
+                .expectNext("links")
+                .verifyComplete();
 
+        // Assert
+        verify(model).addAttribute("streamUrl", "/results/stream");
+        verify(model).addAttribute(eq("page"), argThat(page -> ((ResultPage) page).results().isEmpty()));
+        verify(linkCacheService, never()).findResults(any());
+    }
+
+    @Test
+    void showAllLinks_shouldAddPageOfAllLinksToModel() {
         // Act
-        Mono<String> result = controller.showAllLinks(model, false);
+        Mono<String> result = controller.showAllLinks(model, false, null, "example.com", null, null, null, null, 1, 500);
 
         // Assert
         StepVerifier.create(result)
                 .expectNext("links")
                 .verifyComplete();
 
-        verify(model).addAttribute("allLinks", testResults);
-        verify(model).addAttribute(eq("brokenLinks"), argThat(list -> 
-            ((List<LinkValidationResult>) list).size() == 1 && 
-            ((List<LinkValidationResult>) list).get(0).link().equals("https://invalid.com")
-        ));
+        verify(linkCacheService).findResults(
+                new ResultQuery(null, "example.com", null, null, ResultSort.COURSE, false, 1, 500));
+        verify(model).addAttribute("page", testPage);
         verify(model).addAttribute("showAllLinks", true);
         verify(model).addAttribute(eq("lastUpdate"), contains("Last updated:"));
     }
 
     @Test
-    void showAllLinks_shouldRefreshCache_whenRefreshIsTrue() {
-        // Arrange
-        when(model.addAttribute(anyString(), any())).thenReturn(model);
+    void showAllLinks_shouldKeepValidityFilterInLinks() {
+        // Act
+        controller.showAllLinks(model, false, null, null, null, true, "status", null, 2, 50).block();
 
+        // Assert
+        verify(model).addAttribute("previousUrl", "/all?valid=true&sort=status");
+    }
+
+    @Test
+    void showAllLinks_shouldStreamForcedRefresh_whenRefreshIsTrue() {
         // Act
-        controller.showAllLinks(model, true).block();
+        controller.showAllLinks(model, true, null, null, null, null, null, null, 1, 50).block();
 
         // Assert
-        verify(linkCacheService).getLinkValidationResults(true);
+        verify(model).addAttribute("streamUrl", "/results/stream?refresh=true");
+        verify(model).addAttribute("showAllLinks", true);
+        verify(linkCacheService, never()).findResults(any());
     }
 
     @Test
     void addLastUpdateTimeToModel_shouldAddFormattedTime_whenTimeExists() {
-        // Arrange
-        when(model.addAttribute(anyString(), any())).thenReturn(model);
-        
         // Act
-        controller.showLinks(model, false).block();
-        
+        controller.showLinks(model, false, null, null, null, null, null, 1, 50).block();
+
         // Assert
         verify(model).addAttribute(eq("lastUpdate"), contains("Last updated:"));
     }
@@ -130,12 +163,11 @@ class MoodlePageControllerTest {
     @Test
     void addLastUpdateTimeToModel_shouldAddEmptyString_whenTimeIsNull() {
         // Arrange
-        when(model.addAttribute(anyString(), any())).thenReturn(model);
         when(linkCacheService.getLastUpdateTime()).thenReturn(null);
-        
+
         // Act
-        controller.showLinks(model, false).block();
-        
+        controller.showLinks(model, false, null, null, null, null, null, 1, 50).block();
+
         // Assert
         verify(model).addAttribute("lastUpdate", "");
     }
@@ -143,4 +175,4 @@ class MoodlePageControllerTest {
     private static String contains(String substring) {
         return argThat(arg -> ((String) arg).contains(substring));
     }
-}
\ No newline at end of file
+}
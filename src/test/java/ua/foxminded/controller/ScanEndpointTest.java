@@ -0,0 +1,48 @@
+package ua.foxminded.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import ua.foxminded.model.ScanStatus;
+import ua.foxminded.service.ScanScheduler;
+
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScanEndpointTest {
+
+    @Mock
+    private ScanScheduler scanScheduler;
+
+    @InjectMocks
+    private ScanEndpoint scanEndpoint;
+
+    @Test
+    void control_shouldApplyActionAndReturnStatus() {
+        // Arrange
+        final ScanStatus status = new ScanStatus("every PT24H after the previous scan", true, false, null, null);
+        when(scanScheduler.status()).thenReturn(status);
+
+        // Act & Assert
+        assertSame(status, scanEndpoint.control("pause"));
+        scanEndpoint.control("resume");
+        scanEndpoint.control("trigger");
+        scanEndpoint.control("cancel");
+        verify(scanScheduler).pause();
+        verify(scanScheduler).resume();
+        verify(scanScheduler).trigger();
+        verify(scanScheduler).cancel();
+    }
+
+    @Test
+    void control_shouldRejectUnknownAction() {
+        // Act & Assert
+        assertThrows(InvalidEndpointRequestException.class, () -> scanEndpoint.control("stop"));
+        verifyNoInteractions(scanScheduler);
+    }
+}
@@ -0,0 +1,140 @@
+package ua.foxminded.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LinkReportTest {
+
+    private static final String URL_A = "https://a.com/page";
+    private static final String URL_B = "https://b.com";
+
+    @Test
+    void builder_shouldReportFirstOccurrenceOfUrl_andIgnoreRepeatsInSameTask() {
+        // Arrange
+        LinkReport.Builder builder = LinkReport.builder();
+
+        // Act & Assert
+        assertTrue(builder.add(URL_A, occurrence(URL_A, "Course1", "Task1")));
+        assertFalse(builder.add(URL_A, occurrence("https://A.com/page/", "Course1", "Task1")));
+        assertFalse(builder.add(URL_A, occurrence(URL_A, "Course1", "Task2")));
+        assertTrue(builder.add(URL_B, occurrence(URL_B, "Course2", "Task1")));
+        assertEquals(2, builder.urlCount());
+        assertEquals(3, builder.occurrenceCount());
+    }
+
+    @Test
+    void results_shouldListEveryOccurrenceGroupedByUrl_withLinkAsWritten() {
+        // Arrange
+        LinkReport.Builder builder = LinkReport.builder();
+        builder.add(URL_A, occurrence(URL_A, "Course1", "Task1"));
+        builder.add(URL_B, occurrence(URL_B, "Course1", "Task1"));
+        builder.add(URL_A, occurrence("https://a.com/page#intro", "Course2", "Task3"));
+
+        // Act
+        LinkReport report = builder.build(Map.of(
+                URL_A, new LinkValidationResult(URL_A, false, "Course1", "Task1", "404 NOT_FOUND"),
+                URL_B, new LinkValidationResult(URL_B, true, "Course1", "Task1", "200 OK")));
+
+        // Assert
+        assertEquals(List.of(
+                new LinkValidationResult(URL_A, false, "Course1", "Task1", "404 NOT_FOUND"),
+                new LinkValidationResult("https://a.com/page#intro", false, "Course2", "Task3", "404 NOT_FOUND"),
+                new LinkValidationResult(URL_B, true, "Course1", "Task1", "200 OK")), report.results());
+        assertEquals(2, report.urlCount());
+        assertEquals(3, report.occurrenceCount());
+        assertThrows(IndexOutOfBoundsException.class, () -> report.results().get(3));
+    }
+
+    @Test
+    void build_shouldLeaveOutUrlsWithoutResult() {
+        // Arrange
+        LinkReport.Builder builder = LinkReport.builder();
+        builder.add(URL_A, occurrence(URL_A, "Course1", "Task1"));
+        builder.add(URL_B, occurrence(URL_B, "Course1", "Task1"));
+
+        // Act
+        LinkReport report = builder.build(Map.of(URL_B, new LinkValidationResult(URL_B, true, "Course1", "Task1", "200 OK")));
+
+        // Assert
+        assertEquals(1, report.occurrenceCount());
+        assertEquals(Optional.empty(), report.resultFor(URL_A));
+        assertEquals(List.of(), report.occurrencesOf(URL_A));
+    }
+
+    @Test
+    void resultForAndOccurrencesOf_shouldLookUpByCanonicalUrl() {
+        // Arrange
+        LinkReport.Builder builder = LinkReport.builder();
+        builder.add(URL_A, occurrence(URL_A, "Course1", "Task1"));
+        builder.add(URL_A, occurrence(URL_A, "Course2", "Task2"));
+        LinkReport report = builder.build(Map.of(
+                URL_A, new LinkValidationResult(URL_A, false, "Course1", "Task1", "Connection refused")));
+
+        // Act & Assert
+        assertEquals(Optional.of(new LinkValidationResult(URL_A, false, "Course1", "Task1", "Connection refused")),
+                report.resultFor(URL_A));
+        assertEquals(List.of("Course1", "Course2"),
+                report.occurrencesOf(URL_A).stream().map(LinkValidationResult::courseName).toList());
+    }
+
+    @Test
+    void withResults_shouldUpdateEveryOccurrenceOfUrl_andKeepOriginalUnchanged() {
+        // Arrange
+        LinkReport.Builder builder = LinkReport.builder();
+        builder.add(URL_A, occurrence(URL_A, "Course1", "Task1"));
+        builder.add(URL_A, occurrence(URL_A, "Course2", "Task1"));
+        builder.add(URL_B, occurrence(URL_B, "Course2", "Task1"));
+        LinkReport report = builder.build(Map.of(
+                URL_A, new LinkValidationResult(URL_A, false, "Course1", "Task1", "Timeout"),
+                URL_B, new LinkValidationResult(URL_B, true, "Course2", "Task1", "200 OK")));
+
+        // Act
+        LinkReport updated = report.withResults(Map.of(
+                URL_A, new LinkValidationResult(URL_A, true, "Course1", "Task1", "200 OK")));
+
+        // Assert
+        assertTrue(updated.results().stream().allMatch(LinkValidationResult::valid));
+        assertFalse(report.results().get(0).valid());
+        assertFalse(report.results().get(1).valid());
+        assertSame(updated.results().get(0).statusMessage(), updated.results().get(1).statusMessage());
+    }
+
+    @Test
+    void results_shouldCarryRedirectsOfUrl_toEveryOccurrence() {
+        // Arrange
+        List<Redirect> redirects = List.of(new Redirect(301, "https://moved.com/a"));
+        LinkReport.Builder builder = LinkReport.builder();
+        builder.add(URL_A, occurrence(URL_A, "Course1", "Task1"));
+        builder.add(URL_A, occurrence(URL_A, "Course2", "Task1"));
+        LinkReport report = builder.build(Map.of(
+                URL_A, new LinkValidationResult(URL_A, true, "Course1", "Task1", "200 OK", redirects)));
+
+        // Act
+        LinkReport updated = report.withResults(Map.of(
+                URL_A, new LinkValidationResult(URL_A, true, "Course1", "Task1", "200 OK")));
+
+        // Assert
+        assertTrue(report.results().stream().allMatch(result -> result.movedTo().equals("https://moved.com/a")));
+        assertEquals(redirects, report.resultFor(URL_A).orElseThrow().redirects());
+        assertTrue(updated.results().stream().allMatch(result -> result.redirects().isEmpty()));
+    }
+
+    @Test
+    void empty_shouldHaveNoResults() {
+        assertTrue(LinkReport.empty().results().isEmpty());
+        assertEquals(0, LinkReport.empty().urlCount());
+    }
+
+    private static LinkValidationResult occurrence(final String link, final String courseName, final String taskName) {
+        return new LinkValidationResult(link, false, courseName, taskName, "");
+    }
+}
@@ -0,0 +1,150 @@
+package ua.foxminded.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.foxminded.model.ClusterShard;
+import ua.foxminded.model.LinkValidationResult;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClusterStoreTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final Instant now = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private ClusterStore clusterStore;
+
+    @BeforeEach
+    void setUp() {
+        clusterStore = new ClusterStore(objectMapper, tempDir.resolve("cluster"));
+    }
+
+    @Test
+    void heartbeats_shouldReturnLastHeartbeatOfEachNode_untilItLeaves() {
+        // Act
+        clusterStore.heartbeat("node-a", now.minusSeconds(30));
+        clusterStore.heartbeat("node-a", now);
+        clusterStore.heartbeat("checker/2:8080", now.minusSeconds(5));
+
+        // Assert
+        assertEquals(Map.of("node-a", now, "checker/2:8080", now.minusSeconds(5)), clusterStore.heartbeats());
+
+        clusterStore.leave("checker/2:8080");
+        assertEquals(Map.of("node-a", now), clusterStore.heartbeats());
+    }
+
+    @Test
+    void heartbeats_shouldBeEmpty_whenDirectoryDoesNotExist() {
+        // Act & Assert
+        assertTrue(clusterStore.heartbeats().isEmpty());
+        assertTrue(clusterStore.readShards().isEmpty());
+        assertEquals(Optional.empty(), clusterStore.lastShardUpdate());
+    }
+
+    @Test
+    void writeShard_shouldReplacePreviousShardOfNode() {
+        // Arrange
+        final LinkValidationResult first = new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK");
+        final LinkValidationResult second = new LinkValidationResult("https://b.com", false, "Course2", "Task1", "404 NOT_FOUND");
+
+        // Act
+        clusterStore.writeShard(new ClusterShard("node-a", now.minusSeconds(60), Map.of(1, List.of(first))));
+        clusterStore.writeShard(new ClusterShard("node-a", now, Map.of(1, List.of(first), 2, List.of(second))));
+        clusterStore.writeShard(new ClusterShard("node-b", now.minusSeconds(10), Map.of(3, List.of())));
+
+        // Assert - a course without links is kept
+        final List<ClusterShard> shards = clusterStore.readShards();
+        assertEquals(2, shards.size());
+        assertTrue(shards.contains(new ClusterShard("node-a", now, Map.of(1, List.of(first), 2, List.of(second)))));
+        assertTrue(shards.contains(new ClusterShard("node-b", now.minusSeconds(10), Map.of(3, List.of()))));
+        assertEquals(Optional.of(now), clusterStore.lastShardUpdate());
+    }
+
+    @Test
+    void lastShardUpdate_shouldReturnUpdateTime_ofRepublishedShard() {
+        // Act
+        clusterStore.writeShard(new ClusterShard("node-a", now.minusSeconds(60), now, Map.of()));
+
+        // Assert
+        assertEquals(Optional.of(now), clusterStore.lastShardUpdate());
+        assertEquals(now.minusSeconds(60), clusterStore.readShards().get(0).completedAt());
+    }
+
+    @Test
+    void forget_shouldRemoveShardAndHeartbeat() {
+        // Arrange
+        clusterStore.heartbeat("node-a", now);
+        clusterStore.heartbeat("node-gone", now.minusSeconds(600));
+        clusterStore.writeShard(new ClusterShard("node-a", now, Map.of()));
+        clusterStore.writeShard(new ClusterShard("node-gone", now.minusSeconds(600), Map.of()));
+
+        // Act
+        clusterStore.forget("node-gone");
+
+        // Assert
+        assertEquals(Map.of("node-a", now), clusterStore.heartbeats());
+        assertEquals(List.of(new ClusterShard("node-a", now, Map.of())), clusterStore.readShards());
+    }
+
+    @Test
+    void writeShard_shouldKeepShardComplete_whenWrittenConcurrently() throws Exception {
+        // Arrange
+        final ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        // Act
+        final List<Future<?>> writes = IntStream.range(0, 40)
+                .mapToObj(i -> executor.submit(() -> clusterStore.writeShard(
+                        new ClusterShard("node-a", now.plusMillis(i), Map.of(1, results("Task" + i))))))
+                .collect(Collectors.toList());
+        for (final Future<?> write : writes) {
+            write.get();
+        }
+        executor.shutdown();
+
+        // Assert - one complete shard of a single write, and no temporary file left behind
+        final List<ClusterShard> shards = clusterStore.readShards();
+        assertEquals(1, shards.size());
+        assertEquals(results(shards.get(0).results().get(0).taskName()), shards.get(0).results());
+        try (Stream<Path> files = Files.list(tempDir.resolve("cluster/shards"))) {
+            assertEquals(List.of("node-a.ndjson"), files.map(file -> file.getFileName().toString()).toList());
+        }
+    }
+
+    @Test
+    void readShards_shouldSkipUnreadableShard() throws IOException {
+        // Arrange
+        clusterStore.writeShard(new ClusterShard("node-a", now, Map.of()));
+        Files.writeString(tempDir.resolve("cluster/shards/node-b.ndjson"), "{\"nodeId\":");
+
+        // Act & Assert
+        assertEquals(List.of(new ClusterShard("node-a", now, Map.of())), clusterStore.readShards());
+        assertEquals(Optional.of(now), clusterStore.lastShardUpdate());
+    }
+
+    private static List<LinkValidationResult> results(final String taskName) {
+        return IntStream.range(0, 500)
+                .mapToObj(i -> new LinkValidationResult("https://a.com/" + i, true, "Course1", taskName, "200 OK"))
+                .toList();
+    }
+}
@@ -0,0 +1,166 @@
+package ua.foxminded.repository;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.Redirect;
+import ua.foxminded.model.ResponseValidators;
+import ua.foxminded.model.StoredLinkResult;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkResultStoreTest {
+
+    @TempDir
+    private Path tempDir;
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().findAndAddModules().build();
+    private final Instant checkedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS);
+
+    private Path storePath;
+    private LinkResultStore linkResultStore;
+
+    @BeforeEach
+    void setUp() {
+        storePath = tempDir.resolve("store/link-results.ndjson");
+        linkResultStore = new LinkResultStore(objectMapper, storePath, true);
+    }
+
+    @Test
+    void load_shouldReturnEmptyList_whenFileDoesNotExist() {
+        assertTrue(linkResultStore.load().isEmpty());
+    }
+
+    @Test
+    void replaceAll_shouldPersistResults_whenLoadedAgain() {
+        // Arrange
+        List<StoredLinkResult> results = List.of(
+                stored("https://example1.com", true, "200 OK"),
+                stored("https://example2.com", false, "404 NOT_FOUND"));
+
+        // Act
+        linkResultStore.replaceAll(results);
+
+        // Assert
+        assertEquals(results, new LinkResultStore(objectMapper, storePath, true).load());
+    }
+
+    @Test
+    void replaceOccurrences_shouldPersistEveryOccurrence_besideTheResults() {
+        // Arrange
+        List<LinkValidationResult> occurrences = List.of(
+                new LinkValidationResult("https://example1.com", true, "Course1", "Task1", "200 OK"),
+                new LinkValidationResult("https://example1.com", true, "Course2", "Task3", "200 OK"));
+
+        // Act
+        linkResultStore.replaceOccurrences(occurrences);
+
+        // Assert - only where each link occurs is kept, its outcome is stored with the results
+        assertEquals(List.of(
+                        new LinkValidationResult("https://example1.com", false, "Course1", "Task1", ""),
+                        new LinkValidationResult("https://example1.com", false, "Course2", "Task3", "")),
+                new LinkResultStore(objectMapper, storePath, true).loadOccurrences());
+        assertTrue(Files.exists(tempDir.resolve("store/link-results-occurrences.ndjson")));
+        assertTrue(linkResultStore.load().isEmpty());
+    }
+
+    @Test
+    void replaceAll_shouldPersistResponseValidators() {
+        // Arrange
+        List<StoredLinkResult> results = List.of(new StoredLinkResult(
+                new LinkValidationResult("https://docs.example.com", true, "Course", "Task", "200 OK"), checkedAt,
+                new ResponseValidators("W/\"5f3a\"", "Wed, 21 Oct 2026 07:28:00 GMT")));
+
+        // Act
+        linkResultStore.replaceAll(results);
+
+        // Assert
+        assertEquals(results, new LinkResultStore(objectMapper, storePath, true).load());
+    }
+
+    @Test
+    void replaceAll_shouldPersistRedirectChain() {
+        // Arrange
+        List<StoredLinkResult> results = List.of(new StoredLinkResult(
+                new LinkValidationResult("http://docs.example.com", true, "Course", "Task", "200 OK",
+                        List.of(new Redirect(301, "https://docs.example.com/"))), checkedAt));
+
+        // Act
+        linkResultStore.replaceAll(results);
+
+        // Assert
+        assertEquals(results, new LinkResultStore(objectMapper, storePath, true).load());
+    }
+
+    @Test
+    void load_shouldReadLinesStoredWithoutValidators() throws IOException {
+        // Arrange
+        Files.createDirectories(storePath.getParent());
+        Files.writeString(storePath, "{\"result\":{\"link\":\"https://example1.com\",\"valid\":true,"
+                + "\"courseName\":\"Course\",\"taskName\":\"Task\",\"statusMessage\":\"200 OK\"},"
+                + "\"checkedAt\":\"" + checkedAt + "\"}\n", StandardCharsets.UTF_8);
+
+        // Act & Assert
+        assertEquals(List.of(stored("https://example1.com", true, "200 OK")), linkResultStore.load());
+    }
+
+    @Test
+    void append_shouldOverrideEarlierResultForSameLink() {
+        // Arrange
+        linkResultStore.replaceAll(List.of(
+                stored("https://example1.com", true, "200 OK"),
+                stored("https://example2.com", true, "200 OK")));
+
+        // Act
+        linkResultStore.append(List.of(stored("https://example1.com", false, "404 NOT_FOUND")));
+
+        // Assert
+        List<StoredLinkResult> loaded = linkResultStore.load();
+        assertEquals(2, loaded.size());
+        assertEquals("404 NOT_FOUND", loaded.get(0).result().statusMessage());
+    }
+
+    @Test
+    void load_shouldSkipTruncatedLines() throws IOException {
+        // Arrange
+        linkResultStore.replaceAll(List.of(stored("https://example1.com", true, "200 OK")));
+        Files.writeString(storePath, "{\"result\":{\"link\":\"https://exa", StandardCharsets.UTF_8,
+                StandardOpenOption.APPEND);
+
+        // Act
+        List<StoredLinkResult> loaded = linkResultStore.load();
+
+        // Assert
+        assertEquals(1, loaded.size());
+        assertEquals("https://example1.com", loaded.get(0).result().link());
+    }
+
+    @Test
+    void replaceAll_shouldNotWriteFile_whenStoreIsDisabled() {
+        // Arrange
+        LinkResultStore disabledStore = new LinkResultStore(objectMapper, storePath, false);
+
+        // Act
+        disabledStore.replaceAll(List.of(stored("https://example1.com", true, "200 OK")));
+
+        // Assert
+        assertFalse(Files.exists(storePath));
+        assertTrue(disabledStore.load().isEmpty());
+    }
+
+    private StoredLinkResult stored(final String link, final boolean valid, final String statusMessage) {
+        return new StoredLinkResult(new LinkValidationResult(link, valid, "Course", "Task", statusMessage), checkedAt);
+    }
+}
@@ -0,0 +1,86 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import ua.foxminded.model.MoodleAssignment;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AssignmentLinkIndexTest {
+
+    private final AtomicInteger extractions = new AtomicInteger();
+    private final Function<String, List<String>> extractor = intro -> {
+        extractions.incrementAndGet();
+        return List.of(intro);
+    };
+
+    @Test
+    void linksFor_shouldExtractOnlyOnce_whenTimemodifiedIsUnchanged() {
+        // Arrange
+        AssignmentLinkIndex index = new AssignmentLinkIndex(true);
+
+        // Act
+        index.linksFor(new MoodleAssignment(1, 1, "Task", "https://a.com", 100), extractor);
+        List<String> links = index.linksFor(new MoodleAssignment(1, 1, "Task", "https://a.com", 100), extractor);
+
+        // Assert
+        assertEquals(List.of("https://a.com"), links);
+        assertEquals(1, extractions.get());
+        assertEquals(1, index.reusedCount());
+    }
+
+    @Test
+    void linksFor_shouldExtractAgain_whenAssignmentWasModified() {
+        // Arrange
+        AssignmentLinkIndex index = new AssignmentLinkIndex(true);
+        index.linksFor(new MoodleAssignment(1, 1, "Task", "https://a.com", 100), extractor);
+
+        // Act
+        List<String> links = index.linksFor(new MoodleAssignment(1, 1, "Task", "https://b.com", 200), extractor);
+
+        // Assert
+        assertEquals(List.of("https://b.com"), links);
+        assertEquals(2, extractions.get());
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void linksFor_shouldAlwaysExtract_whenIncrementalModeIsDisabledOrTimemodifiedIsMissing() {
+        // Arrange
+        AssignmentLinkIndex disabled = new AssignmentLinkIndex(false);
+        AssignmentLinkIndex enabled = new AssignmentLinkIndex(true);
+
+        // Act
+        disabled.linksFor(new MoodleAssignment(1, 1, "Task", "https://a.com", 100), extractor);
+        disabled.linksFor(new MoodleAssignment(1, 1, "Task", "https://a.com", 100), extractor);
+        enabled.linksFor(new MoodleAssignment(2, 1, "Task", "https://a.com", 0), extractor);
+        enabled.linksFor(new MoodleAssignment(2, 1, "Task", "https://a.com", 0), extractor);
+
+        // Assert
+        assertEquals(4, extractions.get());
+        assertEquals(0, disabled.size());
+        assertEquals(0, enabled.size());
+    }
+
+    @Test
+    void evictUnseen_shouldForgetAssignmentsMissingFromCompletedCrawl() {
+        // Arrange
+        AssignmentLinkIndex index = new AssignmentLinkIndex(true);
+        index.linksFor(new MoodleAssignment(1, 1, "Kept", "https://a.com", 100), extractor);
+        index.linksFor(new MoodleAssignment(2, 1, "Deleted", "https://b.com", 100), extractor);
+        long crawl = index.startCrawl();
+        index.linksFor(new MoodleAssignment(1, 1, "Kept", "https://a.com", 100), extractor);
+
+        // Act
+        int evicted = index.evictUnseen(crawl);
+
+        // Assert
+        assertEquals(1, evicted);
+        assertEquals(1, index.size());
+        index.linksFor(new MoodleAssignment(1, 1, "Kept", "https://a.com", 100), extractor);
+        assertEquals(2, extractions.get());
+    }
+}
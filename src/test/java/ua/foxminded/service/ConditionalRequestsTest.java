@@ -0,0 +1,111 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.ResponseValidators;
+import ua.foxminded.model.StoredLinkResult;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConditionalRequestsTest {
+
+    private static final String LINK = "https://docs.example.com/guide";
+    private static final String LAST_MODIFIED = "Wed, 21 Oct 2026 07:28:00 GMT";
+
+    private final ConditionalRequests conditionalRequests = new ConditionalRequests(true);
+
+    @Test
+    void conditionalHeaders_shouldBeEmpty_whenLinkIsUnknown() {
+        assertTrue(conditionalRequests.conditionalHeaders(LINK).isEmpty());
+    }
+
+    @Test
+    void conditionalHeaders_shouldSendBackValidatorsOfValidResponse() {
+        // Arrange
+        conditionalRequests.record(LINK, HttpStatus.OK, true, "\"v1\"", LAST_MODIFIED);
+
+        // Act
+        HttpHeaders headers = conditionalRequests.conditionalHeaders(LINK);
+
+        // Assert
+        assertEquals("\"v1\"", headers.getFirst(HttpHeaders.IF_NONE_MATCH));
+        assertEquals(LAST_MODIFIED, headers.getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+    }
+
+    @Test
+    void record_shouldKeepKnownValidators_whenNotModifiedOmitsThem() {
+        // Arrange
+        conditionalRequests.record(LINK, HttpStatus.OK, true, "\"v1\"", null);
+
+        // Act
+        conditionalRequests.record(LINK, HttpStatus.NOT_MODIFIED, true, null, null);
+
+        // Assert
+        assertEquals(Optional.of(new ResponseValidators("\"v1\"", null)), conditionalRequests.validatorsFor(LINK));
+    }
+
+    @Test
+    void record_shouldForgetValidators_whenLinkIsBrokenOrAnswersWithoutThem() {
+        // Arrange
+        conditionalRequests.record(LINK, HttpStatus.OK, true, "\"v1\"", null);
+        conditionalRequests.record("https://other.com", HttpStatus.OK, true, "\"v1\"", null);
+
+        // Act
+        conditionalRequests.record(LINK, HttpStatus.NOT_FOUND, false, "\"v2\"", null);
+        conditionalRequests.record("https://other.com", HttpStatus.OK, true, null, null);
+
+        // Assert
+        assertEquals(Optional.empty(), conditionalRequests.validatorsFor(LINK));
+        assertEquals(Optional.empty(), conditionalRequests.validatorsFor("https://other.com"));
+    }
+
+    @Test
+    void isValid_shouldAcceptNotModified_onlyForConditionalRequest() {
+        // Arrange
+        HttpHeaders conditional = new HttpHeaders();
+        conditional.setIfNoneMatch("\"v1\"");
+
+        // Act & Assert
+        assertTrue(ConditionalRequests.isValid(HttpStatus.NOT_MODIFIED, conditional));
+        assertFalse(ConditionalRequests.isValid(HttpStatus.NOT_MODIFIED, new HttpHeaders()));
+        assertTrue(ConditionalRequests.isValid(HttpStatus.OK, new HttpHeaders()));
+        assertFalse(ConditionalRequests.isValid(HttpStatus.GONE, conditional));
+    }
+
+    @Test
+    void replaceAll_shouldKeepValidatorsOfValidStoredResultsOnly() {
+        // Arrange
+        conditionalRequests.record("https://dropped.com", HttpStatus.OK, true, "\"v1\"", null);
+        ResponseValidators validators = new ResponseValidators(null, LAST_MODIFIED);
+
+        // Act
+        conditionalRequests.replaceAll(List.of(
+                new StoredLinkResult(new LinkValidationResult(LINK, true, "Course", "Task", "200 OK"),
+                        Instant.now(), validators),
+                new StoredLinkResult(new LinkValidationResult("https://broken.com", false, "Course", "Task",
+                        "404 NOT_FOUND"), Instant.now(), validators)));
+
+        // Assert
+        assertEquals(Optional.of(validators), conditionalRequests.validatorsFor(LINK));
+        assertEquals(Optional.empty(), conditionalRequests.validatorsFor("https://broken.com"));
+        assertEquals(Optional.empty(), conditionalRequests.validatorsFor("https://dropped.com"));
+    }
+
+    @Test
+    void validatorsFor_shouldBeEmpty_whenDisabled() {
+        // Arrange
+        ConditionalRequests disabled = new ConditionalRequests(false);
+
+        // Act
+        disabled.record(LINK, HttpStatus.OK, true, "\"v1\"", null);
+
+        // Assert
+        assertTrue(disabled.conditionalHeaders(LINK).isEmpty());
+    }
+}
@@ -0,0 +1,79 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int KEYS = 3000;
+
+    @Test
+    void nodeFor_AssignsEveryKey_ToTheOnlyNode() {
+        // Arrange
+        final ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a"), 16);
+
+        // Act & Assert
+        for (int key = 0; key < 100; key++) {
+            assertEquals("node-a", ring.nodeFor(String.valueOf(key)));
+        }
+    }
+
+    @Test
+    void nodeFor_DoesNotDependOnTheOrderOfNodes() {
+        // Arrange
+        final ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), 128);
+        final ConsistentHashRing reordered = new ConsistentHashRing(List.of("node-c", "node-a", "node-b"), 128);
+
+        // Act & Assert
+        for (int key = 0; key < KEYS; key++) {
+            assertEquals(ring.nodeFor(String.valueOf(key)), reordered.nodeFor(String.valueOf(key)));
+        }
+    }
+
+    @Test
+    void nodeFor_SpreadsKeysEvenly() {
+        // Arrange
+        final ConsistentHashRing ring = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), 128);
+
+        // Act
+        final Map<String, Integer> counts = new HashMap<>();
+        for (int key = 0; key < KEYS; key++) {
+            counts.merge(ring.nodeFor(String.valueOf(key)), 1, Integer::sum);
+        }
+
+        // Assert
+        assertEquals(3, counts.size());
+        counts.values().forEach(count -> assertTrue(count > KEYS / 5 && count < KEYS / 2, counts::toString));
+    }
+
+    @Test
+    void nodeFor_OnlyMovesKeysToTheNodeThatJoins() {
+        // Arrange
+        final ConsistentHashRing before = new ConsistentHashRing(List.of("node-a", "node-b"), 128);
+        final ConsistentHashRing after = new ConsistentHashRing(List.of("node-a", "node-b", "node-c"), 128);
+
+        // Act
+        int moved = 0;
+        for (int key = 0; key < KEYS; key++) {
+            final String owner = after.nodeFor(String.valueOf(key));
+            if (!owner.equals(before.nodeFor(String.valueOf(key)))) {
+                assertEquals("node-c", owner);
+                moved++;
+            }
+        }
+
+        // Assert - about a third of the keys
+        assertTrue(moved > KEYS / 5 && moved < KEYS / 2, String.valueOf(moved));
+    }
+
+    @Test
+    void constructor_RejectsEmptyRing() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing(List.of(), 16));
+    }
+}
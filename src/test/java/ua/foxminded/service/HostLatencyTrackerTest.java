@@ -0,0 +1,77 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class HostLatencyTrackerTest {
+
+    private final HostLatencyTracker tracker = new HostLatencyTracker(30, Duration.ofSeconds(2), 3,
+            Duration.ofHours(24));
+
+    private void recordMillis(final String host, final int count, final long millis) {
+        for (int i = 0; i < count; i++) {
+            tracker.record(host, Duration.ofMillis(millis));
+        }
+    }
+
+    @Test
+    void timeoutFor_UsesLinkTimeout_WhenHostHasTooFewSamples() {
+        // Arrange
+        recordMillis("example.com", HostLatencyTracker.MIN_SAMPLES - 1, 1000);
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(30), tracker.timeoutFor("example.com"));
+        assertEquals(Duration.ofSeconds(30), tracker.timeoutFor("unknown.com"));
+    }
+
+    @Test
+    void timeoutFor_MultipliesSlowestResponses() {
+        // Arrange
+        recordMillis("example.com", 20, 1000);
+        recordMillis("example.com", 1, 2500);
+
+        // Act & Assert
+        assertEquals(Duration.ofMillis(7500), tracker.timeoutFor("example.com"));
+    }
+
+    @Test
+    void timeoutFor_IsBoundedByMinimumAndLinkTimeout() {
+        // Arrange
+        recordMillis("fast.com", 10, 20);
+        recordMillis("slow.com", 10, 25_000);
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(2), tracker.timeoutFor("fast.com"));
+        assertEquals(Duration.ofSeconds(30), tracker.timeoutFor("slow.com"));
+    }
+
+    @Test
+    void timeoutFor_FollowsRecentResponses() {
+        // Arrange
+        recordMillis("example.com", HostLatencyTracker.WINDOW, 5000);
+        recordMillis("example.com", HostLatencyTracker.WINDOW, 1000);
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(3), tracker.timeoutFor("example.com"));
+    }
+
+    @Test
+    void record_ForgetsHostsWithoutResponsesForIdleAfter() {
+        // Arrange
+        final long start = System.nanoTime();
+        for (int i = 0; i < HostLatencyTracker.MIN_SAMPLES; i++) {
+            tracker.record("idle.com", Duration.ofMillis(100), start);
+        }
+        tracker.record("busy.com", Duration.ofMillis(100), start + Duration.ofHours(23).toNanos());
+
+        // Act
+        tracker.record("busy.com", Duration.ofMillis(100), start + Duration.ofHours(25).toNanos());
+
+        // Assert
+        assertEquals(1, tracker.trackedHosts());
+        assertEquals(Duration.ofSeconds(30), tracker.timeoutFor("idle.com"));
+    }
+}
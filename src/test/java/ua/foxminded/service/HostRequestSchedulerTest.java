@@ -0,0 +1,161 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostRequestSchedulerTest {
+
+    @Test
+    void schedule_shouldNotExceedPerHostLimit() {
+        // Arrange
+        HostRequestScheduler scheduler = new HostRequestScheduler(10, 2, 0);
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        // Act
+        Flux<Integer> results = Flux.range(0, 8)
+                .flatMap(i -> scheduler.schedule("example.com", () -> Mono.fromRunnable(() ->
+                                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max))
+                        .then(Mono.delay(Duration.ofMillis(20)))
+                        .doOnTerminate(running::decrementAndGet)
+                        .thenReturn(i)), Integer.MAX_VALUE);
+
+        // Assert
+        StepVerifier.create(results)
+                .expectNextCount(8)
+                .verifyComplete();
+        assertEquals(2, maxRunning.get());
+        assertEquals(0, scheduler.inFlight());
+    }
+
+    @Test
+    void schedule_shouldStartOtherHosts_whenOneHostIsSaturated() {
+        // Arrange
+        HostRequestScheduler scheduler = new HostRequestScheduler(3, 1, 0);
+        Sinks.Empty<Void> slowHost = Sinks.empty();
+        List<String> started = new CopyOnWriteArrayList<>();
+
+        // Act
+        scheduler.schedule("slow.com", () -> Mono.fromRunnable(() -> started.add("slow-1"))
+                .then(slowHost.asMono())).subscribe();
+        scheduler.schedule("slow.com", () -> Mono.fromRunnable(() -> started.add("slow-2"))
+                .then(slowHost.asMono())).subscribe();
+        String fast = scheduler.schedule("fast.com", () -> Mono.fromCallable(() -> {
+            started.add("fast");
+            return "done";
+        })).block(Duration.ofSeconds(1));
+
+        // Assert
+        assertEquals("done", fast);
+        assertEquals(List.of("slow-1", "fast"), started);
+        assertEquals(1, scheduler.queued());
+
+        slowHost.tryEmitEmpty();
+        assertEquals(List.of("slow-1", "fast", "slow-2"), started);
+    }
+
+    @Test
+    void schedule_shouldNotExceedGlobalLimit() {
+        // Arrange
+        HostRequestScheduler scheduler = new HostRequestScheduler(2, 2, 0);
+        Sinks.Empty<Void> release = Sinks.empty();
+
+        // Act
+        for (String host : List.of("a.com", "b.com", "c.com", "d.com")) {
+            scheduler.schedule(host, release::asMono).subscribe();
+        }
+
+        // Assert
+        assertEquals(2, scheduler.inFlight());
+        assertEquals(2, scheduler.queued());
+    }
+
+    @Test
+    void schedule_shouldSpaceRequests_whenRateLimitIsConfigured() {
+        // Arrange
+        HostRequestScheduler scheduler = new HostRequestScheduler(10, 10, 20);
+        List<Long> startTimes = new CopyOnWriteArrayList<>();
+
+        // Act
+        Flux.range(0, 3)
+                .flatMap(i -> scheduler.schedule("example.com",
+                        () -> Mono.fromRunnable(() -> startTimes.add(System.nanoTime()))))
+                .blockLast(Duration.ofSeconds(2));
+
+        // Assert
+        assertEquals(3, startTimes.size());
+        for (int i = 1; i < startTimes.size(); i++) {
+            assertTrue(Duration.ofNanos(startTimes.get(i) - startTimes.get(i - 1)).toMillis() >= 40);
+        }
+    }
+
+    @Test
+    void schedule_shouldForgetRateLimitedHost_onceItsIntervalElapses() throws InterruptedException {
+        // Arrange
+        HostRequestScheduler scheduler = new HostRequestScheduler(10, 10, 20);
+
+        // Act
+        scheduler.schedule("example.com", Mono::empty).block(Duration.ofSeconds(1));
+        int trackedAfterRequest = scheduler.trackedHosts();
+        Thread.sleep(200);
+
+        // Assert
+        assertEquals(1, trackedAfterRequest);
+        assertEquals(0, scheduler.trackedHosts());
+    }
+
+    @Test
+    void schedule_shouldWakeUpForEarlierHost_whenLaterWakeUpIsPending() throws InterruptedException {
+        // Arrange
+        HostRequestScheduler scheduler = new HostRequestScheduler(10, 10, 1);
+        Sinks.Empty<Void> release = Sinks.empty();
+        long firstStart = System.nanoTime();
+        scheduler.schedule("early.com", release::asMono).subscribe();
+        Thread.sleep(300);
+        // Its interval ends after early.com's, so forgetting it schedules the later wake-up first
+        scheduler.schedule("late.com", Mono::empty).block(Duration.ofSeconds(1));
+        release.tryEmitEmpty();
+
+        // Act
+        scheduler.schedule("early.com", Mono::empty).block(Duration.ofSeconds(2));
+
+        // Assert
+        assertTrue(Duration.ofNanos(System.nanoTime() - firstStart).toMillis() < 1200);
+    }
+
+    @Test
+    void schedule_shouldRemoveQueuedRequest_whenCancelled() {
+        // Arrange
+        HostRequestScheduler scheduler = new HostRequestScheduler(1, 1, 0);
+        Sinks.Empty<Void> release = Sinks.empty();
+        AtomicInteger secondStarted = new AtomicInteger();
+        scheduler.schedule("example.com", release::asMono).subscribe();
+
+        // Act
+        scheduler.schedule("example.com", () -> Mono.fromRunnable(secondStarted::incrementAndGet))
+                .subscribe()
+                .dispose();
+        release.tryEmitEmpty();
+
+        // Assert
+        assertEquals(0, secondStarted.get());
+        assertEquals(0, scheduler.inFlight());
+        assertEquals(0, scheduler.queued());
+    }
+
+    @Test
+    void hostOf_shouldReturnLowerCaseHost() {
+        assertEquals("example.com", HostRequestScheduler.hostOf("https://Example.COM/path?q=1"));
+        assertEquals("", HostRequestScheduler.hostOf("not a url"));
+    }
+}
@@ -0,0 +1,105 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HtmlLinkExtractorTest {
+
+    private final HtmlLinkExtractor extractor = new HtmlLinkExtractor();
+
+    @Test
+    void extract_shouldReturnAbsoluteAnchorLinks() {
+        // Arrange
+        String html = "<p>See <a href=\"https://example1.com\">one</a>, <a href='http://example2.com/a?b=1'>two</a>, "
+                + "<a href=\"/relative\">three</a> and <a href=\"mailto:x@y.com\">mail</a></p>";
+
+        // Act
+        List<String> links = extractor.extract(html);
+
+        // Assert
+        assertEquals(List.of("https://example1.com", "http://example2.com/a?b=1"), links);
+    }
+
+    @Test
+    void extract_shouldReturnLinksFromMediaAttributes() {
+        // Arrange
+        String html = """
+                <img src="https://cdn.example.com/diagram.png" alt="diagram">
+                <iframe width="560" src="https://www.youtube.com/embed/abc" allowfullscreen></iframe>
+                <video controls><source src="https://media.example.com/lecture.mp4" type="video/mp4"></video>
+                <object data="https://example.com/slides.pdf"></object>
+                """;
+
+        // Act
+        List<String> links = extractor.extract(html);
+
+        // Assert
+        assertEquals(List.of("https://cdn.example.com/diagram.png", "https://www.youtube.com/embed/abc",
+                "https://media.example.com/lecture.mp4", "https://example.com/slides.pdf"), links);
+    }
+
+    @Test
+    void extract_shouldHandleCaseUnquotedValuesAndEntities() {
+        // Arrange
+        String html = "<A HREF=https://example.com/a>x</A><a title=\"a > b\" href=\" https://example.com/b?x=1&amp;y=2 \">y</a>";
+
+        // Act
+        List<String> links = extractor.extract(html);
+
+        // Assert
+        assertEquals(List.of("https://example.com/a", "https://example.com/b?x=1&y=2"), links);
+    }
+
+    @Test
+    void extract_shouldIgnoreCommentsScriptsAndOtherAttributes() {
+        // Arrange
+        String html = "<!-- <a href=\"https://commented.com\">old</a> -->"
+                + "<script>var s = '<a href=\"https://script.com\">';</script>"
+                + "<div data-url=\"https://data.com\" class=\"x\">1 < 2</div>"
+                + "<a href=\"https://kept.com\">kept</a>";
+
+        // Act
+        List<String> links = extractor.extract(html);
+
+        // Assert
+        assertEquals(List.of("https://kept.com"), links);
+    }
+
+    @Test
+    void extract_shouldFallBackToJsoup_whenMarkupIsMalformed() {
+        // Arrange
+        String html = "<p><a href=\"https://example.com/ok\">ok</a> <a href=\"https://example.com/broken>broken</a></p>";
+
+        // Act
+        List<String> links = extractor.extract(html);
+
+        // Assert
+        assertEquals(extractor.extractWithJsoup(html), links);
+        assertTrue(links.contains("https://example.com/ok"));
+    }
+
+    @Test
+    void extract_shouldMatchJsoup_forWellFormedMarkup() {
+        // Arrange
+        String html = """
+                <h3>Task</h3>
+                <p>Read <a href="https://docs.oracle.com/javase/tutorial/" target="_blank">the tutorial</a>
+                and watch <a href="https://www.youtube.com/watch?v=abc&amp;t=10">the video</a>.</p>
+                <p><img src="https://example.com/img.png"><br/><a href="#anchor">local</a></p>
+                <ul><li><a href='https://github.com/example/repo'>repo</a></li></ul>
+                """;
+
+        // Act & Assert
+        assertEquals(extractor.extractWithJsoup(html), extractor.extract(html));
+    }
+
+    @Test
+    void extract_shouldReturnEmptyList_whenHtmlIsNullOrEmpty() {
+        assertTrue(extractor.extract(null).isEmpty());
+        assertTrue(extractor.extract("").isEmpty());
+    }
+}
@@ -1,16 +1,40 @@
 package ua.foxminded.service;
 
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpStatus;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
 import reactor.test.StepVerifier;
+import ua.foxminded.model.ClusterShard;
 import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.ResponseValidators;
+import ua.foxminded.model.ResultPage;
+import ua.foxminded.model.ResultQuery;
+import ua.foxminded.model.ResultSort;
+import ua.foxminded.model.ScanProgress;
+import ua.foxminded.model.StoredLinkResult;
+import ua.foxminded.repository.ClusterStore;
+import ua.foxminded.repository.LinkResultStore;
 
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
@@ -23,18 +47,36 @@ class LinkCacheServiceTest {
     private MoodleApiService moodleApiService;
 
     @Mock
-    private LinkValidatorService linkValidatorService;
+    private LinkValidator linkValidator;
+
+    @Mock
+    private LinkResultStore linkResultStore;
+
+    @Mock
+    private ClusterStore clusterStore;
 
     private LinkCacheService linkCacheService;
-    private final long cacheDurationHours = 24;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConditionalRequests conditionalRequests = new ConditionalRequests(true);
+
+    private LinkCacheService createService() {
+        return createService(linkResultStore);
+    }
+
+    private LinkCacheService createService(final LinkResultStore store) {
+        return new LinkCacheService(moodleApiService, linkValidator, store,
+                new LinkResultCache(72, 12, 1, 1000), conditionalRequests, new UrlCanonicalizer("utm_*", false),
+                new ScanMetrics(meterRegistry),
+                new ScanCoordinator(clusterStore, false, "node-1", 16, Duration.ofMinutes(1)), 500);
+    }
 
     @BeforeEach
     void setUp() {
-        linkCacheService = new LinkCacheService(moodleApiService, linkValidatorService, cacheDurationHours);
+        linkCacheService = createService();
     }
 
     @Test
-    void getLinkValidationResults_shouldReturnCachedResults_whenCacheIsValid() {
+    void streamLinkValidationResults_shouldReturnCachedResults_whenCacheIsValid() {
         // Arrange
         List<LinkValidationResult> cachedResults = List.of(
                 new LinkValidationResult("https://example.com", true, "Course1", "Task1", "200 OK")
@@ -42,88 +84,87 @@ class LinkCacheServiceTest {
 
         // Set up the cache with initial data
         when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
-        when(moodleApiService.extractAssignmentLinks(any())).thenReturn(Flux.just(
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", false, "Course1", "Task1", "")
         ));
-        when(linkValidatorService.validateLinks(any())).thenReturn(Flux.just(
+        when(linkValidator.validateLinks(any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", true, "Course1", "Task1", "200 OK")
         ));
 
         // First call to populate cache
-        StepVerifier.create(linkCacheService.getLinkValidationResults(true))
+        StepVerifier.create(linkCacheService.scan())
                 .expectNextMatches(results -> results.size() == 1)
                 .verifyComplete();
 
         // Reset mocks to verify they're not called again
-        reset(moodleApiService, linkValidatorService);
+        reset(moodleApiService, linkValidator);
 
         // Act & Assert - Second call should use cache
-        StepVerifier.create(linkCacheService.getLinkValidationResults(false))
-                .expectNextMatches(results -> 
-                    results.size() == 1 && 
-                    results.get(0).link().equals("https://example.com") &&
-                    results.get(0).valid())
+        StepVerifier.create(linkCacheService.streamLinkValidationResults(false))
+                .expectNextMatches(result -> result.link().equals("https://example.com") && result.valid())
                 .verifyComplete();
 
         // Verify that the services were not called again
         verify(moodleApiService, never()).getCourseIds();
-        verify(linkValidatorService, never()).validateLinks(any());
+        verify(linkValidator, never()).validateLinks(any());
     }
 
     @Test
-    void getLinkValidationResults_shouldFetchFreshResults_whenForceRefreshIsTrue() {
+    void streamLinkValidationResults_shouldFetchFreshResults_whenForceRefreshIsTrue() {
         // Arrange
         when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
-        when(moodleApiService.extractAssignmentLinks(any())).thenReturn(Flux.just(
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", false, "Course1", "Task1", "")
         ));
-        when(linkValidatorService.validateLinks(any())).thenReturn(Flux.just(
+        when(linkValidator.validateLinks(any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", true, "Course1", "Task1", "200 OK")
         ));
 
         // First call to populate cache
-        StepVerifier.create(linkCacheService.getLinkValidationResults(true))
+        StepVerifier.create(linkCacheService.scan())
                 .expectNextMatches(results -> results.size() == 1)
                 .verifyComplete();
 
         // Set up different results for second call
-        when(linkValidatorService.validateLinks(any())).thenReturn(Flux.just(
+        when(linkValidator.validateLinks(any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", false, "Course1", "Task1", "404 NOT_FOUND")
         ));
 
         // Act & Assert - Second call with forceRefresh=true should fetch fresh results
-        StepVerifier.create(linkCacheService.getLinkValidationResults(true))
-                .expectNextMatches(results -> 
-                    results.size() == 1 && 
-                    results.get(0).link().equals("https://example.com") &&
-                    !results.get(0).valid() &&
-                    results.get(0).statusMessage().equals("404 NOT_FOUND"))
+        StepVerifier.create(linkCacheService.streamLinkValidationResults(true))
+                .expectNextMatches(result ->
+                    result.link().equals("https://example.com") &&
+                    !result.valid() &&
+                    result.statusMessage().equals("404 NOT_FOUND"))
                 .verifyComplete();
+        assertEquals(List.of(
+                new LinkValidationResult("https://example.com", false, "Course1", "Task1", "404 NOT_FOUND")),
+                snapshot(linkCacheService));
 
         // Verify that the services were called again
         verify(moodleApiService, times(2)).getCourseIds();
-        verify(linkValidatorService, times(2)).validateLinks(any());
+        verify(linkValidator, times(2)).validateLinks(any());
     }
 
     @Test
-    void getLinkValidationResults_shouldFetchFreshResults_whenCacheIsInvalid() {
+    void streamLinkValidationResults_shouldFetchFreshResults_whenCacheIsEmpty() {
         // Arrange
         when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
-        when(moodleApiService.extractAssignmentLinks(any())).thenReturn(Flux.just(
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", false, "Course1", "Task1", "")
         ));
-        when(linkValidatorService.validateLinks(any())).thenReturn(Flux.just(
+        when(linkValidator.validateLinks(any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", true, "Course1", "Task1", "200 OK")
         ));
 
         // Act & Assert - First call should fetch results
-        StepVerifier.create(linkCacheService.getLinkValidationResults(false))
-                .expectNextMatches(results -> results.size() == 1)
+        StepVerifier.create(linkCacheService.streamLinkValidationResults(false))
+                .expectNextMatches(result -> result.valid())
                 .verifyComplete();
 
         // Verify that the services were called
         verify(moodleApiService).getCourseIds();
-        verify(linkValidatorService).validateLinks(any());
+        verify(linkValidator).validateLinks(any());
     }
 
     @Test
@@ -139,15 +180,15 @@ class LinkCacheServiceTest {
     void getLastUpdateTime_shouldReturnTime_whenCacheIsPopulated() {
         // Arrange
         when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
-        when(moodleApiService.extractAssignmentLinks(any())).thenReturn(Flux.just(
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", false, "Course1", "Task1", "")
         ));
-        when(linkValidatorService.validateLinks(any())).thenReturn(Flux.just(
+        when(linkValidator.validateLinks(any())).thenReturn(Flux.just(
                 new LinkValidationResult("https://example.com", true, "Course1", "Task1", "200 OK")
         ));
 
         // Populate cache
-        StepVerifier.create(linkCacheService.getLinkValidationResults(true))
+        StepVerifier.create(linkCacheService.scan())
                 .expectNextCount(1)
                 .verifyComplete();
 
@@ -159,4 +200,565 @@ class LinkCacheServiceTest {
         assertTrue(lastUpdateTime.isBefore(LocalDateTime.now().plusSeconds(1)));
         assertTrue(lastUpdateTime.isAfter(LocalDateTime.now().minusMinutes(1)));
     }
-}
\ No newline at end of file
+
+    @Test
+    void exportResults_shouldReturnStoredResults_whenStoreIsWarm() {
+        // Arrange
+        when(linkResultStore.load()).thenReturn(List.of(new StoredLinkResult(
+                new LinkValidationResult("https://example.com", true, "Course1", "Task1", "200 OK"),
+                Instant.now().minus(Duration.ofHours(1)))));
+        linkCacheService = createService();
+
+        // Act
+        List<LinkValidationResult> results = snapshot(linkCacheService);
+
+        // Assert
+        assertEquals(List.of(new LinkValidationResult("https://example.com", true, "Course1", "Task1", "200 OK")),
+                results);
+        assertNotNull(linkCacheService.getLastUpdateTime());
+        verify(moodleApiService, never()).getCourseIds();
+        verify(linkValidator, never()).validateLinks(any());
+    }
+
+    @Test
+    void warmUp_shouldRestoreEveryOccurrenceOfSharedUrls_afterRestart(@TempDir final Path storeDirectory) {
+        // Arrange
+        final LinkResultStore store = new LinkResultStore(JsonMapper.builder().findAndAddModules().build(),
+                storeDirectory.resolve("link-results.ndjson"), true);
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1, 2));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://shared.com", false, "Course1", "Task1", ""),
+                new LinkValidationResult("https://shared.com", false, "Course2", "Task1", ""),
+                new LinkValidationResult("https://other.com", false, "Course2", "Task2", "")));
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link -> new LinkValidationResult(
+                        link.link(), true, link.courseName(), link.taskName(), "200 OK")));
+        createService(store).scan().block();
+
+        // Act
+        final LinkCacheService restarted = createService(store);
+
+        // Assert - the shared URL is reported for both courses without a new scan
+        final List<LinkValidationResult> results = snapshot(restarted);
+        assertEquals(3, results.size());
+        assertTrue(results.contains(new LinkValidationResult("https://shared.com", true, "Course1", "Task1", "200 OK")));
+        assertTrue(results.contains(new LinkValidationResult("https://shared.com", true, "Course2", "Task1", "200 OK")));
+        verify(moodleApiService, times(1)).getCourseIds();
+    }
+
+    @Test
+    void scan_shouldRevalidateOnlyExpiredLinks_whileSnapshotIsServed() {
+        // Arrange
+        when(linkResultStore.load()).thenReturn(List.of(
+                new StoredLinkResult(new LinkValidationResult("https://fresh.com", true, "Course1", "Task1", "200 OK"),
+                        Instant.now().minus(Duration.ofHours(30))),
+                new StoredLinkResult(new LinkValidationResult("https://stale.com", true, "Course1", "Task2", "200 OK"),
+                        Instant.now().minus(Duration.ofHours(80)))));
+        linkCacheService = createService();
+
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://fresh.com", false, "Course2", "Task1", ""),
+                new LinkValidationResult("https://stale.com", false, "Course1", "Task2", "")
+        ));
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link -> new LinkValidationResult(
+                        link.link(), false, link.courseName(), link.taskName(), "404 NOT_FOUND")));
+
+        // Act & Assert - requests get the stored snapshot, however old, without starting a scan
+        StepVerifier.create(linkCacheService.streamLinkValidationResults(false))
+                .expectNextCount(1)
+                .expectNext(new LinkValidationResult("https://stale.com", true, "Course1", "Task2", "200 OK"))
+                .verifyComplete();
+        verify(moodleApiService, never()).getCourseIds();
+
+        StepVerifier.create(linkCacheService.scan())
+                .expectNextMatches(results -> results.size() == 2)
+                .verifyComplete();
+        verify(linkResultStore).replaceAll(argThat(stored -> stored.size() == 2));
+        verify(linkValidator).validateLinks(any());
+        assertEquals(1.0, meterRegistry.get(ScanMetrics.CACHE_LOOKUPS).tag("result", "hit").counter().count());
+        assertEquals(1.0, meterRegistry.get(ScanMetrics.CACHE_LOOKUPS).tag("result", "miss").counter().count());
+        assertEquals(1, meterRegistry.get(ScanMetrics.SCANS).tag("outcome", "success").timer().count());
+
+        assertEquals(List.of(
+                new LinkValidationResult("https://fresh.com", true, "Course2", "Task1", "200 OK"),
+                new LinkValidationResult("https://stale.com", false, "Course1", "Task2", "404 NOT_FOUND")),
+                snapshot(linkCacheService));
+    }
+
+    @Test
+    void scan_shouldShareSingleScan_whenCalledConcurrently() {
+        // Arrange
+        Sinks.One<Integer> courseIds = Sinks.one();
+        when(moodleApiService.getCourseIds()).thenReturn(courseIds.asMono().flux());
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenAnswer(invocation ->
+                ((Flux<Integer>) invocation.getArgument(0)).map(id ->
+                        new LinkValidationResult("https://example.com", false, "Course1", "Task1", "")));
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link -> new LinkValidationResult(
+                        link.link(), true, link.courseName(), link.taskName(), "200 OK")));
+
+        // Act
+        Mono<List<LinkValidationResult>> first = linkCacheService.scan();
+        Mono<List<LinkValidationResult>> second = linkCacheService.scan();
+        Mono<List<LinkValidationResult>> third = linkCacheService.scan();
+
+        // Assert
+        StepVerifier.create(Mono.zip(first, second, third))
+                .then(() -> courseIds.tryEmitValue(1))
+                .expectNextMatches(results ->
+                    results.getT1().size() == 1 &&
+                    results.getT1() == results.getT2() &&
+                    results.getT2() == results.getT3())
+                .verifyComplete();
+
+        verify(moodleApiService, times(1)).getCourseIds();
+        verify(linkValidator, times(1)).validateLinks(any());
+    }
+
+    @Test
+    void scan_shouldValidateEachCanonicalUrlOnce_andReportEveryOccurrence() {
+        // Arrange
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1, 2));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://example.com/a", false, "Course1", "Task1", ""),
+                new LinkValidationResult("https://Example.com/a#intro", false, "Course1", "Task2", ""),
+                new LinkValidationResult("https://example.com/a?utm_source=lms", false, "Course2", "Task1", ""),
+                new LinkValidationResult("https://example.com/a", false, "Course2", "Task1", ""),
+                new LinkValidationResult("https://other.com", false, "Course2", "Task1", "")
+        ));
+        List<LinkValidationResult> validated = new ArrayList<>();
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0))
+                        .doOnNext(validated::add)
+                        .map(link -> new LinkValidationResult(link.link(), false, link.courseName(),
+                                link.taskName(), "404 NOT_FOUND")));
+
+        // Act & Assert
+        StepVerifier.create(linkCacheService.scan())
+                .expectNextMatches(results ->
+                    results.size() == 4 &&
+                    results.contains(new LinkValidationResult("https://example.com/a", false, "Course1", "Task1", "404 NOT_FOUND")) &&
+                    results.contains(new LinkValidationResult("https://Example.com/a#intro", false, "Course1", "Task2", "404 NOT_FOUND")) &&
+                    results.contains(new LinkValidationResult("https://example.com/a?utm_source=lms", false, "Course2", "Task1", "404 NOT_FOUND")) &&
+                    results.contains(new LinkValidationResult("https://other.com", false, "Course2", "Task1", "404 NOT_FOUND")))
+                .verifyComplete();
+
+        assertEquals(List.of("https://example.com/a", "https://other.com"),
+                validated.stream().map(LinkValidationResult::link).toList());
+        verify(linkResultStore).replaceAll(argThat(stored -> stored.size() == 2));
+    }
+
+    @Test
+    void refreshExpiredLinks_shouldRevalidateOnlyExpiredLinks() {
+        // Arrange
+        when(linkResultStore.load()).thenReturn(List.of(
+                new StoredLinkResult(new LinkValidationResult("https://valid.com", true, "Course1", "Task1", "200 OK"),
+                        Instant.now().minus(Duration.ofHours(2))),
+                new StoredLinkResult(new LinkValidationResult("https://error.com", false, "Course1", "Task2", "Connection reset"),
+                        Instant.now().minus(Duration.ofHours(2)))));
+        linkCacheService = createService();
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link -> new LinkValidationResult(
+                        link.link(), true, link.courseName(), link.taskName(), "200 OK")));
+
+        // Act
+        StepVerifier.create(linkCacheService.refreshExpiredLinks())
+                .verifyComplete();
+
+        // Assert
+        List<LinkValidationResult> results = snapshot(linkCacheService);
+        assertEquals(2, results.size());
+        assertTrue(results.contains(new LinkValidationResult("https://error.com", true, "Course1", "Task2", "200 OK")));
+        verify(linkResultStore).append(argThat(stored ->
+                stored.size() == 1 && stored.iterator().next().result().link().equals("https://error.com")));
+        verify(moodleApiService, never()).getCourseIds();
+    }
+
+    @Test
+    void refreshExpiredLinks_shouldKeepValidatorsOfRevalidatedLinks() {
+        // Arrange
+        when(linkResultStore.load()).thenReturn(List.of(
+                new StoredLinkResult(new LinkValidationResult("https://docs.com", true, "Course1", "Task1", "200 OK"),
+                        Instant.now().minus(Duration.ofDays(4)), new ResponseValidators("\"v1\"", null))));
+        linkCacheService = createService();
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link -> {
+                    conditionalRequests.record(link.link(), HttpStatus.OK, true, "\"v2\"", null);
+                    return new LinkValidationResult(link.link(), true, link.courseName(), link.taskName(), "200 OK");
+                }));
+        assertEquals(Optional.of(new ResponseValidators("\"v1\"", null)),
+                conditionalRequests.validatorsFor("https://docs.com"));
+
+        // Act
+        StepVerifier.create(linkCacheService.refreshExpiredLinks())
+                .verifyComplete();
+
+        // Assert
+        verify(linkResultStore).append(argThat(stored ->
+                stored.iterator().next().validators().equals(new ResponseValidators("\"v2\"", null))));
+    }
+
+    @Test
+    void refreshExpiredLinks_shouldDoNothing_whenNothingExpired() {
+        // Act & Assert
+        StepVerifier.create(linkCacheService.refreshExpiredLinks())
+                .verifyComplete();
+
+        verify(linkValidator, never()).validateLinks(any());
+    }
+
+    @Test
+    void streamLinkValidationResults_shouldEmitResultsWhileScanRuns() {
+        // Arrange
+        Sinks.Many<LinkValidationResult> validated = Sinks.many().unicast().onBackpressureBuffer();
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://a.com", false, "Course1", "Task1", ""),
+                new LinkValidationResult("https://b.com", false, "Course1", "Task2", "")));
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation -> {
+            ((Flux<LinkValidationResult>) invocation.getArgument(0)).subscribe();
+            return validated.asFlux();
+        });
+
+        // Act & Assert
+        StepVerifier.create(linkCacheService.streamLinkValidationResults(true))
+                .then(() -> validated.tryEmitNext(
+                        new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK")))
+                .expectNextMatches(result -> result.link().equals("https://a.com") && result.valid())
+                .then(() -> validated.tryEmitNext(
+                        new LinkValidationResult("https://b.com", false, "Course1", "Task2", "404 NOT_FOUND")))
+                .expectNextMatches(result -> result.link().equals("https://b.com") && !result.valid())
+                .then(validated::tryEmitComplete)
+                .verifyComplete();
+
+        assertTrue(linkCacheService.hasCachedResults());
+    }
+
+    @Test
+    void streamLinkValidationResults_shouldJoinScanInProgress() {
+        // Arrange
+        Sinks.Many<LinkValidationResult> validated = Sinks.many().unicast().onBackpressureBuffer();
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://a.com", false, "Course1", "Task1", "")));
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation -> {
+            ((Flux<LinkValidationResult>) invocation.getArgument(0)).subscribe();
+            return validated.asFlux();
+        });
+        Flux<LinkValidationResult> first = linkCacheService.streamLinkValidationResults(true);
+        validated.tryEmitNext(new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK"));
+
+        // Act
+        Flux<LinkValidationResult> joined = linkCacheService.streamLinkValidationResults(false);
+
+        // Assert
+        StepVerifier.create(joined)
+                .expectNextMatches(result -> result.link().equals("https://a.com"))
+                .then(validated::tryEmitComplete)
+                .verifyComplete();
+        StepVerifier.create(first)
+                .expectNextCount(1)
+                .verifyComplete();
+        verify(linkValidator, times(1)).validateLinks(any());
+    }
+
+    @Test
+    void streamLinkValidationResults_shouldEmitCachedResults_whenCacheIsValid() {
+        // Arrange
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://a.com", false, "Course1", "Task1", ""),
+                new LinkValidationResult("https://a.com", false, "Course2", "Task9", "")));
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link -> new LinkValidationResult(
+                        link.link(), true, link.courseName(), link.taskName(), "200 OK")));
+        linkCacheService.scan().block();
+
+        // Act & Assert
+        StepVerifier.create(linkCacheService.streamLinkValidationResults(false))
+                .expectNextMatches(result -> result.courseName().equals("Course1"))
+                .expectNextMatches(result -> result.courseName().equals("Course2"))
+                .verifyComplete();
+        verify(linkValidator, times(1)).validateLinks(any());
+    }
+
+    @Test
+    void findResults_shouldPageSnapshot_andFollowRevalidatedLinks() {
+        // Arrange
+        when(linkResultStore.load()).thenReturn(List.of(
+                new StoredLinkResult(new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK"),
+                        Instant.now().minus(Duration.ofHours(80))),
+                new StoredLinkResult(new LinkValidationResult("https://b.com", false, "Course1", "Task2", "404 NOT_FOUND"),
+                        Instant.now().minus(Duration.ofHours(1)))));
+        linkCacheService = createService();
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link -> new LinkValidationResult(
+                        link.link(), false, link.courseName(), link.taskName(), "410 GONE")));
+        ResultQuery brokenLinks = new ResultQuery(null, null, null, false, ResultSort.LINK, false, 1, 10);
+
+        // Act
+        ResultPage before = linkCacheService.findResults(brokenLinks);
+        linkCacheService.refreshExpiredLinks().block();
+        ResultPage after = linkCacheService.findResults(brokenLinks);
+
+        // Assert
+        assertEquals(List.of("https://b.com"), before.results().stream().map(LinkValidationResult::link).toList());
+        assertEquals(List.of("https://a.com", "https://b.com"),
+                after.results().stream().map(LinkValidationResult::link).toList());
+        assertEquals(2, after.brokenCount());
+    }
+
+    @Test
+    void findResults_shouldReturnEmptyPage_whenNothingIsCached() {
+        // Act
+        ResultPage page = linkCacheService.findResults(new ResultQuery(null, null, null, null, null, false, 1, 10));
+
+        // Assert
+        assertTrue(page.results().isEmpty());
+        assertEquals(0, page.checkedCount());
+    }
+
+    @Test
+    void exportResults_shouldEmitMatchingResultsOfSnapshot() {
+        // Arrange
+        when(linkResultStore.load()).thenReturn(List.of(
+                new StoredLinkResult(new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK"),
+                        Instant.now()),
+                new StoredLinkResult(new LinkValidationResult("https://b.com", false, "Course1", "Task2", "404 NOT_FOUND"),
+                        Instant.now())));
+        linkCacheService = createService();
+
+        // Act & Assert
+        StepVerifier.create(linkCacheService.exportResults(
+                        new ResultQuery(null, null, "404", null, ResultSort.LINK, false, 1, 1)))
+                .expectNextMatches(result -> result.link().equals("https://b.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void exportResults_shouldBeEmpty_whenNothingIsCached() {
+        // Act & Assert
+        StepVerifier.create(linkCacheService.exportResults(new ResultQuery(null, null, null, null, null, false, 1, 1)))
+                .verifyComplete();
+    }
+
+    @Test
+    void getScanProgress_shouldCountCoursesAndLinks_whileScanRuns() {
+        // Arrange
+        Sinks.Many<LinkValidationResult> validated = Sinks.many().unicast().onBackpressureBuffer();
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1, 2));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenAnswer(invocation ->
+                ((Flux<Integer>) invocation.getArgument(0)).count()
+                        .doOnNext(courses -> ((IntConsumer) invocation.getArgument(1)).accept(courses.intValue()))
+                        .thenMany(Flux.just(
+                                new LinkValidationResult("https://a.com", false, "Course1", "Task1", ""),
+                                new LinkValidationResult("https://b.com", false, "Course2", "Task1", ""))));
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation -> {
+            ((Flux<LinkValidationResult>) invocation.getArgument(0)).subscribe();
+            return validated.asFlux();
+        });
+        assertTrue(linkCacheService.getScanProgress().isEmpty());
+
+        // Act
+        final Mono<List<LinkValidationResult>> scan = linkCacheService.scan();
+        StepVerifier.create(scan)
+                .then(() -> validated.tryEmitNext(
+                        new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK")))
+                .then(() -> {
+                    // Assert
+                    final ScanProgress progress = linkCacheService.getScanProgress().orElseThrow();
+                    assertEquals(ScanProgress.State.RUNNING, progress.state());
+                    assertEquals(2, progress.coursesFetched());
+                    assertEquals(2, progress.coursesTotal());
+                    assertEquals(2, progress.linksFound());
+                    assertEquals(1, progress.linksValidated());
+                    assertNull(progress.finishedAt());
+                })
+                .then(() -> validated.tryEmitNext(
+                        new LinkValidationResult("https://b.com", true, "Course2", "Task1", "200 OK")))
+                .then(validated::tryEmitComplete)
+                .expectNextCount(1)
+                .verifyComplete();
+
+        final ScanProgress progress = linkCacheService.getScanProgress().orElseThrow();
+        assertEquals(ScanProgress.State.COMPLETED, progress.state());
+        assertEquals(2, progress.linksValidated());
+        assertEquals(Duration.ZERO, progress.estimatedRemaining());
+        assertNotNull(progress.finishedAt());
+    }
+
+    @Test
+    void cancelScan_shouldStopScan_andKeepValidatedLinks() {
+        // Arrange
+        when(linkResultStore.load()).thenReturn(List.of(
+                new StoredLinkResult(new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK"),
+                        Instant.now().minus(Duration.ofHours(80))),
+                new StoredLinkResult(new LinkValidationResult("https://b.com", true, "Course1", "Task2", "200 OK"),
+                        Instant.now().minus(Duration.ofHours(80)))));
+        linkCacheService = createService();
+        Sinks.Many<LinkValidationResult> validated = Sinks.many().unicast().onBackpressureBuffer();
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://a.com", false, "Course1", "Task1", ""),
+                new LinkValidationResult("https://b.com", false, "Course1", "Task2", "")));
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation -> {
+            ((Flux<LinkValidationResult>) invocation.getArgument(0)).subscribe();
+            return validated.asFlux();
+        });
+
+        // Act
+        StepVerifier.create(linkCacheService.scan())
+                .then(() -> validated.tryEmitNext(
+                        new LinkValidationResult("https://a.com", false, "Course1", "Task1", "404 NOT_FOUND")))
+                .then(() -> assertTrue(linkCacheService.cancelScan()))
+                .expectNextMatches(results -> results.size() == 2)
+                .verifyComplete();
+
+        // Assert - the validated link updates the snapshot, the other keeps its previous result
+        assertEquals(ScanProgress.State.CANCELLED, linkCacheService.getScanProgress().orElseThrow().state());
+        assertFalse(linkCacheService.isScanInProgress());
+        assertEquals(0, validated.currentSubscriberCount());
+        assertEquals(List.of(
+                new LinkValidationResult("https://a.com", false, "Course1", "Task1", "404 NOT_FOUND"),
+                new LinkValidationResult("https://b.com", true, "Course1", "Task2", "200 OK")),
+                snapshot(linkCacheService));
+        verify(linkResultStore).append(argThat(stored -> stored.size() == 1));
+        verify(linkResultStore, never()).replaceAll(any());
+    }
+
+    @Test
+    void scan_shouldMergeValidatedLinks_andKeepTheOthers_whenDeadlineExpiresMidScan() {
+        // Arrange
+        when(linkResultStore.load()).thenReturn(List.of(
+                new StoredLinkResult(new LinkValidationResult("https://fast.com", true, "Course1", "Task1", "200 OK"),
+                        Instant.now().minus(Duration.ofHours(80))),
+                new StoredLinkResult(new LinkValidationResult("https://slow.com", true, "Course1", "Task2", "200 OK"),
+                        Instant.now().minus(Duration.ofHours(80)))));
+        linkCacheService = createService();
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.just(1));
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenReturn(Flux.just(
+                new LinkValidationResult("https://fast.com", false, "Course1", "Task1", ""),
+                new LinkValidationResult("https://slow.com", false, "Course1", "Task2", ""),
+                new LinkValidationResult("https://new.com", false, "Course1", "Task3", "")));
+        // The deadline passes while the checks of slow.com and new.com are still running
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0))
+                        .flatMap(link -> link.link().equals("https://fast.com")
+                                ? Mono.just(new LinkValidationResult(link.link(), false, link.courseName(),
+                                        link.taskName(), "404 NOT_FOUND"))
+                                : Mono.never())
+                        .takeUntilOther(Mono.delay(Duration.ofMillis(100))));
+
+        // Act
+        List<LinkValidationResult> results = linkCacheService.scan().block(Duration.ofSeconds(5));
+
+        // Assert
+        assertEquals(3, results.size());
+        assertTrue(results.contains(new LinkValidationResult("https://fast.com", false, "Course1", "Task1", "404 NOT_FOUND")));
+        assertTrue(results.contains(new LinkValidationResult("https://slow.com", true, "Course1", "Task2", "200 OK")));
+        assertTrue(results.contains(new LinkValidationResult("https://new.com", false, "Course1", "Task3",
+                "Not checked: scan deadline reached")));
+        assertEquals(ScanProgress.State.TRUNCATED, linkCacheService.getScanProgress().orElseThrow().state());
+        verify(linkResultStore).append(argThat(stored -> stored.size() == 1));
+        verify(linkResultStore, never()).replaceAll(any());
+    }
+
+    @Test
+    void cancelScan_shouldReturnFalse_whenNoScanIsRunning() {
+        // Act & Assert
+        assertFalse(linkCacheService.cancelScan());
+    }
+
+    @Test
+    void scan_shouldValidateOnlyOwnCourses_andServeMergedResults_inClusterMode(@TempDir final Path clusterDirectory) {
+        // Arrange
+        final ClusterStore sharedStore = new ClusterStore(JsonMapper.builder().findAndAddModules().build(),
+                clusterDirectory);
+        final LinkCacheService nodeA = createClusterService(sharedStore, "node-a");
+        final LinkCacheService nodeB = createClusterService(sharedStore, "node-b");
+        final List<Integer> scannedCourses = new ArrayList<>();
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.range(1, 20));
+        stubCourseLinks(scannedCourses::add);
+        when(linkValidator.validateLinks(any())).thenAnswer(invocation ->
+                ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link -> new LinkValidationResult(
+                        link.link(), true, link.courseName(), link.taskName(), "200 OK")));
+        nodeA.syncCluster();
+        nodeB.syncCluster();
+
+        // Act
+        final List<LinkValidationResult> shardA = nodeA.scan().block();
+        final int coursesOfA = scannedCourses.size();
+        nodeB.scan().block();
+        nodeA.syncCluster();
+
+        // Assert - each course was scanned by one node, and both serve all of them
+        assertEquals(20, scannedCourses.size());
+        assertEquals(20, scannedCourses.stream().distinct().count());
+        assertTrue(coursesOfA > 0 && coursesOfA < 20);
+        assertEquals(coursesOfA, shardA.size());
+        assertEquals(20, snapshot(nodeA).size());
+        assertEquals(20, snapshot(nodeB).size());
+    }
+
+    @Test
+    void refreshExpiredLinks_shouldPublishShard_soThatClusterSyncKeepsRevalidatedResults(
+            @TempDir final Path clusterDirectory) {
+        // Arrange
+        final ClusterStore sharedStore = new ClusterStore(JsonMapper.builder().findAndAddModules().build(),
+                clusterDirectory);
+        final LinkCacheService nodeA = createClusterService(sharedStore, "node-a");
+        when(moodleApiService.getCourseIds()).thenReturn(Flux.range(1, 4));
+        stubCourseLinks(courseId -> { });
+        when(linkValidator.validateLinks(any()))
+                .thenAnswer(invocation -> ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link ->
+                        new LinkValidationResult(link.link(), false, link.courseName(), link.taskName(),
+                                "Connection reset")))
+                .thenAnswer(invocation -> ((Flux<LinkValidationResult>) invocation.getArgument(0)).map(link ->
+                        new LinkValidationResult(link.link(), true, link.courseName(), link.taskName(), "200 OK")));
+        nodeA.scan().block();
+
+        // Act - another node publishes its shard after the revalidation
+        nodeA.refreshExpiredLinks().block();
+        sharedStore.writeShard(new ClusterShard("node-b", Instant.now().plusSeconds(1), Map.of(99,
+                List.of(new LinkValidationResult("https://course99.com", true, "Course99", "Task1", "200 OK")))));
+        nodeA.syncCluster();
+
+        // Assert
+        final List<LinkValidationResult> results = snapshot(nodeA);
+        assertEquals(5, results.size());
+        assertTrue(results.stream().allMatch(LinkValidationResult::valid));
+    }
+
+    /**
+     * Every result of the current snapshot, read as the export endpoints read it.
+     */
+    private static List<LinkValidationResult> snapshot(final LinkCacheService service) {
+        return service.exportResults(new ResultQuery(null, null, null, null, ResultSort.LINK, false, 1, 10))
+                .collectList()
+                .block();
+    }
+
+    /**
+     * Stubs Moodle with one link per course, reporting each course by name as the real service does.
+     */
+    private void stubCourseLinks(final Consumer<Integer> scannedCourse) {
+        when(moodleApiService.extractAssignmentLinks(any(), any(), any())).thenAnswer(invocation -> {
+            final BiConsumer<Integer, String> courseFound = invocation.getArgument(2);
+            return ((Flux<Integer>) invocation.getArgument(0))
+                    .doOnNext(scannedCourse)
+                    .doOnNext(courseId -> courseFound.accept(courseId, "Course" + courseId))
+                    .map(courseId -> new LinkValidationResult("https://course" + courseId + ".com", false,
+                            "Course" + courseId, "Task1", ""));
+        });
+    }
+
+    private LinkCacheService createClusterService(final ClusterStore store, final String nodeId) {
+        // errors expire at once, so that they can be revalidated
+        return new LinkCacheService(moodleApiService, linkValidator, linkResultStore,
+                new LinkResultCache(72, 12, 0, 1000), conditionalRequests, new UrlCanonicalizer("utm_*", false),
+                new ScanMetrics(meterRegistry),
+                new ScanCoordinator(store, true, nodeId, 64, Duration.ofMinutes(1)), 500);
+    }
+}
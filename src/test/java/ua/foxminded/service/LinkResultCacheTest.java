@@ -0,0 +1,78 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.StoredLinkResult;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LinkResultCacheTest {
+
+    private final Instant now = Instant.now();
+    private final LinkResultCache linkResultCache = new LinkResultCache(72, 12, 1, 3);
+
+    @Test
+    void classify_shouldDistinguishValidBrokenAndErrorResults() {
+        assertEquals(LinkResultCache.Outcome.VALID, LinkResultCache.classify(result("https://a.com", true, "200 OK")));
+        assertEquals(LinkResultCache.Outcome.BROKEN,
+                LinkResultCache.classify(result("https://a.com", false, "404 NOT_FOUND")));
+        assertEquals(LinkResultCache.Outcome.ERROR,
+                LinkResultCache.classify(result("https://a.com", false, "Connection refused")));
+    }
+
+    @Test
+    void getFresh_shouldApplyTtlByOutcome() {
+        // Arrange
+        Instant checkedAt = now.minus(Duration.ofHours(6));
+        linkResultCache.put(new StoredLinkResult(result("https://valid.com", true, "200 OK"), checkedAt));
+        linkResultCache.put(new StoredLinkResult(result("https://broken.com", false, "404 NOT_FOUND"), checkedAt));
+        linkResultCache.put(new StoredLinkResult(result("https://error.com", false, "Read timed out"), checkedAt));
+
+        // Act & Assert
+        assertTrue(linkResultCache.getFresh("https://valid.com", now).isPresent());
+        assertTrue(linkResultCache.getFresh("https://broken.com", now).isPresent());
+        assertTrue(linkResultCache.getFresh("https://error.com", now).isEmpty());
+        assertTrue(linkResultCache.getFresh("https://broken.com", now.plus(Duration.ofHours(7))).isEmpty());
+        assertTrue(linkResultCache.getFresh("https://unknown.com", now).isEmpty());
+    }
+
+    @Test
+    void expired_shouldReturnOldestExpiriesFirst_upToLimit() {
+        // Arrange
+        linkResultCache.put(new StoredLinkResult(result("https://a.com", false, "timeout"), now.minus(Duration.ofHours(2))));
+        linkResultCache.put(new StoredLinkResult(result("https://b.com", false, "timeout"), now.minus(Duration.ofHours(5))));
+        linkResultCache.put(new StoredLinkResult(result("https://c.com", true, "200 OK"), now));
+
+        // Act
+        List<StoredLinkResult> expired = linkResultCache.expired(now, 1);
+
+        // Assert
+        assertEquals(1, expired.size());
+        assertEquals("https://b.com", expired.get(0).result().link());
+    }
+
+    @Test
+    void put_shouldEvictLeastRecentlyUsedEntry_whenFull() {
+        // Arrange
+        linkResultCache.put(new StoredLinkResult(result("https://a.com", true, "200 OK"), now));
+        linkResultCache.put(new StoredLinkResult(result("https://b.com", true, "200 OK"), now));
+        linkResultCache.put(new StoredLinkResult(result("https://c.com", true, "200 OK"), now));
+        linkResultCache.getFresh("https://a.com", now);
+
+        // Act
+        linkResultCache.put(new StoredLinkResult(result("https://d.com", true, "200 OK"), now));
+
+        // Assert
+        assertEquals(3, linkResultCache.size());
+        assertTrue(linkResultCache.getFresh("https://a.com", now).isPresent());
+        assertTrue(linkResultCache.getFresh("https://b.com", now).isEmpty());
+    }
+
+    private static LinkValidationResult result(final String link, final boolean valid, final String statusMessage) {
+        return new LinkValidationResult(link, valid, "Course", "Task", statusMessage);
+    }
+}
@@ -1,52 +1,70 @@
 package ua.foxminded.service;
 
-import org.junit.jupiter.api.BeforeEach;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.Test;
-import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.Mock;
-import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.ClientRequest;
 import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
 import org.springframework.web.reactive.function.client.WebClient;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
 import reactor.test.StepVerifier;
 import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.Redirect;
+import ua.foxminded.model.ResponseValidators;
 
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.ArgumentMatchers.anyString;
-import static org.mockito.Mockito.lenient;
-import static org.mockito.Mockito.when;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
 
-@ExtendWith(MockitoExtension.class)
-class LinkValidatorServiceTest {
-
-    @Mock
-    private WebClient.Builder webClientBuilder;
+import static org.junit.jupiter.api.Assertions.assertEquals;
 
-    @Mock
-    private WebClient webClient;
+class LinkValidatorServiceTest {
 
-    @Mock
-    private WebClient.RequestHeadersUriSpec requestHeadersUriSpec;
+    private final List<ClientRequest> requests = new CopyOnWriteArrayList<>();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConditionalRequests conditionalRequests = new ConditionalRequests(true);
+    private final RedirectCache redirectCache = new RedirectCache(Duration.ofDays(7), Duration.ofHours(1), 100);
+    private HostLatencyTracker hostLatencyTracker =
+            new HostLatencyTracker(30, Duration.ofSeconds(2), 3, Duration.ofHours(24));
 
-    @Mock
-    private WebClient.RequestHeadersSpec requestHeadersSpec;
+    private LinkValidatorService createService(final ExchangeFunction exchangeFunction, final String headHostileHosts,
+                                               final Duration scanDeadline) {
+        return createService(exchangeFunction, headHostileHosts, scanDeadline, 4,
+                new TransientFailureRetry(2, Duration.ofMillis(1), Duration.ofSeconds(1)));
+    }
 
-    @Mock
-    private WebClient.ResponseSpec responseSpec;
+    private LinkValidatorService createService(final ExchangeFunction exchangeFunction, final String headHostileHosts,
+                                               final Duration scanDeadline, final int maxPerHost,
+                                               final TransientFailureRetry transientFailureRetry) {
+        final ExchangeFunction recordingExchange = request -> {
+            requests.add(request);
+            return exchangeFunction.exchange(request);
+        };
+        // An explicit exchange function takes precedence over the Reactor Netty connector set by the service
+        return new LinkValidatorService(WebClient.builder().exchangeFunction(recordingExchange),
+                HttpClient.create(), hostLatencyTracker,
+                transientFailureRetry, new ScanMetrics(meterRegistry),
+                conditionalRequests, redirectCache, scanDeadline, 10, maxPerHost, 0, headHostileHosts);
+    }
 
-    private LinkValidatorService linkValidatorService;
+    private LinkValidatorService createService(final ExchangeFunction exchangeFunction, final String headHostileHosts) {
+        return createService(exchangeFunction, headHostileHosts, Duration.ofMinutes(30));
+    }
 
-    @BeforeEach
-    void setUp() {
-        // Use lenient() to avoid UnnecessaryStubbingException for tests that don't use these mocks
-        lenient().when(webClientBuilder.clientConnector(any())).thenReturn(webClientBuilder);
-        lenient().when(webClientBuilder.build()).thenReturn(webClient);
-        lenient().when(webClient.get()).thenReturn(requestHeadersUriSpec);
-        lenient().when(requestHeadersUriSpec.uri(anyString())).thenReturn(requestHeadersSpec);
+    private LinkValidatorService createService(final ExchangeFunction exchangeFunction) {
+        return createService(exchangeFunction, "");
+    }
 
-        linkValidatorService = new LinkValidatorService(webClientBuilder, 30, 10);
+    private static ExchangeFunction respondWith(final HttpStatus status) {
+        return request -> Mono.just(ClientResponse.create(status).build());
     }
 
     @Test
@@ -54,19 +72,15 @@ class LinkValidatorServiceTest {
         // Arrange
         String validLink = "https://example.com";
         LinkValidationResult input = new LinkValidationResult(validLink, false, "Course", "Task", "");
-
-        ClientResponse clientResponse = ClientResponse.create(HttpStatus.OK).build();
-
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.toBodilessEntity()).thenReturn(Mono.just(clientResponse.toEntity(Void.class).block()));
+        LinkValidatorService linkValidatorService = createService(respondWith(HttpStatus.OK));
 
         // Act & Assert
         StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
-                .expectNextMatches(result -> 
-                    result.link().equals(validLink) && 
-                    result.valid() && 
-                    result.courseName().equals("Course") && 
-                    result.taskName().equals("Task") && 
+                .expectNextMatches(result ->
+                    result.link().equals(validLink) &&
+                    result.valid() &&
+                    result.courseName().equals("Course") &&
+                    result.taskName().equals("Task") &&
                     result.statusMessage().equals("200 OK"))
                 .verifyComplete();
     }
@@ -76,21 +90,21 @@ class LinkValidatorServiceTest {
         // Arrange
         String invalidLink = "https://invalid-example.com";
         LinkValidationResult input = new LinkValidationResult(invalidLink, false, "Course", "Task", "");
-
-        ClientResponse clientResponse = ClientResponse.create(HttpStatus.NOT_FOUND).build();
-
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.toBodilessEntity()).thenReturn(Mono.just(clientResponse.toEntity(Void.class).block()));
+        LinkValidatorService linkValidatorService = createService(respondWith(HttpStatus.NOT_FOUND));
 
         // Act & Assert
         StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
-                .expectNextMatches(result -> 
-                    result.link().equals(invalidLink) && 
-                    !result.valid() && 
-                    result.courseName().equals("Course") && 
-                    result.taskName().equals("Task") && 
+                .expectNextMatches(result ->
+                    result.link().equals(invalidLink) &&
+                    !result.valid() &&
+                    result.courseName().equals("Course") &&
+                    result.taskName().equals("Task") &&
                     result.statusMessage().equals("404 NOT_FOUND"))
                 .verifyComplete();
+
+        assertEquals(1, meterRegistry.get(ScanMetrics.REQUESTS)
+                .tags("host", "invalid-example.com", "status", "404").timer().count());
+        assertEquals(0.0, meterRegistry.get(ScanMetrics.REQUESTS_IN_FLIGHT).gauge().value());
     }
 
     @Test
@@ -98,16 +112,18 @@ class LinkValidatorServiceTest {
         // Arrange
         String figmaLink = "https://figma.com/design";
         LinkValidationResult input = new LinkValidationResult(figmaLink, false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(respondWith(HttpStatus.OK));
 
         // Act & Assert
         StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
-                .expectNextMatches(result -> 
-                    result.link().equals(figmaLink) && 
-                    result.valid() && 
-                    result.courseName().equals("Course") && 
-                    result.taskName().equals("Task") && 
+                .expectNextMatches(result ->
+                    result.link().equals(figmaLink) &&
+                    result.valid() &&
+                    result.courseName().equals("Course") &&
+                    result.taskName().equals("Task") &&
                     result.statusMessage().equals("Figma link (validation skipped)"))
                 .verifyComplete();
+        assertEquals(0, requests.size());
     }
 
     @Test
@@ -115,18 +131,424 @@ class LinkValidatorServiceTest {
         // Arrange
         String errorLink = "https://error.com";
         LinkValidationResult input = new LinkValidationResult(errorLink, false, "Course", "Task", "");
-
-        when(requestHeadersSpec.retrieve()).thenReturn(responseSpec);
-        when(responseSpec.toBodilessEntity()).thenReturn(Mono.error(new RuntimeException("Connection error")));
+        LinkValidatorService linkValidatorService =
+                createService(request -> Mono.error(new RuntimeException("Connection error")));
 
         // Act & Assert
         StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
-                .expectNextMatches(result -> 
-                    result.link().equals(errorLink) && 
-                    !result.valid() && 
-                    result.courseName().equals("Course") && 
-                    result.taskName().equals("Task") && 
+                .expectNextMatches(result ->
+                    result.link().equals(errorLink) &&
+                    !result.valid() &&
+                    result.courseName().equals("Course") &&
+                    result.taskName().equals("Task") &&
                     result.statusMessage().equals("Connection error"))
                 .verifyComplete();
+
+        assertEquals(1, meterRegistry.get(ScanMetrics.REQUESTS)
+                .tags("host", "error.com", "status", "none", "exception", "RuntimeException").timer().count());
+    }
+
+    @Test
+    void validateLinks_shouldUseHeadRequest_whenHostSupportsIt() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://example.com/doc.pdf", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(respondWith(HttpStatus.OK));
+
+        // Act
+        linkValidatorService.validateLinks(Flux.just(input)).blockLast();
+
+        // Assert
+        assertEquals(List.of(HttpMethod.HEAD), requests.stream().map(ClientRequest::method).toList());
+    }
+
+    @Test
+    void validateLinks_shouldFallBackToGet_whenHeadIsNotAllowed() {
+        // Arrange
+        LinkValidationResult first = new LinkValidationResult("https://example.com/a", false, "Course", "Task1", "");
+        LinkValidationResult second = new LinkValidationResult("https://example.com/b", false, "Course", "Task2", "");
+        LinkValidatorService linkValidatorService = createService(request -> Mono.just(ClientResponse
+                .create(request.method() == HttpMethod.HEAD ? HttpStatus.METHOD_NOT_ALLOWED : HttpStatus.OK)
+                .body("large body")
+                .build()));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(first)))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(second)))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+
+        // The second link on the same host goes straight to GET
+        assertEquals(List.of(HttpMethod.HEAD, HttpMethod.GET, HttpMethod.GET),
+                requests.stream().map(ClientRequest::method).toList());
+    }
+
+    @Test
+    void validateLinks_shouldUseGet_whenHostIsConfiguredAsHeadHostile() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://www.Example.com/a", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService =
+                createService(respondWith(HttpStatus.OK), "other.com, www.example.com");
+
+        // Act
+        linkValidatorService.validateLinks(Flux.just(input)).blockLast();
+
+        // Assert
+        assertEquals(List.of(HttpMethod.GET), requests.stream().map(ClientRequest::method).toList());
+    }
+
+    @Test
+    void validateLinks_shouldConfirmUnchangedLink_whenRevalidatedConditionally() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://docs.example.com/guide", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(request -> Mono.just(
+                request.headers().getIfNoneMatch().contains("\"v1\"")
+                        ? ClientResponse.create(HttpStatus.NOT_MODIFIED).build()
+                        : ClientResponse.create(HttpStatus.OK)
+                                .header(HttpHeaders.ETAG, "\"v1\"")
+                                .header(HttpHeaders.LAST_MODIFIED, "Wed, 21 Oct 2026 07:28:00 GMT")
+                                .build()));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("304 NOT_MODIFIED"))
+                .verifyComplete();
+
+        assertEquals(List.of(), requests.get(0).headers().getIfNoneMatch());
+        assertEquals("Wed, 21 Oct 2026 07:28:00 GMT",
+                requests.get(1).headers().getFirst(HttpHeaders.IF_MODIFIED_SINCE));
+        // The 304 carried no validators, so the known ones are kept
+        assertEquals(Optional.of(new ResponseValidators("\"v1\"", "Wed, 21 Oct 2026 07:28:00 GMT")),
+                conditionalRequests.validatorsFor(input.link()));
+    }
+
+    @Test
+    void validateLinks_shouldCheckInFull_onceLinkIsBroken() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://docs.example.com/gone", false, "Course", "Task", "");
+        AtomicInteger attempts = new AtomicInteger();
+        LinkValidatorService linkValidatorService = createService(request -> Mono.just(attempts.incrementAndGet() == 1
+                ? ClientResponse.create(HttpStatus.OK).header(HttpHeaders.ETAG, "\"v1\"").build()
+                : ClientResponse.create(HttpStatus.NOT_FOUND).build()));
+
+        // Act
+        linkValidatorService.validateLinks(Flux.just(input)).blockLast();
+        linkValidatorService.validateLinks(Flux.just(input)).blockLast();
+        linkValidatorService.validateLinks(Flux.just(input)).blockLast();
+
+        // Assert
+        assertEquals(List.of(List.of(), List.of("\"v1\""), List.of()),
+                requests.stream().map(request -> request.headers().getIfNoneMatch()).toList());
+    }
+
+    @Test
+    void validateLinks_shouldReportNotModified_whenRequestWasNotConditional() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://example.com/a", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(respondWith(HttpStatus.NOT_MODIFIED));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> !result.valid() && result.statusMessage().equals("304 NOT_MODIFIED"))
+                .verifyComplete();
+    }
+
+    private static ExchangeFunction redirecting(final Map<String, String> redirects, final HttpStatus status) {
+        return request -> {
+            final String url = request.url().toString();
+            if (!redirects.containsKey(url)) {
+                return Mono.just(ClientResponse.create(HttpStatus.OK).build());
+            }
+            return Mono.just(ClientResponse.create(status).header(HttpHeaders.LOCATION, redirects.get(url)).build());
+        };
+    }
+
+    private List<String> requestedUrls() {
+        return requests.stream().map(request -> request.url().toString()).toList();
+    }
+
+    @Test
+    void validateLinks_shouldFollowRedirectsAndRecordChain() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("http://old.example.com/doc", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(request -> Mono.just(
+                switch (request.url().toString()) {
+                    case "http://old.example.com/doc" -> ClientResponse.create(HttpStatus.MOVED_PERMANENTLY)
+                            .header(HttpHeaders.LOCATION, "https://new.example.com/doc").build();
+                    case "https://new.example.com/doc" -> ClientResponse.create(HttpStatus.FOUND)
+                            .header(HttpHeaders.LOCATION, "/doc/v2?lang=en").build();
+                    default -> ClientResponse.create(HttpStatus.OK).build();
+                }));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> result.valid()
+                        && result.statusMessage().equals("200 OK")
+                        && result.redirects().equals(List.of(
+                                new Redirect(301, "https://new.example.com/doc"),
+                                new Redirect(302, "https://new.example.com/doc/v2?lang=en")))
+                        && result.movedTo().equals("https://new.example.com/doc"))
+                .verifyComplete();
+        assertEquals(List.of("http://old.example.com/doc", "https://new.example.com/doc",
+                "https://new.example.com/doc/v2?lang=en"), requestedUrls());
+    }
+
+    @Test
+    void validateLinks_shouldReportLoop_asSoonAsRedirectReturnsToVisitedUrl() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://a.com/", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(redirecting(Map.of(
+                "https://a.com/", "https://b.com/",
+                "https://b.com/", "https://a.com/"), HttpStatus.FOUND));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> !result.valid()
+                        && result.statusMessage().equals("Redirect loop back to https://a.com/")
+                        && result.redirects().size() == 2
+                        && result.movedTo() == null)
+                .verifyComplete();
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void validateLinks_shouldStopFollowing_afterMaxRedirects() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://a.com/0", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(request -> {
+            final int hop = Integer.parseInt(request.url().getPath().substring(1));
+            return Mono.just(ClientResponse.create(HttpStatus.TEMPORARY_REDIRECT)
+                    .header(HttpHeaders.LOCATION, "/" + (hop + 1)).build());
+        });
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> !result.valid()
+                        && result.statusMessage().equals("Too many redirects (max 5 allowed)"))
+                .verifyComplete();
+        assertEquals(6, requests.size());
+    }
+
+    @Test
+    void validateLinks_shouldShareRequestsToMovedResource() {
+        // Arrange
+        LinkValidationResult first = new LinkValidationResult("https://a.com/old", false, "Course", "Task1", "");
+        LinkValidationResult second = new LinkValidationResult("https://b.com/old", false, "Course", "Task2", "");
+        LinkValidatorService linkValidatorService = createService(redirecting(Map.of(
+                "https://a.com/old", "https://docs.com/new",
+                "https://b.com/old", "https://docs.com/new"), HttpStatus.PERMANENT_REDIRECT));
+
+        // Act
+        linkValidatorService.validateLinks(Flux.just(first)).blockLast();
+        linkValidatorService.validateLinks(Flux.just(second)).blockLast();
+        LinkValidationResult again = linkValidatorService.validateLinks(Flux.just(first)).blockLast();
+
+        // Assert - the target is requested once, and the known permanent redirect is not requested again
+        assertEquals(List.of("https://a.com/old", "https://docs.com/new", "https://b.com/old"), requestedUrls());
+        assertEquals("https://docs.com/new", again.movedTo());
+        assertEquals("200 OK", again.statusMessage());
+    }
+
+    @Test
+    void validateLinks_shouldNotReportSlashTerminatedLinkAsMoved() {
+        // Arrange
+        Optional<LinkValidationResult> input = new UrlIndex(new UrlCanonicalizer("", false)).add(
+                new LinkValidationResult("https://docs.oracle.com/javase/tutorial/", false, "Course", "Task", ""));
+        LinkValidatorService linkValidatorService = createService(redirecting(Map.of(
+                "https://docs.oracle.com/javase/tutorial", "https://docs.oracle.com/javase/tutorial/"),
+                HttpStatus.MOVED_PERMANENTLY));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input.orElseThrow())))
+                .expectNextMatches(result -> result.valid()
+                        && result.link().equals("https://docs.oracle.com/javase/tutorial/")
+                        && result.redirects().isEmpty()
+                        && result.movedTo() == null)
+                .verifyComplete();
+        assertEquals(List.of("https://docs.oracle.com/javase/tutorial/"), requestedUrls());
+    }
+
+    @Test
+    void validateLinks_shouldLimitRedirectTargetsPerHost_whenLinksComeFromManyHosts() {
+        // Arrange
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        LinkValidatorService linkValidatorService = createService(request -> {
+            if (!request.url().getHost().equals("docs.com")) {
+                return Mono.just(ClientResponse.create(HttpStatus.FOUND)
+                        .header(HttpHeaders.LOCATION, "https://docs.com" + request.url().getPath()).build());
+            }
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            return Mono.delay(Duration.ofMillis(30))
+                    .then(Mono.fromCallable(() -> {
+                        inFlight.decrementAndGet();
+                        return ClientResponse.create(HttpStatus.OK).build();
+                    }));
+        });
+        Flux<LinkValidationResult> links = Flux.range(0, 8)
+                .map(i -> new LinkValidationResult("https://host" + i + ".com/doc" + i, false, "Course", "Task", ""));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(links))
+                .expectNextCount(8)
+                .verifyComplete();
+        assertEquals(4, maxInFlight.get());
+    }
+
+    @Test
+    void validateLinks_shouldReportRedirectWithoutLocation() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://a.com/", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(respondWith(HttpStatus.FOUND));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> !result.valid()
+                        && result.statusMessage().equals("302 FOUND")
+                        && result.redirects().isEmpty())
+                .verifyComplete();
+    }
+
+    @Test
+    void validateLinks_shouldRetry_whenStatusIsTransient() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://example.com/a", false, "Course", "Task", "");
+        AtomicInteger attempts = new AtomicInteger();
+        LinkValidatorService linkValidatorService = createService(request -> Mono.just(ClientResponse
+                .create(attempts.incrementAndGet() == 1 ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.OK)
+                .build()));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void validateLinks_shouldReleaseHostSlot_whileWaitingToRetry() {
+        // Arrange
+        LinkValidationResult retried = new LinkValidationResult("https://example.com/a", false, "Course", "Task1", "");
+        LinkValidationResult other = new LinkValidationResult("https://example.com/b", false, "Course", "Task2", "");
+        AtomicInteger attempts = new AtomicInteger();
+        LinkValidatorService linkValidatorService = createService(request -> Mono.just(ClientResponse
+                        .create(request.url().getPath().equals("/a") && attempts.incrementAndGet() == 1
+                                ? HttpStatus.SERVICE_UNAVAILABLE
+                                : HttpStatus.OK)
+                        .build()),
+                "", Duration.ofMinutes(30), 1,
+                new TransientFailureRetry(2, Duration.ofMillis(300), Duration.ofSeconds(1)));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(retried, other)))
+                .expectNextCount(2)
+                .verifyComplete();
+        assertEquals(List.of("https://example.com/a", "https://example.com/b", "https://example.com/a"),
+                requestedUrls());
+    }
+
+    @Test
+    void validateLinks_shouldRetryWithLinkTimeout_whenHostTimeoutExpires() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://slow.com/a", false, "Course", "Task", "");
+        hostLatencyTracker = fastHostTracker("slow.com");
+        LinkValidatorService linkValidatorService = createService(request -> Mono.delay(Duration.ofMillis(300))
+                .thenReturn(ClientResponse.create(HttpStatus.OK).build()));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void validateLinks_shouldReportTimeout_whenLinkTimeoutExpiresToo() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://slow.com/a", false, "Course", "Task", "");
+        hostLatencyTracker = fastHostTracker("slow.com");
+        LinkValidatorService linkValidatorService = createService(request -> Mono.never());
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> !result.valid())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+        assertEquals(2, requests.size());
+    }
+
+    /**
+     * A tracker with a link timeout of one second that expects the host to respond within 100 ms.
+     */
+    private static HostLatencyTracker fastHostTracker(final String host) {
+        HostLatencyTracker tracker = new HostLatencyTracker(1, Duration.ofMillis(100), 3, Duration.ofHours(24));
+        for (int i = 0; i < HostLatencyTracker.MIN_SAMPLES; i++) {
+            tracker.record(host, Duration.ofMillis(1));
+        }
+        return tracker;
+    }
+
+    @Test
+    void validateLinks_shouldReportTransientStatus_whenRetriesAreExhausted() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://example.com/a", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(respondWith(HttpStatus.BAD_GATEWAY));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> !result.valid() && result.statusMessage().equals("502 BAD_GATEWAY"))
+                .verifyComplete();
+        assertEquals(3, requests.size());
+    }
+
+    @Test
+    void validateLinks_shouldNotRetry_whenStatusIsNotTransient() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://example.com/a", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(respondWith(HttpStatus.NOT_FOUND));
+
+        // Act
+        linkValidatorService.validateLinks(Flux.just(input)).blockLast();
+
+        // Assert
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void validateLinks_shouldNotRetry_whenRetryAfterExceedsMaxDelay() {
+        // Arrange
+        LinkValidationResult input = new LinkValidationResult("https://example.com/a", false, "Course", "Task", "");
+        LinkValidatorService linkValidatorService = createService(request -> Mono.just(ClientResponse
+                .create(HttpStatus.TOO_MANY_REQUESTS)
+                .header("Retry-After", "3600")
+                .build()));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(input)))
+                .expectNextMatches(result -> !result.valid() && result.statusMessage().equals("429 TOO_MANY_REQUESTS"))
+                .verifyComplete();
+        assertEquals(1, requests.size());
+    }
+
+    @Test
+    void validateLinks_shouldReturnPartialResults_whenScanDeadlineIsReached() {
+        // Arrange
+        LinkValidationResult fast = new LinkValidationResult("https://fast.com/a", false, "Course", "Task1", "");
+        LinkValidationResult hanging = new LinkValidationResult("https://hanging.com/b", false, "Course", "Task2", "");
+        LinkValidatorService linkValidatorService = createService(
+                request -> request.url().getHost().equals("hanging.com")
+                        ? Mono.never()
+                        : Mono.just(ClientResponse.create(HttpStatus.OK).build()),
+                "", Duration.ofMillis(300));
+
+        // Act & Assert
+        StepVerifier.create(linkValidatorService.validateLinks(Flux.just(fast, hanging)))
+                .expectNextMatches(result -> result.link().equals("https://fast.com/a") && result.valid())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
     }
 }
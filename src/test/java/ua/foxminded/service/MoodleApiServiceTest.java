@@ -1,23 +1,35 @@
 package ua.foxminded.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.DefaultUriBuilderFactory;
+import org.springframework.web.util.UriBuilder;
 import reactor.core.publisher.Flux;
 import reactor.test.StepVerifier;
 
+import java.net.URI;
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +51,8 @@ class MoodleApiServiceTest {
     private WebClient.ResponseSpec responseSpec;
 
     private MoodleApiService moodleApiService;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AssignmentLinkIndex assignmentLinkIndex = new AssignmentLinkIndex(true);
     private final String moodleToken = "test-token";
     private final String baseUrl = "https://moodle-test.com";
 
@@ -51,7 +65,8 @@ class MoodleApiServiceTest {
         when(requestBodyUriSpec.header(anyString(), anyString())).thenReturn(requestBodyUriSpec);
         when(requestBodyUriSpec.retrieve()).thenReturn(responseSpec);
 
-        moodleApiService = new MoodleApiService(webClientBuilder, baseUrl, moodleToken);
+        moodleApiService = new MoodleApiService(webClientBuilder, baseUrl, moodleToken, new ObjectMapper(),
+                assignmentLinkIndex, new ScanMetrics(meterRegistry), 2, 4);
     }
 
     @Test
@@ -104,6 +119,11 @@ class MoodleApiServiceTest {
                     result.taskName().equals("Assignment1") && 
                     result.statusMessage().equals(""))
                 .verifyComplete();
+
+        assertEquals(1, meterRegistry.get(ScanMetrics.COURSE_LINKS).summary().count());
+        assertEquals(1.0, meterRegistry.get(ScanMetrics.COURSE_LINKS).summary().totalAmount());
+        assertEquals(1, meterRegistry.get(ScanMetrics.MOODLE_REQUESTS)
+                .tags("function", "mod_assign_get_assignments", "outcome", "success").timer().count());
     }
 
     @Test
@@ -178,4 +198,91 @@ class MoodleApiServiceTest {
                     result.taskName().equals("Assignment1"))
                 .verifyComplete();
     }
+
+    @Test
+    void extractAssignmentLinks_shouldBatchCourseIdsIntoSingleRequest() {
+        // Arrange
+        String jsonResponse = """
+                {
+                    "courses": [
+                        {"id": 1, "shortname": "Course1", "assignments": [
+                            {"id": 101, "name": "Assignment1", "intro": "<a href='https://example.com'>link</a>"}
+                        ]},
+                        {"id": 2, "shortname": "Course2", "assignments": [
+                            {"id": 201, "name": "Assignment2", "intro": "<a href='https://example.com'>link</a>"}
+                        ]}
+                    ]
+                }
+                """;
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenAnswer(invocation -> Flux.just(
+                new DefaultDataBufferFactory().wrap(jsonResponse.getBytes(StandardCharsets.UTF_8))));
+        ArgumentCaptor<Function<UriBuilder, URI>> uriFunction = ArgumentCaptor.forClass(Function.class);
+        Map<Integer, String> coursesFound = new HashMap<>();
+
+        // Act & Assert - the same link in two courses is reported for each course
+        StepVerifier.create(moodleApiService.extractAssignmentLinks(Flux.just(1, 2, 3), count -> { },
+                        coursesFound::put))
+                .expectNextMatches(result -> result.courseName().equals("Course1"))
+                .expectNextMatches(result -> result.courseName().equals("Course2"))
+                .expectNextCount(2)
+                .verifyComplete();
+
+        verify(requestBodyUriSpec, times(2)).uri(uriFunction.capture());
+        List<String> queries = uriFunction.getAllValues().stream()
+                .map(function -> function.apply(new DefaultUriBuilderFactory(baseUrl).builder()).getQuery())
+                .toList();
+        assertTrue(queries.get(0).contains("courseids[0]=1") && queries.get(0).contains("courseids[1]=2"));
+        assertTrue(queries.get(1).contains("courseids[0]=3") && !queries.get(1).contains("courseids[1]"));
+        assertEquals(Map.of(1, "Course1", 2, "Course2"), coursesFound);
+    }
+
+    @Test
+    void fetchAssignmentsForCourse_shouldReuseLinks_whenAssignmentIsUnchanged() {
+        // Arrange
+        String template = """
+                {"courses": [{"id": 1, "shortname": "Course1", "assignments": [
+                    {"id": 101, "name": "Assignment1", "timemodified": %d, "intro": "<a href='%s'>link</a>"}
+                ]}]}
+                """;
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(
+                Flux.just(buffer(template.formatted(1700000000, "https://old.com"))),
+                Flux.just(buffer(template.formatted(1700000000, "https://ignored.com"))),
+                Flux.just(buffer(template.formatted(1700000500, "https://new.com"))));
+
+        // Act & Assert
+        StepVerifier.create(moodleApiService.fetchAssignmentsForCourse(1))
+                .expectNextMatches(result -> result.link().equals("https://old.com"))
+                .verifyComplete();
+        StepVerifier.create(moodleApiService.fetchAssignmentsForCourse(1))
+                .expectNextMatches(result -> result.link().equals("https://old.com"))
+                .verifyComplete();
+        StepVerifier.create(moodleApiService.fetchAssignmentsForCourse(1))
+                .expectNextMatches(result -> result.link().equals("https://new.com"))
+                .verifyComplete();
+    }
+
+    @Test
+    void extractAssignmentLinks_shouldForgetAssignmentsNoLongerReturned() {
+        // Arrange
+        String template = """
+                {"courses": [{"id": 1, "shortname": "Course1", "assignments": [%s]}]}
+                """;
+        String assignment = """
+                {"id": %d, "name": "Assignment", "timemodified": 1700000000, "intro": "<a href='https://a.com'>a</a>"}
+                """;
+        when(responseSpec.bodyToFlux(DataBuffer.class)).thenReturn(
+                Flux.just(buffer(template.formatted(assignment.formatted(101) + "," + assignment.formatted(102)))),
+                Flux.just(buffer(template.formatted(assignment.formatted(101)))));
+        moodleApiService.extractAssignmentLinks(Flux.just(1)).blockLast();
+
+        // Act
+        moodleApiService.extractAssignmentLinks(Flux.just(1)).blockLast();
+
+        // Assert
+        assertEquals(1, assignmentLinkIndex.size());
+    }
+
+    private static DataBuffer buffer(final String json) {
+        return new DefaultDataBufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
 }
@@ -0,0 +1,116 @@
+package ua.foxminded.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import ua.foxminded.model.MoodleAssignment;
+import ua.foxminded.model.MoodleCourseAssignment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+class MoodleAssignmentParserTest {
+
+    private final MoodleAssignmentParser parser = new MoodleAssignmentParser(new ObjectMapper());
+
+    @Test
+    void parse_shouldEmitAssignmentsWithCourseName() {
+        // Arrange
+        String json = """
+                {
+                    "courses": [
+                        {
+                            "id": 1,
+                            "fullname": "Java Course",
+                            "shortname": "Java",
+                            "assignments": [
+                                {"id": 101, "course": 1, "name": "Task1", "intro": "<p>one</p>", "timemodified": 1700000000,
+                                 "configs": [{"plugin": "file", "value": "1"}], "introattachments": []},
+                                {"id": 102, "course": 1, "name": "Task2", "intro": "<p>two</p>", "timemodified": 1700000001}
+                            ]
+                        },
+                        {"id": 2, "shortname": "Empty", "assignments": []}
+                    ],
+                    "warnings": [{"item": "course", "itemid": 3, "message": "No access"}]
+                }
+                """;
+
+        // Act & Assert
+        StepVerifier.create(parser.parse(Flux.just(buffer(json))))
+                .expectNextMatches(result ->
+                    result.courseName().equals("Java") &&
+                    result.assignment().id() == 101 &&
+                    result.assignment().name().equals("Task1") &&
+                    result.assignment().intro().equals("<p>one</p>") &&
+                    result.assignment().timemodified() == 1700000000L)
+                .expectNextMatches(result -> result.assignment().name().equals("Task2"))
+                .verifyComplete();
+    }
+
+    @Test
+    void parse_shouldHandleTokensSplitAcrossBuffers() {
+        // Arrange
+        String json = """
+                {"courses": [{"shortname": "Kurs", "assignments": [
+                    {"id": 1, "name": "Завдання", "intro": "<a href='https://example.com/ü'>посилання</a>"}
+                ]}]}
+                """;
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        List<DataBuffer> chunks = new ArrayList<>();
+        for (int i = 0; i < bytes.length; i += 3) {
+            chunks.add(new DefaultDataBufferFactory().wrap(Arrays.copyOfRange(bytes, i, Math.min(i + 3, bytes.length))));
+        }
+
+        // Act & Assert
+        StepVerifier.create(parser.parse(Flux.fromIterable(chunks)))
+                .expectNextMatches(result ->
+                    result.courseName().equals("Kurs") &&
+                    result.assignment().name().equals("Завдання") &&
+                    result.assignment().intro().equals("<a href='https://example.com/ü'>посилання</a>"))
+                .verifyComplete();
+    }
+
+    @Test
+    void parse_shouldUseCourseNameAndId_whenTheyFollowAssignments() {
+        // Arrange
+        String json = """
+                {"courses": [{"assignments": [{"id": 1, "name": "Task1", "intro": ""}], "shortname": "Late", "id": 7}]}
+                """;
+
+        // Act & Assert
+        StepVerifier.create(parser.parse(Flux.just(buffer(json))))
+                .expectNext(new MoodleCourseAssignment(7, "Late",
+                        new MoodleAssignment(1, 0, "Task1", "", 0)))
+                .verifyComplete();
+    }
+
+    @Test
+    void parse_shouldFail_whenMoodleReturnsException() {
+        // Arrange
+        String json = """
+                {"exception": "webservice_access_exception", "errorcode": "accessexception", "message": "Access denied"}
+                """;
+
+        // Act & Assert
+        StepVerifier.create(parser.parse(Flux.just(buffer(json))))
+                .expectErrorMatches(e -> e.getMessage().contains("Access denied"))
+                .verify();
+    }
+
+    @Test
+    void parse_shouldFail_whenJsonIsMalformed() {
+        // Act & Assert
+        StepVerifier.create(parser.parse(Flux.just(buffer("{\"courses\": [{\"shortname\": "))))
+                .expectError()
+                .verify();
+    }
+
+    private static DataBuffer buffer(final String json) {
+        return new DefaultDataBufferFactory().wrap(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,80 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import ua.foxminded.model.Redirect;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectCacheTest {
+
+    private final Instant now = Instant.parse("2026-10-01T10:00:00Z");
+    private final RedirectCache redirectCache = new RedirectCache(Duration.ofDays(7), Duration.ofHours(1), 2);
+
+    @Test
+    void recordRedirect_shouldKeepPermanentRedirectsOnly() {
+        // Act
+        redirectCache.recordRedirect("https://a.com", new Redirect(301, "https://b.com"), now);
+        redirectCache.recordRedirect("https://c.com", new Redirect(302, "https://d.com"), now);
+
+        // Assert
+        assertEquals(Optional.of(new Redirect(301, "https://b.com")),
+                redirectCache.permanentRedirect("https://a.com", now.plus(Duration.ofDays(6))));
+        assertEquals(Optional.empty(), redirectCache.permanentRedirect("https://c.com", now));
+    }
+
+    @Test
+    void permanentRedirect_shouldExpireAfterTtl() {
+        // Arrange
+        redirectCache.recordRedirect("https://a.com", new Redirect(308, "https://b.com"), now);
+
+        // Act & Assert
+        assertEquals(Optional.empty(), redirectCache.permanentRedirect("https://a.com", now.plus(Duration.ofDays(7))));
+    }
+
+    @Test
+    void target_shouldBeSharedUntilTtl() {
+        // Arrange
+        RedirectCache.Target target = new RedirectCache.Target(HttpStatus.OK, "\"v1\"", null);
+        redirectCache.recordTarget("https://b.com", target, now);
+
+        // Act & Assert
+        assertEquals(Optional.of(target), redirectCache.target("https://b.com", now.plus(Duration.ofMinutes(59))));
+        assertEquals(Optional.empty(), redirectCache.target("https://b.com", now.plus(Duration.ofHours(1))));
+    }
+
+    @Test
+    void recordTarget_shouldNotShareNotModifiedOrTransientStatus() {
+        // Arrange
+        redirectCache.recordTarget("https://b.com", new RedirectCache.Target(HttpStatus.OK, null, null), now);
+
+        // Act
+        redirectCache.recordTarget("https://b.com", new RedirectCache.Target(HttpStatus.NOT_MODIFIED, null, null), now);
+        redirectCache.recordTarget("https://c.com",
+                new RedirectCache.Target(HttpStatus.SERVICE_UNAVAILABLE, null, null), now);
+
+        // Assert
+        assertEquals(Optional.empty(), redirectCache.target("https://b.com", now));
+        assertEquals(Optional.empty(), redirectCache.target("https://c.com", now));
+    }
+
+    @Test
+    void recordRedirect_shouldEvictLeastRecentlyUsed_whenFull() {
+        // Arrange
+        redirectCache.recordRedirect("https://a.com", new Redirect(301, "https://x.com"), now);
+        redirectCache.recordRedirect("https://b.com", new Redirect(301, "https://x.com"), now);
+        redirectCache.permanentRedirect("https://a.com", now);
+
+        // Act
+        redirectCache.recordRedirect("https://c.com", new Redirect(301, "https://x.com"), now);
+
+        // Assert
+        assertTrue(redirectCache.permanentRedirect("https://a.com", now).isPresent());
+        assertTrue(redirectCache.permanentRedirect("https://b.com", now).isEmpty());
+        assertTrue(redirectCache.permanentRedirect("https://c.com", now).isPresent());
+    }
+}
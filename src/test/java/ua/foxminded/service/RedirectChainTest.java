@@ -0,0 +1,55 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import ua.foxminded.model.Redirect;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RedirectChainTest {
+
+    @Test
+    void follow_shouldMoveToLocation() {
+        // Arrange
+        RedirectChain chain = new RedirectChain("https://a.com");
+
+        // Act
+        Optional<String> failure = chain.follow(new Redirect(301, "https://b.com"));
+
+        // Assert
+        assertEquals(Optional.empty(), failure);
+        assertEquals("https://b.com", chain.current());
+        assertEquals(List.of(new Redirect(301, "https://b.com")), chain.redirects());
+    }
+
+    @Test
+    void follow_shouldReportLoop_whenLocationWasVisited() {
+        // Arrange
+        RedirectChain chain = new RedirectChain("https://a.com");
+        chain.follow(new Redirect(302, "https://b.com"));
+
+        // Act
+        Optional<String> failure = chain.follow(new Redirect(302, "https://a.com"));
+
+        // Assert
+        assertEquals(Optional.of("Redirect loop back to https://a.com"), failure);
+        assertEquals(2, chain.redirects().size());
+    }
+
+    @Test
+    void follow_shouldStop_afterMaxRedirects() {
+        // Arrange
+        RedirectChain chain = new RedirectChain("https://a.com/0");
+        for (int hop = 1; hop <= LinkChecks.MAX_REDIRECTS; hop++) {
+            assertTrue(chain.follow(new Redirect(307, "https://a.com/" + hop)).isEmpty());
+        }
+
+        // Act
+        Optional<String> failure = chain.follow(new Redirect(307, "https://a.com/next"));
+
+        // Assert
+        assertEquals(Optional.of("Too many redirects (max 5 allowed)"), failure);
+    }
+}
@@ -0,0 +1,145 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.ResultPage;
+import ua.foxminded.model.ResultQuery;
+import ua.foxminded.model.ResultSort;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResultIndexTest {
+
+    private final ResultIndex index = index(
+            result("https://b.com/1", true, "Physics", "Task3", "200 OK"),
+            result("https://a.com/1", false, "algebra", "Task1", "404 NOT_FOUND"),
+            result("https://a.com/2", false, "Physics", "Task2", "Connection refused"),
+            result("https://c.com/1", false, "Physics", "Task1", "503 SERVICE_UNAVAILABLE"),
+            result("https://a.com/3", true, "Chemistry", "Task4", "200 OK"));
+
+    private static ResultIndex index(final LinkValidationResult... results) {
+        final UrlIndex urlIndex = new UrlIndex(new UrlCanonicalizer("utm_*", false));
+        for (final LinkValidationResult result : results) {
+            urlIndex.add(result);
+        }
+        return ResultIndex.of(urlIndex.build(List.of(results)));
+    }
+
+    private static LinkValidationResult result(final String link, final boolean valid, final String course,
+                                               final String task, final String statusMessage) {
+        return new LinkValidationResult(link, valid, course, task, statusMessage);
+    }
+
+    private static ResultQuery query(final String course, final String host, final String status, final Boolean valid,
+                                     final ResultSort sort, final boolean descending, final int page, final int size) {
+        return new ResultQuery(course, host, status, valid, sort, descending, page, size);
+    }
+
+    private static List<String> links(final ResultPage page) {
+        return page.results().stream().map(LinkValidationResult::link).toList();
+    }
+
+    @Test
+    void find_PagesAllResults_SortedByCourse() {
+        // Act
+        final ResultPage first = index.find(query(null, null, null, null, ResultSort.COURSE, false, 1, 2));
+        final ResultPage last = index.find(query(null, null, null, null, ResultSort.COURSE, false, 3, 2));
+
+        // Assert
+        assertEquals(List.of("https://a.com/1", "https://a.com/3"), links(first));
+        assertEquals(List.of("https://c.com/1"), links(last));
+        assertEquals(5, first.matchCount());
+        assertEquals(3, first.pageCount());
+        assertEquals(5, first.checkedCount());
+        assertEquals(3, first.brokenCount());
+        assertEquals(5, last.firstPosition());
+    }
+
+    @Test
+    void find_KeepsReportOrder_ForEqualValues() {
+        // Act
+        final ResultPage page = index.find(query("Physics", null, null, null, ResultSort.COURSE, false, 1, 10));
+
+        // Assert
+        assertEquals(List.of("https://b.com/1", "https://a.com/2", "https://c.com/1"), links(page));
+    }
+
+    @Test
+    void find_FiltersByValidityHostAndStatus() {
+        // Act
+        final ResultPage broken = index.find(query(null, null, null, false, ResultSort.LINK, false, 1, 10));
+        final ResultPage brokenOnHost = index.find(query(null, "A.com", null, false, ResultSort.LINK, false, 1, 10));
+        final ResultPage noResponse = index.find(query(null, null, ResultQuery.NO_STATUS, null, ResultSort.LINK,
+                false, 1, 10));
+        final ResultPage notFound = index.find(query("algebra", "a.com", "404", false, ResultSort.LINK, false, 1, 10));
+
+        // Assert
+        assertEquals(List.of("https://a.com/1", "https://a.com/2", "https://c.com/1"), links(broken));
+        assertEquals(List.of("https://a.com/1", "https://a.com/2"), links(brokenOnHost));
+        assertEquals(List.of("https://a.com/2"), links(noResponse));
+        assertEquals(List.of("https://a.com/1"), links(notFound));
+    }
+
+    @Test
+    void find_SortsDescending() {
+        // Act
+        final ResultPage page = index.find(query(null, null, null, null, ResultSort.STATUS, true, 1, 3));
+
+        // Assert
+        assertEquals(List.of("https://a.com/2", "https://c.com/1", "https://a.com/1"), links(page));
+    }
+
+    @Test
+    void find_ReturnsNothing_ForUnknownFilterValue() {
+        // Act
+        final ResultPage page = index.find(query("Biology", null, null, null, ResultSort.COURSE, false, 1, 10));
+
+        // Assert
+        assertTrue(page.results().isEmpty());
+        assertEquals(0, page.matchCount());
+        assertEquals(1, page.pageCount());
+    }
+
+    @Test
+    void find_ClampsPageToLastPage() {
+        // Act
+        final ResultPage page = index.find(query(null, null, null, false, ResultSort.TASK, false, 9, 2));
+
+        // Assert
+        assertEquals(2, page.page());
+        assertEquals(List.of("https://a.com/2"), links(page));
+    }
+
+    @Test
+    void find_ListsCoursesAndStatusesForFilters() {
+        // Act
+        final ResultPage page = index.find(query(null, null, null, null, ResultSort.COURSE, false, 1, 10));
+
+        // Assert
+        assertEquals(List.of("algebra", "Chemistry", "Physics"), page.courses());
+        assertEquals(List.of("200", "404", "503", ResultQuery.NO_STATUS), page.statuses());
+    }
+
+    @Test
+    void statusCode_ExtractsLeadingHttpStatus() {
+        assertEquals("404", ResultIndex.statusCode("404 NOT_FOUND"));
+        assertEquals("200", ResultIndex.statusCode("200"));
+        assertEquals(ResultQuery.NO_STATUS, ResultIndex.statusCode("Connection refused"));
+        assertEquals(ResultQuery.NO_STATUS, ResultIndex.statusCode("1234 things"));
+        assertEquals(ResultQuery.NO_STATUS, ResultIndex.statusCode(null));
+    }
+
+    @Test
+    void matching_ListsEveryMatch_IgnoringPage() {
+        // Act
+        final List<LinkValidationResult> matches = index.matching(
+                query(null, null, null, false, ResultSort.LINK, true, 3, 1));
+
+        // Assert
+        assertEquals(List.of("https://c.com/1", "https://a.com/2", "https://a.com/1"),
+                matches.stream().map(LinkValidationResult::link).toList());
+    }
+}
@@ -0,0 +1,173 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ua.foxminded.model.ClusterShard;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.repository.ClusterStore;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScanCoordinatorTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Mock
+    private ClusterStore clusterStore;
+
+    private ScanCoordinator coordinator(final String nodeId, final boolean enabled) {
+        return new ScanCoordinator(clusterStore, enabled, nodeId, 64, Duration.ofMinutes(1));
+    }
+
+    @Test
+    void claimShard_ClaimsEveryCourse_WhenDisabled() {
+        // Act
+        final IntPredicate ownCourses = coordinator("node-a", false).claimShard(NOW);
+
+        // Assert
+        assertTrue(IntStream.range(0, 100).allMatch(ownCourses));
+        verifyNoInteractions(clusterStore);
+    }
+
+    @Test
+    void claimShard_SplitsCourses_BetweenLiveNodes() {
+        // Arrange
+        when(clusterStore.heartbeats()).thenReturn(Map.of(
+                "node-a", NOW,
+                "node-b", NOW.minusSeconds(20),
+                "node-gone", NOW.minus(Duration.ofMinutes(5))));
+
+        // Act
+        final IntPredicate nodeA = coordinator("node-a", true).claimShard(NOW);
+        final IntPredicate nodeB = coordinator("node-b", true).claimShard(NOW);
+
+        // Assert - every course is scanned by exactly one of the live nodes
+        for (int courseId = 0; courseId < 200; courseId++) {
+            assertNotEquals(nodeA.test(courseId), nodeB.test(courseId), "course " + courseId);
+        }
+        assertTrue(IntStream.range(0, 200).filter(nodeA).count() > 50);
+        verify(clusterStore).heartbeat("node-a", NOW);
+        verify(clusterStore).heartbeat("node-b", NOW);
+    }
+
+    @Test
+    void liveNodes_IncludesThisNode_BeforeItsFirstHeartbeat() {
+        // Arrange
+        when(clusterStore.heartbeats()).thenReturn(Map.of("node-b", NOW));
+
+        // Act & Assert
+        assertEquals(Set.of("node-a", "node-b"), coordinator("node-a", true).liveNodes(NOW));
+    }
+
+    @Test
+    void merge_TakesEachCourse_FromTheNewestShardOwningIt() {
+        // Arrange
+        final LinkValidationResult oldCourse1 = new LinkValidationResult("https://a.com", false, "Course1", "Task1", "404 NOT_FOUND");
+        final LinkValidationResult oldCourse2 = new LinkValidationResult("https://b.com", true, "Course2", "Task1", "200 OK");
+        final LinkValidationResult newCourse1 = new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK");
+        final LinkValidationResult newCourse1Task2 = new LinkValidationResult("https://c.com", true, "Course1", "Task2", "200 OK");
+
+        // Act
+        final List<LinkValidationResult> merged = ScanCoordinator.merge(List.of(
+                new ClusterShard("node-gone", NOW.minusSeconds(3600),
+                        Map.of(1, List.of(oldCourse1), 2, List.of(oldCourse2))),
+                new ClusterShard("node-a", NOW, Map.of(1, List.of(newCourse1, newCourse1Task2)))));
+
+        // Assert - course 1 moved to node-a, course 2 keeps the results of its previous owner
+        assertEquals(List.of(newCourse1, newCourse1Task2, oldCourse2), merged);
+    }
+
+    @Test
+    void merge_DropsOldResults_OfRenamedCourse_AndOfCourseWithoutLinks() {
+        // Arrange
+        final LinkValidationResult oldName = new LinkValidationResult("https://a.com", true, "Old", "Task1", "200 OK");
+        final LinkValidationResult removedLink = new LinkValidationResult("https://b.com", true, "Course2", "Task1", "200 OK");
+        final LinkValidationResult newName = new LinkValidationResult("https://a.com", true, "New", "Task1", "200 OK");
+
+        // Act
+        final List<LinkValidationResult> merged = ScanCoordinator.merge(List.of(
+                new ClusterShard("node-a", NOW.minusSeconds(3600),
+                        Map.of(1, List.of(oldName), 2, List.of(removedLink))),
+                new ClusterShard("node-b", NOW, Map.of(1, List.of(newName), 2, List.of()))));
+
+        // Assert - node-b owns both courses, even though it found no links in course 2
+        assertEquals(List.of(newName), merged);
+    }
+
+    @Test
+    void merge_KeepsCoursesWithTheSameName_ApartById() {
+        // Arrange - course 1 was renamed to the old name of course 2 between the scans of the two nodes
+        final LinkValidationResult staleCourse1 = new LinkValidationResult("https://a.com", false, "Math", "Task1", "404 NOT_FOUND");
+        final LinkValidationResult course2 = new LinkValidationResult("https://b.com", true, "Math", "Task2", "200 OK");
+        final LinkValidationResult course1 = new LinkValidationResult("https://a.com", true, "Math", "Task1", "200 OK");
+
+        // Act
+        final List<LinkValidationResult> merged = ScanCoordinator.merge(List.of(
+                new ClusterShard("node-a", NOW.minusSeconds(3600),
+                        Map.of(1, List.of(staleCourse1), 2, List.of(course2))),
+                new ClusterShard("node-b", NOW, Map.of(1, List.of(course1)))));
+
+        // Assert
+        assertEquals(List.of(course1, course2), merged);
+    }
+
+    @Test
+    void mergedResults_RemovesShardOfGoneNode_OnceOtherNodesOwnAllItsCourses() {
+        // Arrange
+        final LinkValidationResult course1 = new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK");
+        final LinkValidationResult course2 = new LinkValidationResult("https://b.com", true, "Course2", "Task1", "200 OK");
+        when(clusterStore.heartbeats()).thenReturn(Map.of("node-a", NOW, "node-stale", NOW.minusSeconds(600)));
+        when(clusterStore.readShards()).thenReturn(List.of(
+                new ClusterShard("node-gone", NOW.minusSeconds(3600), Map.of(1, List.of(course1))),
+                new ClusterShard("node-stale", NOW.minusSeconds(3600), Map.of(2, List.of(course2))),
+                new ClusterShard("node-a", NOW.minusSeconds(60), Map.of(1, List.of(course1)))));
+
+        // Act
+        final List<LinkValidationResult> merged = coordinator("node-a", true).mergedResults(NOW);
+
+        // Assert - node-stale still serves course 2, which no other node has scanned yet
+        assertEquals(List.of(course1, course2), merged);
+        verify(clusterStore).forget("node-gone");
+        verify(clusterStore, never()).forget("node-stale");
+        verify(clusterStore, never()).forget("node-a");
+    }
+
+    @Test
+    void republishShard_KeepsScanCompletion() {
+        // Arrange
+        final LinkValidationResult broken = new LinkValidationResult("https://a.com", false, "Course1", "Task1", "404 NOT_FOUND");
+        final LinkValidationResult fixed = new LinkValidationResult("https://a.com", true, "Course1", "Task1", "200 OK");
+        final ScanCoordinator coordinator = coordinator("node-a", true);
+        coordinator.publishShard(Map.of(1, List.of(broken)), NOW.minusSeconds(60));
+
+        // Act
+        coordinator.republishShard(Map.of(1, List.of(fixed)), NOW);
+
+        // Assert - the shard is newer to readers, but does not take courses from later scans of other nodes
+        verify(clusterStore).writeShard(new ClusterShard("node-a", NOW.minusSeconds(60), NOW,
+                Map.of(1, List.of(fixed))));
+    }
+
+    @Test
+    void leave_RemovesHeartbeat_WhenEnabled() {
+        // Act
+        coordinator("node-a", true).leave();
+        coordinator("node-b", false).leave();
+
+        // Assert
+        verify(clusterStore).leave("node-a");
+        verifyNoMoreInteractions(clusterStore);
+    }
+}
@@ -0,0 +1,108 @@
+package ua.foxminded.service;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ScanMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ScanMetrics metrics = new ScanMetrics(registry);
+
+    @Test
+    void timeMoodleCall_RecordsCallPerFunctionAndOutcome() {
+        // Act
+        StepVerifier.create(metrics.timeMoodleCall("core_course_get_courses", Flux.just(1, 2)))
+                .expectNextCount(2)
+                .verifyComplete();
+        StepVerifier.create(metrics.timeMoodleCall("core_course_get_courses", Flux.error(new IOException("down"))))
+                .verifyError();
+
+        // Assert
+        assertEquals(1, registry.get(ScanMetrics.MOODLE_REQUESTS)
+                .tags("function", "core_course_get_courses", "outcome", "success").timer().count());
+        assertEquals(1, registry.get(ScanMetrics.MOODLE_REQUESTS)
+                .tags("function", "core_course_get_courses", "outcome", "error").timer().count());
+    }
+
+    @Test
+    void timeMoodleCall_RecordsError_WhenDownstreamCancelsOnThatError() {
+        // Arrange - publish cancels its source while the source's error travels to the other subscribers
+        final Flux<Integer> call = metrics.timeMoodleCall("core_course_get_courses", Flux.error(new IOException("down")));
+
+        // Act
+        StepVerifier.create(call.publish(shared -> Flux.merge(shared.map(id -> id + 1), shared)))
+                .verifyError(IOException.class);
+
+        // Assert
+        assertEquals(1, registry.get(ScanMetrics.MOODLE_REQUESTS).tag("outcome", "error").timer().count());
+        assertTrue(registry.find(ScanMetrics.MOODLE_REQUESTS).tag("outcome", "cancelled").timers().isEmpty());
+    }
+
+    @Test
+    void timeScan_TracksActiveScanUntilItCompletes() {
+        // Arrange
+        final Sinks.One<String> result = Sinks.one();
+        final Mono<String> scan = metrics.timeScan(result.asMono());
+
+        // Act & Assert
+        StepVerifier.create(scan)
+                .then(() -> assertEquals(1, registry.get(ScanMetrics.ACTIVE_SCANS).longTaskTimer().activeTasks()))
+                .then(() -> result.tryEmitValue("done"))
+                .expectNext("done")
+                .verifyComplete();
+        assertEquals(0, registry.get(ScanMetrics.ACTIVE_SCANS).longTaskTimer().activeTasks());
+        assertEquals(1, registry.get(ScanMetrics.SCANS).tag("outcome", "success").timer().count());
+    }
+
+    @Test
+    void recordResponse_TagsHostAndStatus_WithLatencyBuckets() {
+        // Act
+        metrics.recordResponse("example.com", Duration.ofMillis(300), 404);
+        metrics.recordFailure("example.com", Duration.ofSeconds(5), new IOException("Connection reset"));
+
+        // Assert
+        final Timer notFound = registry.get(ScanMetrics.REQUESTS)
+                .tags("host", "example.com", "status", "404", "exception", "none").timer();
+        assertEquals(1, notFound.count());
+        assertEquals(ScanMetrics.LATENCY_BUCKETS.length, notFound.takeSnapshot().histogramCounts().length);
+        assertTrue(Arrays.stream(notFound.takeSnapshot().histogramCounts())
+                .anyMatch(bucket -> bucket.bucket() == Duration.ofMillis(500).toNanos() && bucket.count() == 1));
+        assertEquals(1, registry.get(ScanMetrics.REQUESTS)
+                .tags("host", "example.com", "status", "none", "exception", "IOException").timer().count());
+    }
+
+    @Test
+    void requestsInFlight_FollowsStartedAndFinishedRequests() {
+        // Act
+        metrics.requestStarted();
+        metrics.requestStarted();
+        metrics.requestFinished();
+
+        // Assert
+        assertEquals(1.0, registry.get(ScanMetrics.REQUESTS_IN_FLIGHT).gauge().value());
+    }
+
+    @Test
+    void recordCacheLookup_CountsHitsAndMisses() {
+        // Act
+        metrics.recordCacheLookup(true);
+        metrics.recordCacheLookup(true);
+        metrics.recordCacheLookup(false);
+
+        // Assert
+        assertEquals(2.0, registry.get(ScanMetrics.CACHE_LOOKUPS).tag("result", "hit").counter().count());
+        assertEquals(1.0, registry.get(ScanMetrics.CACHE_LOOKUPS).tag("result", "miss").counter().count());
+    }
+}
@@ -0,0 +1,143 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.scheduling.support.PeriodicTrigger;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.ScanProgress;
+import ua.foxminded.model.ScanStatus;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ScanSchedulerTest {
+
+    @Mock
+    private LinkCacheService linkCacheService;
+
+    private ScanScheduler createScheduler(final String cron, final boolean paused) {
+        return new ScanScheduler(linkCacheService, cron, Duration.ofHours(6), Duration.ofMinutes(1), paused);
+    }
+
+    @Test
+    void scanTrigger_UsesFixedDelay_WhenNoCronIsSet() {
+        // Act
+        final PeriodicTrigger trigger = (PeriodicTrigger) createScheduler("", false).scanTrigger();
+
+        // Assert
+        assertEquals(Duration.ofHours(6), trigger.getPeriodDuration());
+        assertEquals(Duration.ofMinutes(1), trigger.getInitialDelayDuration());
+        assertFalse(trigger.isFixedRate());
+    }
+
+    @Test
+    void scanTrigger_UsesCron_WhenSet() {
+        // Act
+        final CronTrigger trigger = (CronTrigger) createScheduler("0 0 3 * * *", false).scanTrigger();
+
+        // Assert
+        assertEquals("0 0 3 * * *", trigger.getExpression());
+    }
+
+    @Test
+    void runScheduledScan_WaitsForTheScan() {
+        // Arrange
+        final AtomicBoolean completed = new AtomicBoolean();
+        when(linkCacheService.scan()).thenReturn(Mono.delay(Duration.ofMillis(50))
+                .map(tick -> List.<LinkValidationResult>of())
+                .doOnSuccess(results -> completed.set(true)));
+
+        // Act
+        createScheduler("", false).runScheduledScan();
+
+        // Assert
+        assertTrue(completed.get());
+    }
+
+    @Test
+    void runScheduledScan_SwallowsScanFailure() {
+        // Arrange
+        when(linkCacheService.scan()).thenReturn(Mono.error(new IllegalStateException("Moodle unavailable")));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> createScheduler("", false).runScheduledScan());
+    }
+
+    @Test
+    void pause_SkipsScheduledWork_UntilResumed() {
+        // Arrange
+        final ScanScheduler scheduler = createScheduler("", false);
+        when(linkCacheService.scan()).thenReturn(Mono.just(List.of()));
+        when(linkCacheService.refreshExpiredLinks()).thenReturn(Mono.empty());
+
+        // Act
+        scheduler.pause();
+        scheduler.runScheduledScan();
+        StepVerifier.create(scheduler.refreshExpiredLinks()).verifyComplete();
+
+        // Assert
+        verify(linkCacheService, never()).scan();
+        verify(linkCacheService, never()).refreshExpiredLinks();
+        assertTrue(scheduler.status().paused());
+
+        scheduler.resume();
+        scheduler.runScheduledScan();
+        StepVerifier.create(scheduler.refreshExpiredLinks()).verifyComplete();
+        verify(linkCacheService).scan();
+        verify(linkCacheService).refreshExpiredLinks();
+    }
+
+    @Test
+    void trigger_StartsScan_EvenWhenPaused() {
+        // Arrange
+        final ScanScheduler scheduler = createScheduler("", true);
+        when(linkCacheService.scan()).thenReturn(Mono.never());
+
+        // Act
+        scheduler.trigger();
+
+        // Assert
+        verify(linkCacheService).scan();
+    }
+
+    @Test
+    void status_ReportsScheduleAndScanState() {
+        // Arrange
+        final ScanProgress progress = new ScanProgress("scan-1", ScanProgress.State.RUNNING, Instant.now(), null,
+                3, null, 40, 90, 20.0, null);
+        when(linkCacheService.isScanInProgress()).thenReturn(true);
+        when(linkCacheService.getScanProgress()).thenReturn(Optional.of(progress));
+
+        // Act
+        final ScanStatus status = createScheduler("0 0 3 * * *", true).status();
+
+        // Assert
+        assertEquals("cron 0 0 3 * * *", status.schedule());
+        assertTrue(status.paused());
+        assertTrue(status.running());
+        assertNull(status.lastUpdate());
+        assertEquals(progress, status.progress());
+    }
+
+    @Test
+    void cancel_StopsScanInProgress() {
+        // Arrange
+        when(linkCacheService.cancelScan()).thenReturn(true);
+
+        // Act & Assert
+        assertTrue(createScheduler("", false).cancel());
+        verify(linkCacheService).cancelScan();
+    }
+}
@@ -0,0 +1,103 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import reactor.test.StepVerifier;
+import ua.foxminded.model.ScanProgress;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScanTrackerTest {
+
+    private static final Instant START = Instant.parse("2026-01-01T10:00:00Z");
+
+    @Test
+    void progress_ExtrapolatesRemainingLinks_FromCoursesFetched() {
+        // Arrange
+        final ScanTracker tracker = new ScanTracker(START);
+        for (int i = 0; i < 4; i++) {
+            tracker.courseListed();
+        }
+        tracker.coursesListingComplete();
+        tracker.coursesFetched(1);
+        for (int i = 0; i < 100; i++) {
+            tracker.linkFound();
+        }
+        for (int i = 0; i < 50; i++) {
+            tracker.linkValidated();
+        }
+
+        // Act
+        final ScanProgress progress = tracker.progress(START.plusSeconds(10));
+
+        // Assert - 100 links in 1 of 4 courses suggests 400 links, 350 to go at 5 links per second
+        assertEquals(ScanProgress.State.RUNNING, progress.state());
+        assertEquals(4, progress.coursesTotal());
+        assertEquals(1, progress.coursesFetched());
+        assertEquals(5.0, progress.linksPerSecond());
+        assertEquals(Duration.ofSeconds(70), progress.estimatedRemaining());
+    }
+
+    @Test
+    void progress_HasNoEstimate_UntilCoursesAreListed() {
+        // Arrange
+        final ScanTracker tracker = new ScanTracker(START);
+        tracker.courseListed();
+        tracker.linkFound();
+        tracker.linkValidated();
+
+        // Act
+        final ScanProgress progress = tracker.progress(START.plusSeconds(1));
+
+        // Assert
+        assertNull(progress.coursesTotal());
+        assertNull(progress.estimatedRemaining());
+    }
+
+    @Test
+    void cancel_SignalsCancellation_AndFinishesAsCancelled() {
+        // Arrange
+        final ScanTracker tracker = new ScanTracker(START);
+
+        // Act
+        final boolean cancelled = tracker.cancel();
+        tracker.completed(START.plusSeconds(3));
+
+        // Assert
+        assertTrue(cancelled);
+        StepVerifier.create(tracker.cancellation()).verifyComplete();
+        final ScanProgress progress = tracker.progress(START.plusSeconds(60));
+        assertEquals(ScanProgress.State.CANCELLED, progress.state());
+        assertEquals(START.plusSeconds(3), progress.finishedAt());
+        assertFalse(tracker.cancel());
+    }
+
+    @Test
+    void completed_FinishesAsTruncated_WhenDeadlineWasReached() {
+        // Arrange
+        final ScanTracker tracker = new ScanTracker(START);
+
+        // Act
+        tracker.truncated();
+        tracker.completed(START.plusSeconds(2));
+
+        // Assert
+        assertEquals(ScanProgress.State.TRUNCATED, tracker.progress(START.plusSeconds(5)).state());
+    }
+
+    @Test
+    void failed_KeepsFirstOutcome() {
+        // Arrange
+        final ScanTracker tracker = new ScanTracker(START);
+
+        // Act
+        tracker.failed(START.plusSeconds(1));
+        tracker.completed(START.plusSeconds(2));
+
+        // Assert
+        assertEquals(ScanProgress.State.FAILED, tracker.progress(START.plusSeconds(5)).state());
+        assertEquals(START.plusSeconds(1), tracker.progress(START.plusSeconds(5)).finishedAt());
+    }
+}
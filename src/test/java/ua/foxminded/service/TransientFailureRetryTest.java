@@ -0,0 +1,126 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.StepVerifier;
+import reactor.test.scheduler.VirtualTimeScheduler;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.SocketException;
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransientFailureRetryTest {
+
+    private final TransientFailureRetry retry =
+            new TransientFailureRetry(2, Duration.ofSeconds(1), Duration.ofSeconds(30), Schedulers.immediate());
+
+    private static TransientFailureRetry.TransientStatusException statusException(final HttpStatus status,
+                                                                                  final String retryAfter) {
+        final HttpHeaders headers = new HttpHeaders();
+        if (retryAfter != null) {
+            headers.set(HttpHeaders.RETRY_AFTER, retryAfter);
+        }
+        return new TransientFailureRetry.TransientStatusException(status, headers);
+    }
+
+    @Test
+    void isTransient_MatchesResetAndClosedConnections() {
+        // Arrange
+        final WebClientRequestException reset = new WebClientRequestException(
+                new SocketException("Connection reset"), HttpMethod.HEAD,
+                URI.create("https://example.com"), new HttpHeaders());
+
+        // Act & Assert
+        assertTrue(TransientFailureRetry.isTransient(reset));
+        assertTrue(TransientFailureRetry.isTransient(statusException(HttpStatus.SERVICE_UNAVAILABLE, null)));
+        assertFalse(TransientFailureRetry.isTransient(new ConnectException("Connection refused")));
+        assertFalse(TransientFailureRetry.isTransient(new TimeoutException("Did not observe any item")));
+        assertFalse(TransientFailureRetry.isTransient(new IOException("No route to host")));
+    }
+
+    @Test
+    void isTransientStatus_MatchesThrottlingAndGatewayErrors() {
+        // Act & Assert
+        assertTrue(TransientFailureRetry.isTransientStatus(HttpStatus.TOO_MANY_REQUESTS));
+        assertTrue(TransientFailureRetry.isTransientStatus(HttpStatus.GATEWAY_TIMEOUT));
+        assertFalse(TransientFailureRetry.isTransientStatus(HttpStatus.INTERNAL_SERVER_ERROR));
+        assertFalse(TransientFailureRetry.isTransientStatus(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void delayFor_BacksOffWithJitter() {
+        // Arrange
+        final TransientFailureRetry.TransientStatusException failure =
+                statusException(HttpStatus.BAD_GATEWAY, null);
+
+        // Act
+        final Duration first = retry.delayFor(failure, 0);
+        final Duration second = retry.delayFor(failure, 1);
+
+        // Assert
+        assertTrue(first.compareTo(Duration.ofMillis(500)) >= 0 && first.compareTo(Duration.ofMillis(1500)) <= 0);
+        assertTrue(second.compareTo(Duration.ofSeconds(1)) >= 0 && second.compareTo(Duration.ofSeconds(3)) <= 0);
+        assertNull(retry.delayFor(failure, 2));
+    }
+
+    @Test
+    void delayFor_HonoursRetryAfterWithinMaxDelay() {
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(7),
+                retry.delayFor(statusException(HttpStatus.TOO_MANY_REQUESTS, "7"), 0));
+        assertNull(retry.delayFor(statusException(HttpStatus.TOO_MANY_REQUESTS, "120"), 0));
+    }
+
+    @Test
+    void retryAfter_ParsesSecondsAndHttpDates() {
+        // Arrange
+        final Instant now = Instant.parse("2024-05-01T10:00:00Z");
+        final HttpHeaders seconds = new HttpHeaders();
+        seconds.set(HttpHeaders.RETRY_AFTER, "12");
+        final HttpHeaders date = new HttpHeaders();
+        date.set(HttpHeaders.RETRY_AFTER, "Wed, 01 May 2024 10:00:30 GMT");
+        final HttpHeaders invalid = new HttpHeaders();
+        invalid.set(HttpHeaders.RETRY_AFTER, "soon");
+
+        // Act & Assert
+        assertEquals(Duration.ofSeconds(12), TransientFailureRetry.retryAfter(seconds, now));
+        assertEquals(Duration.ofSeconds(30), TransientFailureRetry.retryAfter(date, now));
+        assertNull(TransientFailureRetry.retryAfter(invalid, now));
+        assertNull(TransientFailureRetry.retryAfter(new HttpHeaders(), now));
+    }
+
+    @Test
+    void retrySpec_RetriesTransientFailuresUntilExhausted() {
+        // Arrange
+        final VirtualTimeScheduler scheduler = VirtualTimeScheduler.create();
+        final TransientFailureRetry virtualTimeRetry =
+                new TransientFailureRetry(2, Duration.ofSeconds(1), Duration.ofSeconds(30), scheduler);
+        final AtomicInteger attempts = new AtomicInteger();
+        final Mono<String> request = Mono.defer(() -> {
+            attempts.incrementAndGet();
+            return Mono.error(new SocketException("Connection reset"));
+        });
+
+        // Act & Assert
+        StepVerifier.withVirtualTime(() -> request.retryWhen(virtualTimeRetry.retrySpec()), () -> scheduler, 1)
+                .thenAwait(Duration.ofSeconds(10))
+                .expectError(SocketException.class)
+                .verify();
+        assertEquals(3, attempts.get());
+    }
+}
@@ -0,0 +1,73 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class UrlCanonicalizerTest {
+
+    private final UrlCanonicalizer canonicalizer = new UrlCanonicalizer("utm_*, fbclid", false);
+
+    @Test
+    void canonicalize_shouldLowerCaseSchemeAndHost_butKeepPathCase() {
+        assertEquals("https://example.com/Docs/Page", canonicalizer.canonicalize("HTTPS://Example.COM/Docs/Page"));
+    }
+
+    @Test
+    void canonicalize_shouldDropDefaultPortsOnly() {
+        assertEquals("http://example.com/a", canonicalizer.canonicalize("http://example.com:80/a"));
+        assertEquals("https://example.com/a", canonicalizer.canonicalize("https://example.com:443/a"));
+        assertEquals("https://example.com:8443/a", canonicalizer.canonicalize("https://example.com:8443/a"));
+        assertEquals("http://[::1]:8080/a", canonicalizer.canonicalize("http://[::1]:8080/a"));
+    }
+
+    @Test
+    void canonicalize_shouldDropFragmentsAndEmptyPath() {
+        assertEquals("https://example.com/a", canonicalizer.canonicalize("https://example.com/a#section"));
+        assertEquals("https://example.com", canonicalizer.canonicalize("https://example.com/"));
+        assertEquals("https://example.com?b=1", canonicalizer.canonicalize("https://example.com/?b=1#top"));
+    }
+
+    @Test
+    void canonicalize_shouldKeepTrailingSlashOfNonEmptyPath() {
+        assertEquals("https://docs.oracle.com/javase/tutorial/",
+                canonicalizer.canonicalize("https://docs.oracle.com/javase/tutorial/"));
+        assertEquals("https://example.com/a/?b=1", canonicalizer.canonicalize("https://example.com/a/?b=1#top"));
+    }
+
+    @Test
+    void canonicalize_shouldStripConfiguredQueryParams_andKeepTheRestInOrder() {
+        // Arrange
+        String link = "https://example.com/watch?v=abc&utm_source=lms&UTM_Medium=email&t=10&fbclid=xyz";
+
+        // Act
+        String canonical = canonicalizer.canonicalize(link);
+
+        // Assert
+        assertEquals("https://example.com/watch?v=abc&t=10", canonical);
+        assertEquals("https://example.com/a", canonicalizer.canonicalize("https://example.com/a?utm_campaign=x"));
+    }
+
+    @Test
+    void canonicalize_shouldUpperCasePercentEscapes() {
+        assertEquals("https://example.com/a%2Fb?q=%C3%A9", canonicalizer.canonicalize("https://example.com/a%2fb?q=%c3%a9"));
+    }
+
+    @Test
+    void canonicalize_shouldKeepScheme_unlessHttpsIsPreferred() {
+        // Arrange
+        UrlCanonicalizer preferHttps = new UrlCanonicalizer("", true);
+
+        // Act & Assert
+        assertEquals("http://example.com/a", canonicalizer.canonicalize("http://example.com/a"));
+        assertEquals("https://example.com/a", preferHttps.canonicalize("http://example.com:80/a"));
+        assertEquals("https://example.com/a?utm_source=x", preferHttps.canonicalize("http://example.com/a?utm_source=x"));
+    }
+
+    @Test
+    void canonicalize_shouldReturnStrippedInput_whenLinkIsNotAnAbsoluteHttpUrl() {
+        assertEquals("example.com/a#section", canonicalizer.canonicalize(" example.com/a#section "));
+        assertEquals("mailto:someone@example.com", canonicalizer.canonicalize("mailto:someone@example.com"));
+        assertEquals("https:///path", canonicalizer.canonicalize("https:///path"));
+    }
+}
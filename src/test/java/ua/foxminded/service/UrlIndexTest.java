@@ -0,0 +1,77 @@
+package ua.foxminded.service;
+
+import org.junit.jupiter.api.Test;
+import ua.foxminded.model.LinkValidationResult;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UrlIndexTest {
+
+    private final UrlIndex urlIndex = new UrlIndex(new UrlCanonicalizer("utm_*", false));
+
+    @Test
+    void add_shouldReturnCanonicalUrl_onlyForFirstOccurrence() {
+        // Act
+        Optional<LinkValidationResult> first = urlIndex.add(occurrence("https://Example.com/a/", "Course1", "Task1"));
+        Optional<LinkValidationResult> variant = urlIndex.add(occurrence("https://example.com/a/#b", "Course1", "Task2"));
+        Optional<LinkValidationResult> other = urlIndex.add(occurrence("https://other.com", "Course1", "Task2"));
+
+        // Assert
+        assertEquals(Optional.of(new LinkValidationResult("https://example.com/a/", false, "Course1", "Task1", "")), first);
+        assertTrue(variant.isEmpty());
+        assertEquals("https://other.com", other.orElseThrow().link());
+        assertEquals(2, urlIndex.urlCount());
+        assertEquals(3, urlIndex.occurrenceCount());
+    }
+
+    @Test
+    void add_shouldCountSameUrlOncePerTask() {
+        // Act
+        urlIndex.add(occurrence("https://example.com/a", "Course1", "Task1"));
+        urlIndex.add(occurrence("https://example.com/a?utm_source=lms", "Course1", "Task1"));
+
+        // Assert
+        assertEquals(1, urlIndex.occurrenceCount());
+    }
+
+    @Test
+    void build_shouldReportResultForEveryOccurrence_asWritten() {
+        // Arrange
+        urlIndex.add(occurrence("https://example.com/a", "Course1", "Task1"));
+        urlIndex.add(occurrence("https://EXAMPLE.com/a#top", "Course2", "Task3"));
+        urlIndex.add(occurrence("https://unchecked.com", "Course2", "Task3"));
+
+        // Act
+        List<LinkValidationResult> results = urlIndex.build(List.of(
+                new LinkValidationResult("https://example.com/a", false, "Course1", "Task1", "404 NOT_FOUND")))
+                .results();
+
+        // Assert
+        assertEquals(List.of(
+                new LinkValidationResult("https://example.com/a", false, "Course1", "Task1", "404 NOT_FOUND"),
+                new LinkValidationResult("https://EXAMPLE.com/a#top", false, "Course2", "Task3", "404 NOT_FOUND")), results);
+    }
+
+    @Test
+    void missing_shouldListUrlsWithoutResult_inOrderFirstSeen() {
+        // Arrange
+        urlIndex.add(occurrence("https://b.com", "Course1", "Task1"));
+        urlIndex.add(occurrence("https://example.com/a", "Course1", "Task1"));
+        urlIndex.add(occurrence("https://a.com", "Course2", "Task3"));
+
+        // Act
+        List<String> missing = urlIndex.missing(List.of(
+                new LinkValidationResult("https://example.com/a?utm_source=lms", true, "Course1", "Task1", "200 OK")));
+
+        // Assert
+        assertEquals(List.of("https://b.com", "https://a.com"), missing);
+    }
+
+    private static LinkValidationResult occurrence(final String link, final String courseName, final String taskName) {
+        return new LinkValidationResult(link, false, courseName, taskName, "");
+    }
+}
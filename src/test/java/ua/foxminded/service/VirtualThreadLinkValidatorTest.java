@@ -0,0 +1,449 @@
+package ua.foxminded.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+import reactor.test.StepVerifier;
+import ua.foxminded.config.LinkCheckerHttpClientConfig;
+import ua.foxminded.model.LinkValidationResult;
+import ua.foxminded.model.Redirect;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VirtualThreadLinkValidatorTest {
+
+    private final List<HttpMethod> requests = new CopyOnWriteArrayList<>();
+    private DisposableServer server;
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ConditionalRequests conditionalRequests = new ConditionalRequests(true);
+    private final RedirectCache redirectCache = new RedirectCache(Duration.ofDays(7), Duration.ofHours(1), 100);
+    private HostLatencyTracker hostLatencyTracker =
+            new HostLatencyTracker(5, Duration.ofSeconds(2), 3, Duration.ofHours(24));
+
+    @AfterEach
+    void tearDown() {
+        if (server != null) {
+            server.disposeNow();
+        }
+    }
+
+    private String startServer(
+            final BiFunction<HttpServerRequest, HttpServerResponse, Mono<Void>> handler) {
+        server = HttpServer.create()
+                .host("127.0.0.1")
+                .port(0)
+                .handle((request, response) -> {
+                    requests.add(request.method());
+                    return handler.apply(request, response);
+                })
+                .bindNow();
+        return "http://127.0.0.1:" + server.port();
+    }
+
+    private VirtualThreadLinkValidator createValidator(final int maxPerHost, final String headHostileHosts,
+                                                       final Duration scanDeadline) {
+        return createValidator(maxPerHost, headHostileHosts, scanDeadline,
+                new TransientFailureRetry(2, Duration.ofMillis(1), Duration.ofSeconds(1)), 0);
+    }
+
+    private VirtualThreadLinkValidator createValidator(final int maxPerHost, final String headHostileHosts,
+                                                       final Duration scanDeadline,
+                                                       final TransientFailureRetry transientFailureRetry,
+                                                       final double requestsPerSecond) {
+        return new VirtualThreadLinkValidator(new LinkCheckerHttpClientConfig().jdkLinkCheckerHttpClient(5, false),
+                hostLatencyTracker,
+                transientFailureRetry, new ScanMetrics(meterRegistry),
+                conditionalRequests, redirectCache, scanDeadline, 100, maxPerHost, requestsPerSecond, headHostileHosts);
+    }
+
+    private VirtualThreadLinkValidator createValidator() {
+        return createValidator(4, "", Duration.ofMinutes(30));
+    }
+
+    private static LinkValidationResult link(final String url) {
+        return new LinkValidationResult(url, false, "Course", "Task", "");
+    }
+
+    @Test
+    void validateLinks_ReportsStatusOfEachLink() {
+        // Arrange
+        final String baseUrl = startServer((request, response) -> response
+                .status(request.uri().startsWith("/missing") ? HttpResponseStatus.NOT_FOUND : HttpResponseStatus.OK)
+                .send());
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act
+        final List<LinkValidationResult> results = validator
+                .validateLinks(Flux.just(link(baseUrl + "/ok"), link(baseUrl + "/missing")))
+                .collectList()
+                .block(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(2, results.size());
+        assertTrue(results.contains(new LinkValidationResult(baseUrl + "/ok", true, "Course", "Task", "200 OK")));
+        assertTrue(results.contains(
+                new LinkValidationResult(baseUrl + "/missing", false, "Course", "Task", "404 NOT_FOUND")));
+        assertEquals(List.of(HttpMethod.HEAD, HttpMethod.HEAD), requests);
+    }
+
+    @Test
+    void validateLinks_FallsBackToGet_WhenHeadIsNotAllowed() {
+        // Arrange
+        final String baseUrl = startServer((request, response) -> request.method() == HttpMethod.HEAD
+                ? response.status(HttpResponseStatus.METHOD_NOT_ALLOWED).send()
+                : response.status(HttpResponseStatus.OK).sendString(Mono.just("x".repeat(1_000_000))).then());
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/a"))))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/b"))))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        assertEquals(List.of(HttpMethod.HEAD, HttpMethod.GET, HttpMethod.GET), requests);
+    }
+
+    @Test
+    void validateLinks_ConfirmsUnchangedLink_WhenRevalidatedConditionally() {
+        // Arrange
+        final List<String> ifNoneMatch = new CopyOnWriteArrayList<>();
+        final String baseUrl = startServer((request, response) -> {
+            final String etag = request.requestHeaders().get("If-None-Match", "");
+            ifNoneMatch.add(etag);
+            return etag.equals("\"v1\"")
+                    ? response.status(HttpResponseStatus.NOT_MODIFIED).send()
+                    : response.status(HttpResponseStatus.OK).header("ETag", "\"v1\"").send();
+        });
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/guide"))))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/guide"))))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("304 NOT_MODIFIED"))
+                .verifyComplete();
+        assertEquals(List.of("", "\"v1\""), ifNoneMatch);
+    }
+
+    @Test
+    void validateLinks_FollowsRedirectsAndRecordsChain() {
+        // Arrange
+        final String baseUrl = startServer((request, response) -> switch (request.uri()) {
+            case "/old" -> response.status(HttpResponseStatus.MOVED_PERMANENTLY).header("Location", "/new").send();
+            case "/new" -> response.status(HttpResponseStatus.FOUND).header("Location", "/current").send();
+            default -> response.status(HttpResponseStatus.OK).send();
+        });
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/old"))))
+                .expectNextMatches(result -> result.valid()
+                        && result.statusMessage().equals("200 OK")
+                        && result.redirects().equals(List.of(
+                                new Redirect(301, baseUrl + "/new"), new Redirect(302, baseUrl + "/current")))
+                        && result.movedTo().equals(baseUrl + "/new"))
+                .verifyComplete();
+        // The permanent redirect is remembered, the temporary one is followed again
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/old"))))
+                .expectNextMatches(result -> result.valid() && result.redirects().size() == 2)
+                .verifyComplete();
+        assertEquals(List.of(HttpMethod.HEAD, HttpMethod.HEAD, HttpMethod.HEAD, HttpMethod.HEAD), requests);
+    }
+
+    @Test
+    void validateLinks_ReportsRedirectLoop() {
+        // Arrange
+        final String baseUrl = startServer((request, response) -> response.status(HttpResponseStatus.FOUND)
+                .header("Location", request.uri().equals("/a") ? "/b" : "/a")
+                .send());
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/a"))))
+                .expectNextMatches(result -> !result.valid()
+                        && result.statusMessage().equals("Redirect loop back to " + baseUrl + "/a"))
+                .verifyComplete();
+        assertEquals(2, requests.size());
+    }
+
+    @Test
+    void validateLinks_RetriesTransientStatus() {
+        // Arrange
+        final AtomicInteger attempts = new AtomicInteger();
+        final String baseUrl = startServer((request, response) -> response
+                .status(attempts.incrementAndGet() == 1 ? HttpResponseStatus.SERVICE_UNAVAILABLE : HttpResponseStatus.OK)
+                .send());
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/a"))))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void validateLinks_ReleasesHostPermit_WhileWaitingToRetry() {
+        // Arrange
+        final List<String> paths = new CopyOnWriteArrayList<>();
+        final AtomicInteger attempts = new AtomicInteger();
+        final String baseUrl = startServer((request, response) -> {
+            paths.add(request.path());
+            return response
+                    .status(request.path().equals("a") && attempts.incrementAndGet() == 1
+                            ? HttpResponseStatus.SERVICE_UNAVAILABLE
+                            : HttpResponseStatus.OK)
+                    .send();
+        });
+        final VirtualThreadLinkValidator validator = createValidator(1, "", Duration.ofMinutes(30),
+                new TransientFailureRetry(2, Duration.ofSeconds(1), Duration.ofSeconds(2)), 0);
+        // The second link arrives while the first one waits to be retried
+        final Flux<LinkValidationResult> links = Flux.concat(Mono.just(link(baseUrl + "/a")),
+                Mono.delay(Duration.ofMillis(100)).thenReturn(link(baseUrl + "/b")));
+
+        // Act
+        final Long checked = validator.validateLinks(links).count().block(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(2, checked);
+        assertEquals(List.of("a", "b", "a"), paths);
+    }
+
+    @Test
+    void validateLinks_RetriesWithLinkTimeout_WhenHostTimeoutExpires() {
+        // Arrange
+        final String baseUrl = startServer((request, response) -> Mono.delay(Duration.ofMillis(300))
+                .then(response.status(HttpResponseStatus.OK).send()));
+        hostLatencyTracker = new HostLatencyTracker(1, Duration.ofMillis(100), 3, Duration.ofHours(24));
+        for (int i = 0; i < HostLatencyTracker.MIN_SAMPLES; i++) {
+            hostLatencyTracker.record("127.0.0.1", Duration.ofMillis(1));
+        }
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/a"))))
+                .expectNextMatches(result -> result.valid() && result.statusMessage().equals("200 OK"))
+                .verifyComplete();
+        assertEquals(List.of(HttpMethod.HEAD, HttpMethod.HEAD), requests);
+    }
+
+    @Test
+    void validateLinks_LimitsConcurrentRequestsPerHost() {
+        // Arrange
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        final String baseUrl = startServer((request, response) -> Mono.defer(() -> {
+                    maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                    return Mono.delay(Duration.ofMillis(50));
+                })
+                .then(Mono.defer(() -> {
+                    inFlight.decrementAndGet();
+                    return response.status(HttpResponseStatus.OK).send().then();
+                })));
+        final VirtualThreadLinkValidator validator = createValidator(2, "", Duration.ofMinutes(30));
+        final List<LinkValidationResult> links = IntStream.range(0, 10)
+                .mapToObj(i -> link(baseUrl + "/" + i))
+                .toList();
+
+        // Act
+        final Long checked = validator.validateLinks(Flux.fromIterable(links)).count().block(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(10, checked);
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    void validateLinks_ForgetsHosts_OnceTheirChecksAreDone() {
+        // Arrange
+        final String baseUrl = startServer((request, response) -> response.status(HttpResponseStatus.OK).send());
+        final VirtualThreadLinkValidator validator = createValidator();
+        // Nothing listens there, so the check fails right away
+        final String refusedUrl = "http://127.0.0.2:1";
+
+        // Act
+        validator.validateLinks(Flux.just(link(baseUrl + "/a"), link(baseUrl + "/b"), link(refusedUrl + "/c")))
+                .blockLast(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(0, validator.trackedHosts());
+    }
+
+    @Test
+    void validateLinks_ForgetsRateLimitedHost_OnceItsIntervalHasElapsed() throws InterruptedException {
+        // Arrange
+        final String baseUrl = startServer((request, response) -> response.status(HttpResponseStatus.OK).send());
+        final VirtualThreadLinkValidator validator = createValidator(4, "", Duration.ofMinutes(30),
+                new TransientFailureRetry(2, Duration.ofMillis(1), Duration.ofSeconds(1)), 10);
+        validator.validateLinks(Flux.just(link(baseUrl + "/a"))).blockLast(Duration.ofSeconds(10));
+        final int trackedWithinInterval = validator.trackedHosts();
+        Thread.sleep(200);
+
+        // Act
+        validator.validateLinks(Flux.just(link("http://127.0.0.2:1/b"))).blockLast(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(1, trackedWithinInterval);
+        // Only the host just checked is still within its interval
+        assertEquals(1, validator.trackedHosts());
+    }
+
+    @Test
+    void validateLinks_LimitsConcurrentRedirectTargetsPerHost() {
+        // Arrange
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger maxInFlight = new AtomicInteger();
+        server = HttpServer.create()
+                .host("0.0.0.0")
+                .port(0)
+                .handle((request, response) -> {
+                    final String host = request.requestHeaders().get("Host", "");
+                    if (!host.startsWith("127.0.0.1:")) {
+                        return response.status(HttpResponseStatus.FOUND)
+                                .header("Location", "http://127.0.0.1:" + server.port() + request.uri())
+                                .send();
+                    }
+                    return Mono.defer(() -> {
+                                maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+                                return Mono.delay(Duration.ofMillis(50));
+                            })
+                            .then(Mono.defer(() -> {
+                                inFlight.decrementAndGet();
+                                return response.status(HttpResponseStatus.OK).send().then();
+                            }));
+                })
+                .bindNow();
+        final VirtualThreadLinkValidator validator = createValidator(1, "", Duration.ofMinutes(30));
+        // Every link has a host of its own, all of them redirect to 127.0.0.1
+        final List<LinkValidationResult> links = IntStream.range(2, 6)
+                .mapToObj(i -> link("http://127.0.0." + i + ":" + server.port() + "/" + i))
+                .toList();
+
+        // Act
+        final Long checked = validator.validateLinks(Flux.fromIterable(links)).count().block(Duration.ofSeconds(10));
+
+        // Assert
+        assertEquals(4, checked);
+        assertEquals(1, maxInFlight.get());
+    }
+
+    @Test
+    void validateLinks_ReportsConnectionFailure() {
+        // Arrange
+        startServer((request, response) -> response.send());
+        final String closedUrl = "http://127.0.0.1:" + server.port() + "/a";
+        server.disposeNow();
+        server = null;
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link(closedUrl), link("not a url"))))
+                .expectNextMatches(result -> !result.valid() && !result.statusMessage().isEmpty())
+                .expectNextMatches(result -> !result.valid() && !result.statusMessage().isEmpty())
+                .expectComplete()
+                .verify(Duration.ofSeconds(10));
+    }
+
+    @Test
+    void validateLinks_SkipsFigmaLinks() {
+        // Arrange
+        final VirtualThreadLinkValidator validator = createValidator();
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link("https://figma.com/design"))))
+                .expectNext(new LinkValidationResult("https://figma.com/design", true, "Course", "Task",
+                        "Figma link (validation skipped)"))
+                .verifyComplete();
+    }
+
+    @Test
+    void validateLinks_ReturnsPartialResults_WhenScanDeadlineIsReached() {
+        // Arrange
+        final String baseUrl = startServer((request, response) -> request.uri().startsWith("/hanging")
+                ? Mono.never()
+                : response.status(HttpResponseStatus.OK).send());
+        final VirtualThreadLinkValidator validator = createValidator(4, "", Duration.ofMillis(500));
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/fast"), link(baseUrl + "/hanging"))))
+                .expectNextMatches(result -> result.link().endsWith("/fast") && result.valid())
+                .expectComplete()
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void shutdown_AbortsChecksInFlight() throws InterruptedException {
+        // Arrange
+        final CountDownLatch received = new CountDownLatch(1);
+        final CountDownLatch closed = new CountDownLatch(1);
+        final String baseUrl = startServer((request, response) -> {
+            response.withConnection(connection -> connection.onDispose(closed::countDown));
+            received.countDown();
+            return Mono.never();
+        });
+        final VirtualThreadLinkValidator validator = createValidator();
+        validator.validateLinks(Flux.just(link(baseUrl + "/hanging"))).subscribe();
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+
+        // Act
+        validator.shutdown();
+
+        // Assert
+        assertTrue(closed.await(2, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void shutdown_CompletesScanWithChecksInFlight() throws InterruptedException {
+        // Arrange
+        final CountDownLatch received = new CountDownLatch(1);
+        final String baseUrl = startServer((request, response) -> {
+            received.countDown();
+            return Mono.never();
+        });
+        final VirtualThreadLinkValidator validator = createValidator();
+        final StepVerifier scan = StepVerifier.create(validator.validateLinks(Flux.just(link(baseUrl + "/hanging"))))
+                .expectComplete()
+                .verifyLater();
+        assertTrue(received.await(5, TimeUnit.SECONDS));
+
+        // Act
+        validator.shutdown();
+
+        // Assert
+        scan.verify(Duration.ofSeconds(2));
+    }
+
+    @Test
+    void validateLinks_ReportsEachLinkAsFailed_AfterShutdown() {
+        // Arrange
+        final VirtualThreadLinkValidator validator = createValidator();
+        validator.shutdown();
+        final Flux<LinkValidationResult> links = Flux.just(link("http://127.0.0.1:1/a"), link("http://127.0.0.1:1/b"));
+
+        // Act & Assert
+        StepVerifier.create(validator.validateLinks(links))
+                .expectNextMatches(result -> result.link().endsWith("/a") && !result.valid())
+                .expectNextMatches(result -> result.link().endsWith("/b") && !result.valid())
+                .verifyComplete();
+    }
+}